@@ -75,12 +75,16 @@ namespace internal {
         static jmethodID mSwapchainAcquire;
         static jmethodID mSwapchainTryAcquire;
         static jmethodID mSwapchainPresent;
+        static jmethodID mSwapchainPresentUnchanged;
+        static jmethodID mSwapchainFlush;
         static jmethodID mSwapchainDispose;
         static jmethodID mSwapchainGetConfig;
     public:
         static jobject callSwapchainAcquire(JNIEnv* env, jobject swapchain);
         static jobject callSwapchainTryAcquire(JNIEnv* env, jobject swapchain);
         static void callSwapchainPresent(JNIEnv* env, jobject swapchain, jobject renderTarget);
+        static void callSwapchainPresentUnchanged(JNIEnv* env, jobject swapchain);
+        static void callSwapchainFlush(JNIEnv* env, jobject swapchain);
         static void callSwapchainDispose(JNIEnv* env, jobject swapchain);
         static jobject callSwapchainGetConfig(JNIEnv* env, jobject swapchain);
         // Renderer
@@ -166,6 +170,8 @@ namespace internal {
         driftfx::RenderTarget* acquire();
         driftfx::RenderTarget* tryAcquire();
         void present(driftfx::RenderTarget* image);
+        void presentUnchanged();
+        void flush();
 
         ~SwapchainImpl();
 
@@ -222,6 +228,8 @@ jfieldID internal::JNI::fSwapchainConfigTransferType;
 jmethodID internal::JNI::mSwapchainAcquire;
 jmethodID internal::JNI::mSwapchainTryAcquire;
 jmethodID internal::JNI::mSwapchainPresent;
+jmethodID internal::JNI::mSwapchainPresentUnchanged;
+jmethodID internal::JNI::mSwapchainFlush;
 jmethodID internal::JNI::mSwapchainDispose;
 jmethodID internal::JNI::mSwapchainGetConfig;
 
@@ -310,6 +318,8 @@ void internal::JNI::init(JNIEnv* env, jobject _classLoader) {
 
     // mSwapchainTryAcquire // TODO generics!?
     mSwapchainPresent = getMethodID(env, Swapchain, cSwapchain, "present", "(Lorg/eclipse/fx/drift/RenderTarget;)V");
+    mSwapchainPresentUnchanged = getMethodID(env, Swapchain, cSwapchain, "presentUnchanged", "()V");
+    mSwapchainFlush = getMethodID(env, Swapchain, cSwapchain, "flush", "()V");
     mSwapchainDispose = getMethodID(env, Swapchain, cSwapchain, "dispose", "()V");
     mSwapchainGetConfig = getMethodID(env, Swapchain, cSwapchain, "getConfig", "()Lorg/eclipse/fx/drift/SwapchainConfig;");
 
@@ -439,6 +449,14 @@ void internal::JNI::callSwapchainPresent(JNIEnv* env, jobject swapchain, jobject
     env->CallVoidMethod(swapchain, mSwapchainPresent, renderTarget);
 }
 
+void internal::JNI::callSwapchainPresentUnchanged(JNIEnv* env, jobject swapchain) {
+    env->CallVoidMethod(swapchain, mSwapchainPresentUnchanged);
+}
+
+void internal::JNI::callSwapchainFlush(JNIEnv* env, jobject swapchain) {
+    env->CallVoidMethod(swapchain, mSwapchainFlush);
+}
+
 void internal::JNI::callSwapchainDispose(JNIEnv* env, jobject swapchain) {
     env->CallVoidMethod(swapchain, mSwapchainDispose);
 }
@@ -552,6 +570,14 @@ void internal::SwapchainImpl::present(driftfx::RenderTarget* target) {
     internal::JNI::callSwapchainPresent(env, javaInstance, internalTarget->getJavaInstance());
 }
 
+void internal::SwapchainImpl::presentUnchanged() {
+    internal::JNI::callSwapchainPresentUnchanged(env, javaInstance);
+}
+
+void internal::SwapchainImpl::flush() {
+    internal::JNI::callSwapchainFlush(env, javaInstance);
+}
+
 driftfx::RenderTarget* internal::SwapchainImpl::acquire() {
     jobject renderTarget = internal::JNI::callSwapchainAcquire(env, javaInstance);
     return new RenderTargetImpl(env, renderTarget);
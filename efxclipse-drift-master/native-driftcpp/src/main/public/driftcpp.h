@@ -55,6 +55,14 @@ namespace driftfx {
         virtual RenderTarget* tryAcquire() = 0;
         
         virtual void present(RenderTarget* image) = 0;
+        /**
+         * declares that nothing changed since the previously presented frame, no RenderTarget is needed.
+         */
+        virtual void presentUnchanged() = 0;
+        /**
+         * hands all presented frames to JavaFX, called after the last present of a renderer that stops presenting.
+         */
+        virtual void flush() = 0;
         
         virtual ~Swapchain() = 0;
     };
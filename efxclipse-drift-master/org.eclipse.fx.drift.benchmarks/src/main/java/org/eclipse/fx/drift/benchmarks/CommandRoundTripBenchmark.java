@@ -0,0 +1,120 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.fx.drift.PresentationMode;
+import org.eclipse.fx.drift.RenderTarget;
+import org.eclipse.fx.drift.Swapchain;
+import org.eclipse.fx.drift.SwapchainConfig;
+import org.eclipse.fx.drift.Vec2i;
+import org.eclipse.fx.drift.internal.backend.BackendImpl;
+import org.eclipse.fx.drift.internal.frontend.Frontend;
+import org.eclipse.fx.drift.internal.transport.Command;
+import org.eclipse.fx.drift.internal.transport.VMTransport;
+import org.eclipse.fx.drift.internal.transport.command.CreateSwapchainCommand;
+import org.eclipse.fx.drift.internal.transport.command.DisposeSwapchainCommand;
+import org.eclipse.fx.drift.internal.transport.command.PresentCommand;
+import org.eclipse.fx.drift.internal.transport.command.ReleaseCommand;
+import org.eclipse.fx.drift.internal.transport.command.SwapchainCreatedCommand;
+import org.eclipse.fx.drift.internal.transport.command.SwapchainDisposedCommand;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Commands between {@link BackendImpl} and a frontend through {@link VMTransport}.
+ * <p>
+ * The frontend answers like <code>FrontendImpl</code> but without JavaFX: presented images are released right away,
+ * so with a single image every acquire waits for the complete present / release round trip over both command buses.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CommandRoundTripBenchmark {
+	
+	@Param({ "1", "3" })
+	public int imageCount;
+	
+	private BackendImpl backend;
+	private Swapchain swapchain;
+	
+	static class EchoFrontend implements Frontend {
+		private Consumer<Command> commandChannel;
+		
+		@Override
+		public Vec2i getSize() {
+			return new Vec2i(1920, 1080);
+		}
+		
+		@Override
+		public void setCommandChannel(Consumer<Command> commandChannel) {
+			this.commandChannel = commandChannel;
+		}
+		
+		@Override
+		public void receiveCommand(Command command) {
+			if (command instanceof PresentCommand) {
+				PresentCommand present = (PresentCommand) command;
+				commandChannel.accept(new ReleaseCommand(present.getSwapChainId(), present.getImageData()));
+			}
+			else if (command instanceof CreateSwapchainCommand) {
+				commandChannel.accept(new SwapchainCreatedCommand(((CreateSwapchainCommand) command).getId()));
+			}
+			else if (command instanceof DisposeSwapchainCommand) {
+				commandChannel.accept(new SwapchainDisposedCommand(((DisposeSwapchainCommand) command).getId()));
+			}
+		}
+	}
+	
+	@Setup(Level.Trial)
+	public void setup() {
+		backend = new BackendImpl();
+		new VMTransport(new EchoFrontend(), backend).start();
+		swapchain = backend.createSwapchain(new SwapchainConfig(new Vec2i(1920, 1080), imageCount, PresentationMode.MAILBOX, FakeImage.TYPE));
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		swapchain.dispose();
+	}
+	
+	@Benchmark
+	public RenderTarget presentRoundTrip() throws InterruptedException {
+		RenderTarget target = swapchain.acquire();
+		swapchain.present(target);
+		return target;
+	}
+	
+	@Benchmark
+	public Swapchain createSwapchain() {
+		Swapchain created = backend.createSwapchain(new SwapchainConfig(new Vec2i(64, 64), imageCount, PresentationMode.MAILBOX, FakeImage.TYPE));
+		created.dispose();
+		return created;
+	}
+}
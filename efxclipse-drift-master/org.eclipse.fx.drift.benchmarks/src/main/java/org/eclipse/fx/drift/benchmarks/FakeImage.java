@@ -0,0 +1,62 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.benchmarks;
+
+import org.eclipse.fx.drift.TransferType;
+import org.eclipse.fx.drift.Vec2i;
+import org.eclipse.fx.drift.internal.backend.Image;
+import org.eclipse.fx.drift.internal.backend.ImageFactory;
+import org.eclipse.fx.drift.internal.common.ImageData;
+
+/**
+ * Image without GL resources, isolates the swapchain and transport bookkeeping.
+ */
+public class FakeImage implements Image {
+	
+	public static final TransferType TYPE = new TransferType("Fake", () -> true);
+	
+	static {
+		ImageFactory.register(TYPE, FakeImage::new);
+	}
+	
+	private final ImageData data;
+	
+	public FakeImage(int number, Vec2i size) {
+		this.data = new ImageData(number, TYPE, size);
+	}
+	
+	@Override
+	public ImageData getData() {
+		return data;
+	}
+	
+	@Override
+	public void allocate() {
+	}
+	
+	@Override
+	public void release() {
+	}
+	
+	@Override
+	public void onAcquire() {
+	}
+	
+	@Override
+	public void onPresent() {
+	}
+	
+	@Override
+	public int getGLTexture() {
+		return 0;
+	}
+}
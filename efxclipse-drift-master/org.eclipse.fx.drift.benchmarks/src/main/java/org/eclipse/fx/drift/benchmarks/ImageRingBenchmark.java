@@ -0,0 +1,142 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.benchmarks;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.fx.drift.internal.backend.ImageRing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Free image bookkeeping of the backend swapchain: {@link ImageRing} against the former
+ * <code>LinkedBlockingQueue</code> + <code>synchronized</code> implementation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class ImageRingBenchmark {
+
+	@Param({ "2", "3", "5" })
+	public int imageCount;
+
+	private ImageRing ring;
+	private ImageRing ringPresented;
+
+	private BlockingQueue<Integer> queue;
+	private BlockingQueue<Integer> queuePresented;
+	private Integer[] boxed;
+
+	@Setup(Level.Iteration)
+	public void setup() {
+		ring = new ImageRing(imageCount);
+		ringPresented = new ImageRing(imageCount);
+		queue = new LinkedBlockingQueue<>();
+		queuePresented = new LinkedBlockingQueue<>();
+		boxed = new Integer[imageCount];
+		for (int i = 0; i < imageCount; i++) {
+			boxed[i] = Integer.valueOf(i);
+			ring.offer(i);
+			queue.add(boxed[i]);
+		}
+	}
+
+	// single threaded acquire / release cycle
+
+	@Benchmark
+	@Group("uncontendedRing")
+	public int ringCycle() throws InterruptedException {
+		int number = ring.take();
+		ring.offer(number);
+		return number;
+	}
+
+	@Benchmark
+	@Group("uncontendedQueue")
+	public Integer queueCycle() throws InterruptedException {
+		Integer number;
+		synchronized (queue) {
+			number = queue.take();
+		}
+		if (!queue.contains(number)) {
+			queue.add(number);
+		}
+		return number;
+	}
+
+	// renderer thread acquires and presents, frontend thread releases
+	// (non-blocking on both ends so the group never deadlocks at iteration end)
+
+	@Benchmark
+	@Group("contendedRing")
+	@GroupThreads(1)
+	public int ringRenderer() {
+		int number = ring.poll();
+		if (number != ImageRing.EMPTY) {
+			ringPresented.offer(number);
+		}
+		return number;
+	}
+
+	@Benchmark
+	@Group("contendedRing")
+	@GroupThreads(1)
+	public int ringFrontend() {
+		int number = ringPresented.poll();
+		if (number != ImageRing.EMPTY) {
+			ring.offer(number);
+		}
+		return number;
+	}
+
+	@Benchmark
+	@Group("contendedQueue")
+	@GroupThreads(1)
+	public Integer queueRenderer() {
+		Integer number;
+		synchronized (queue) {
+			number = queue.poll();
+		}
+		if (number != null) {
+			queuePresented.add(number);
+		}
+		return number;
+	}
+
+	@Benchmark
+	@Group("contendedQueue")
+	@GroupThreads(1)
+	public Integer queueFrontend() {
+		Integer number = queuePresented.poll();
+		if (number != null && !queue.contains(number)) {
+			queue.add(number);
+		}
+		return number;
+	}
+}
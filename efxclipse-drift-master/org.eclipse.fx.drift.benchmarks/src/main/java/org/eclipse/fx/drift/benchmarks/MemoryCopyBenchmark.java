@@ -0,0 +1,118 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.fx.drift.internal.SYS;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Copying a BGRA frame: {@link SYS#memcpy(long, long, int)} (the MainMemory readback copy) against the copies
+ * available from Java.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MemoryCopyBenchmark {
+	
+	@Param({ "1920x1080", "3840x2160" })
+	public String resolution;
+	
+	private int width;
+	private int height;
+	private int size;
+	
+	private ByteBuffer src;
+	private ByteBuffer dst;
+	private long pSrc;
+	private long pDst;
+	private byte[] heapSrc;
+	private byte[] heapDst;
+	private IntBuffer intSrc;
+	private IntBuffer intDst;
+	
+	@Setup(Level.Trial)
+	public void setup() {
+		String[] parts = resolution.split("x");
+		width = Integer.parseInt(parts[0]);
+		height = Integer.parseInt(parts[1]);
+		size = width * height * 4;
+		src = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+		dst = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+		for (int i = 0; i < size; i += 4) {
+			src.putInt(i, i);
+		}
+		pSrc = SYS.address(src);
+		pDst = SYS.address(dst);
+		heapSrc = new byte[size];
+		heapDst = new byte[size];
+		intSrc = src.asIntBuffer();
+		intDst = dst.asIntBuffer();
+	}
+	
+	@Benchmark
+	public ByteBuffer sysMemcpy() {
+		SYS.memcpy(pDst, pSrc, size);
+		return dst;
+	}
+	
+	@Benchmark
+	public ByteBuffer directBufferPut() {
+		src.clear();
+		dst.clear();
+		dst.put(src);
+		return dst;
+	}
+	
+	@Benchmark
+	public ByteBuffer directToHeap() {
+		src.clear();
+		src.get(heapDst);
+		return src;
+	}
+	
+	@Benchmark
+	public byte[] heapArraycopy() {
+		System.arraycopy(heapSrc, 0, heapDst, 0, size);
+		return heapDst;
+	}
+	
+	// a row at a time, like uploads into a texture with a different stride
+	@Benchmark
+	public IntBuffer intBufferRows() {
+		for (int y = 0; y < height; y++) {
+			intSrc.limit((y + 1) * width);
+			intSrc.position(y * width);
+			intDst.position(y * width);
+			intDst.put(intSrc);
+		}
+		return intDst;
+	}
+}
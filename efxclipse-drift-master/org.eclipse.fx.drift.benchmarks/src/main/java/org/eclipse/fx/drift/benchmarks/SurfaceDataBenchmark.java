@@ -0,0 +1,85 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.fx.drift.Placement;
+import org.eclipse.fx.drift.internal.DirtyNotifier;
+import org.eclipse.fx.drift.internal.SurfaceData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The work of every layout pass and resize of a surface: computing its {@link SurfaceData}, comparing it with the
+ * current one and notifying the FX thread through {@link DirtyNotifier}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SurfaceDataBenchmark {
+	
+	private final AtomicReference<SurfaceData> current = new AtomicReference<>();
+	private float width = 800;
+	private int changes;
+	private DirtyNotifier notifier;
+	
+	@Setup
+	public void setup() {
+		current.set(compute(width));
+		// the task is never run, so every further notification is coalesced
+		notifier = new DirtyNotifier(task -> {}, bits -> changes |= bits);
+	}
+	
+	private static SurfaceData compute(float width) {
+		return new SurfaceData(width, 600, 1.5f, 1.5f, 1, 1, 0, Placement.CENTER);
+	}
+	
+	private boolean update(SurfaceData data) {
+		if (!data.equals(current.get())) {
+			current.set(data);
+			return true;
+		}
+		return false;
+	}
+	
+	// a layout pass without a size change
+	@Benchmark
+	public boolean unchanged() {
+		return update(compute(width));
+	}
+	
+	// an interactive resize
+	@Benchmark
+	public boolean resized() {
+		width = width > 1000 ? 800 : width + 1;
+		return update(compute(width));
+	}
+	
+	@Benchmark
+	public DirtyNotifier notifyCoalesced() {
+		notifier.markDirty(1);
+		return notifier;
+	}
+}
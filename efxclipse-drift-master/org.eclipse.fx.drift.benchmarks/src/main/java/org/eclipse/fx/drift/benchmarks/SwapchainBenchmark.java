@@ -0,0 +1,120 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.eclipse.fx.drift.PresentationMode;
+import org.eclipse.fx.drift.RenderTarget;
+import org.eclipse.fx.drift.SwapchainConfig;
+import org.eclipse.fx.drift.Vec2i;
+import org.eclipse.fx.drift.internal.backend.Backend;
+import org.eclipse.fx.drift.internal.backend.BackendSwapchain;
+import org.eclipse.fx.drift.internal.backend.SimpleSwapchain;
+import org.eclipse.fx.drift.internal.transport.Command;
+import org.eclipse.fx.drift.internal.transport.SwapchainCommand;
+import org.eclipse.fx.drift.internal.transport.command.PresentCommand;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Acquire / present / release cycle of {@link SimpleSwapchain} with {@link FakeImage}s. The backend hands every
+ * presented image straight back, as a frontend that is never behind would.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SwapchainBenchmark {
+	
+	@Param({ "2", "3", "5" })
+	public int imageCount;
+	
+	private SimpleSwapchain swapchain;
+	
+	static class ReleasingBackend implements Backend {
+		BackendSwapchain swapchain;
+		
+		@Override
+		public BackendSwapchain createSwapchain(SwapchainConfig config) {
+			throw new UnsupportedOperationException();
+		}
+		
+		@Override
+		public void setCommandChannel(Consumer<Command> commandChannel) {
+		}
+		
+		@Override
+		public void receiveCommand(Command command) {
+		}
+		
+		@Override
+		public void sendCommand(Command command) {
+			if (command instanceof PresentCommand) {
+				swapchain.release(((PresentCommand) command).getImageData());
+			}
+		}
+		
+		@Override
+		public <C extends Command> CompletableFuture<C> waitForCommand(Class<C> type, Predicate<C> filter) {
+			return new CompletableFuture<>();
+		}
+		
+		@Override
+		public <C extends SwapchainCommand> CompletableFuture<C> waitForCommand(Class<C> type, UUID swapChainId) {
+			return new CompletableFuture<>();
+		}
+	}
+	
+	@Setup(Level.Trial)
+	public void setup() {
+		ReleasingBackend backend = new ReleasingBackend();
+		swapchain = new SimpleSwapchain(backend, UUID.randomUUID(), new SwapchainConfig(new Vec2i(1920, 1080), imageCount, PresentationMode.MAILBOX, FakeImage.TYPE));
+		backend.swapchain = swapchain;
+		swapchain.allocate();
+	}
+	
+	@Benchmark
+	public RenderTarget acquirePresent() throws InterruptedException {
+		RenderTarget target = swapchain.acquire();
+		swapchain.present(target);
+		return target;
+	}
+	
+	@Benchmark
+	public RenderTarget tryAcquirePresent() {
+		RenderTarget target = swapchain.tryAcquire().get();
+		swapchain.present(target);
+		return target;
+	}
+	
+	@Benchmark
+	public void presentUnchanged() {
+		swapchain.presentUnchanged();
+	}
+}
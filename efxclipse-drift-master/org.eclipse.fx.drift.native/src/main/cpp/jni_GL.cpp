@@ -120,6 +120,28 @@ extern "C" JNIEXPORT void JNICALL Java_org_eclipse_fx_drift_internal_GL_glTexIma
 	glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
 }
 
+extern "C" JNIEXPORT void JNICALL Java_org_eclipse_fx_drift_internal_GL_glTexSubImage2D(JNIEnv *env, jclass cls, jint _target, jint _level, jint _xoffset, jint _yoffset, jint _width, jint _height, jint _format, jint _type, jlong _pPixels) {
+	GLenum target = (GLenum) _target;
+	GLint level = (GLint) _level;
+	GLint xoffset = (GLint) _xoffset;
+	GLint yoffset = (GLint) _yoffset;
+	GLsizei width = (GLsizei) _width;
+	GLsizei height = (GLsizei) _height;
+	GLenum format = (GLenum) _format;
+	GLenum type = (GLenum) _type;
+	void* pixels = (void*) _pPixels;
+	glTexSubImage2D(target, level, xoffset, yoffset, width, height, format, type, pixels);
+}
+
+extern "C" JNIEXPORT void JNICALL Java_org_eclipse_fx_drift_internal_GL_glTexStorage2D(JNIEnv *env, jclass cls, jint _target, jint _levels, jint _internalformat, jint _width, jint _height) {
+	GLenum target = (GLenum) _target;
+	GLsizei levels = (GLsizei) _levels;
+	GLenum internalformat = (GLenum) _internalformat;
+	GLsizei width = (GLsizei) _width;
+	GLsizei height = (GLsizei) _height;
+	glTexStorage2D(target, levels, internalformat, width, height);
+}
+
 extern "C" JNIEXPORT void JNICALL Java_org_eclipse_fx_drift_internal_GL_glGetTexImage(JNIEnv *env, jclass cls, jint _target, jint _level, jint _format, jint _type, jlong _pPixels) {
 	GLenum target = (GLenum) _target;
 	GLint level = (GLint) _level;
@@ -129,6 +151,17 @@ extern "C" JNIEXPORT void JNICALL Java_org_eclipse_fx_drift_internal_GL_glGetTex
 	glGetTexImage(target, level, format, type, pixels);
 }
 
+extern "C" JNIEXPORT void JNICALL Java_org_eclipse_fx_drift_internal_GL_glReadPixels(JNIEnv *env, jclass cls, jint _x, jint _y, jint _width, jint _height, jint _format, jint _type, jlong _pPixels) {
+	GLint x = (GLint) _x;
+	GLint y = (GLint) _y;
+	GLsizei width = (GLsizei) _width;
+	GLsizei height = (GLsizei) _height;
+	GLenum format = (GLenum) _format;
+	GLenum type = (GLenum) _type;
+	void* pixels = (void*) _pPixels;
+	glReadPixels(x, y, width, height, format, type, pixels);
+}
+
 extern "C" JNIEXPORT jint JNICALL Java_org_eclipse_fx_drift_internal_GL_glGenBuffer(JNIEnv *env, jclass cls) {
 	GLuint buffer;
 	glGenBuffers(1, &buffer);
@@ -165,6 +198,22 @@ extern "C" JNIEXPORT void JNICALL Java_org_eclipse_fx_drift_internal_GL_glUnmapB
 	glUnmapBuffer(target);
 }
 
+extern "C" JNIEXPORT void JNICALL Java_org_eclipse_fx_drift_internal_GL_glBufferStorage(JNIEnv *env, jclass cls, jint _target, jlong _size, jlong _pData, jint _flags) {
+	GLenum target = (GLenum) _target;
+	GLsizeiptr size = (GLsizeiptr) _size;
+	void* data = (void*) _pData;
+	GLbitfield flags = (GLbitfield) _flags;
+	glBufferStorage(target, size, data, flags);
+}
+
+extern "C" JNIEXPORT jlong JNICALL Java_org_eclipse_fx_drift_internal_GL_glMapBufferRange(JNIEnv *env, jclass cls, jint _target, jlong _offset, jlong _length, jint _access) {
+	GLenum target = (GLenum) _target;
+	GLintptr offset = (GLintptr) _offset;
+	GLsizeiptr length = (GLsizeiptr) _length;
+	GLbitfield access = (GLbitfield) _access;
+	return (jlong) glMapBufferRange(target, offset, length, access);
+}
+
 
 extern "C" JNIEXPORT void JNICALL Java_org_eclipse_fx_drift_internal_GL_glClearColor(JNIEnv *env, jclass cls, jfloat _red, jfloat _green, jfloat _blue, jfloat _alpha) {
 	GLfloat red = (GLfloat) _red;
@@ -218,7 +267,7 @@ extern "C" JNIEXPORT void JNICALL Java_org_eclipse_fx_drift_internal_GL_glPixelS
 
 extern "C" JNIEXPORT jint JNICALL Java_org_eclipse_fx_drift_internal_GL_glGetInteger(JNIEnv *env, jclass cls, jint _pname, jfloat _param) {
 	GLenum pname = (GLenum) _pname;
-	GLint param;
+	GLint param = 0;
 	glGetIntegerv(pname, &param);
 	return (jint) param;
 }
@@ -230,6 +279,25 @@ extern "C" JNIEXPORT jfloat JNICALL Java_org_eclipse_fx_drift_internal_GL_glGetF
 	return (jfloat) param;
 }
 
+extern "C" JNIEXPORT jstring JNICALL Java_org_eclipse_fx_drift_internal_GL_glGetString(JNIEnv *env, jclass cls, jint _name) {
+	GLenum name = (GLenum) _name;
+	const GLubyte* value = glGetString(name);
+	if (value == NULL) {
+		return 0;
+	}
+	return env->NewStringUTF((const char*) value);
+}
+
+extern "C" JNIEXPORT jstring JNICALL Java_org_eclipse_fx_drift_internal_GL_glGetStringi(JNIEnv *env, jclass cls, jint _name, jint _index) {
+	GLenum name = (GLenum) _name;
+	GLuint index = (GLuint) _index;
+	const GLubyte* value = glGetStringi(name, index);
+	if (value == NULL) {
+		return 0;
+	}
+	return env->NewStringUTF((const char*) value);
+}
+
 extern "C" JNIEXPORT void JNICALL Java_org_eclipse_fx_drift_internal_GL_glFlush(JNIEnv *env, jclass cls) {
 	glFlush();
 }
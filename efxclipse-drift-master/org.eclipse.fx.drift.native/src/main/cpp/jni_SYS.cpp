@@ -13,6 +13,16 @@
 #include <jni.h>
 #include <cstdlib>
 #include <cstring>
+#include <cstdint>
+#include <atomic>
+
+#ifdef _WIN32
+	#include <windows.h>
+#else
+	#include <fcntl.h>
+	#include <sys/mman.h>
+	#include <unistd.h>
+#endif
 
 extern "C" JNIEXPORT jlong JNICALL Java_org_eclipse_fx_drift_internal_SYS_malloc(JNIEnv *env, jclass cls, jint _size) {
 	size_t size = (size_t) _size;
@@ -31,3 +41,143 @@ extern "C" JNIEXPORT void JNICALL Java_org_eclipse_fx_drift_internal_SYS_memcpy(
 	memcpy(dst, src, size);
 }
 
+extern "C" JNIEXPORT jlong JNICALL Java_org_eclipse_fx_drift_internal_SYS_address(JNIEnv *env, jclass cls, jobject _buffer) {
+	return (jlong) env->GetDirectBufferAddress(_buffer);
+}
+
+extern "C" JNIEXPORT jobject JNICALL Java_org_eclipse_fx_drift_internal_SYS_wrap(JNIEnv *env, jclass cls, jlong _pPointer, jint _size) {
+	void* pointer = (void*) _pPointer;
+	return env->NewDirectByteBuffer(pointer, (jlong) _size);
+}
+
+extern "C" JNIEXPORT jlong JNICALL Java_org_eclipse_fx_drift_internal_SYS_mmap(JNIEnv *env, jclass cls, jstring _path, jint _size) {
+	size_t size = (size_t) _size;
+	void* pointer = NULL;
+#ifdef _WIN32
+	const jchar* path = env->GetStringChars(_path, NULL);
+	HANDLE file = CreateFileW((LPCWSTR) path, GENERIC_READ | GENERIC_WRITE, FILE_SHARE_READ | FILE_SHARE_WRITE | FILE_SHARE_DELETE, NULL, OPEN_EXISTING, FILE_ATTRIBUTE_NORMAL, NULL);
+	env->ReleaseStringChars(_path, path);
+	if (file == INVALID_HANDLE_VALUE) {
+		return 0;
+	}
+	HANDLE mapping = CreateFileMappingW(file, NULL, PAGE_READWRITE, 0, (DWORD) size, NULL);
+	if (mapping != NULL) {
+		pointer = MapViewOfFile(mapping, FILE_MAP_ALL_ACCESS, 0, 0, size);
+		// the view keeps the mapping alive
+		CloseHandle(mapping);
+	}
+	CloseHandle(file);
+#else
+	const char* path = env->GetStringUTFChars(_path, NULL);
+	int fd = open(path, O_RDWR);
+	env->ReleaseStringUTFChars(_path, path);
+	if (fd == -1) {
+		return 0;
+	}
+	pointer = mmap(NULL, size, PROT_READ | PROT_WRITE, MAP_SHARED, fd, 0);
+	// the mapping stays valid after closing the file
+	close(fd);
+	if (pointer == MAP_FAILED) {
+		pointer = NULL;
+	}
+#endif
+	return (jlong) pointer;
+}
+
+extern "C" JNIEXPORT void JNICALL Java_org_eclipse_fx_drift_internal_SYS_munmap(JNIEnv *env, jclass cls, jlong _pPointer, jint _size) {
+	void* pointer = (void*) _pPointer;
+#ifdef _WIN32
+	UnmapViewOfFile(pointer);
+#else
+	munmap(pointer, (size_t) _size);
+#endif
+}
+
+extern "C" JNIEXPORT jint JNICALL Java_org_eclipse_fx_drift_internal_SYS_getIntAcquire(JNIEnv *env, jclass cls, jlong _pPointer) {
+	jint value = *(volatile jint*) _pPointer;
+	std::atomic_thread_fence(std::memory_order_acquire);
+	return value;
+}
+
+extern "C" JNIEXPORT void JNICALL Java_org_eclipse_fx_drift_internal_SYS_putIntRelease(JNIEnv *env, jclass cls, jlong _pPointer, jint _value) {
+	std::atomic_thread_fence(std::memory_order_release);
+	*(volatile jint*) _pPointer = _value;
+}
+
+extern "C" JNIEXPORT jlong JNICALL Java_org_eclipse_fx_drift_internal_SYS_getLongAcquire(JNIEnv *env, jclass cls, jlong _pPointer) {
+	jlong value = *(volatile jlong*) _pPointer;
+	std::atomic_thread_fence(std::memory_order_acquire);
+	return value;
+}
+
+extern "C" JNIEXPORT void JNICALL Java_org_eclipse_fx_drift_internal_SYS_putLongRelease(JNIEnv *env, jclass cls, jlong _pPointer, jlong _value) {
+	std::atomic_thread_fence(std::memory_order_release);
+	*(volatile jlong*) _pPointer = _value;
+}
+
+
+static const uint64_t PRIME1 = 0x9E3779B185EBCA87ULL;
+static const uint64_t PRIME2 = 0xC2B2AE3D27D4EB4FULL;
+
+static inline uint64_t rotl(uint64_t x, int r) {
+	return (x << r) | (x >> (64 - r));
+}
+
+static inline uint64_t hashRound(uint64_t acc, uint64_t input) {
+	acc += input * PRIME2;
+	acc = rotl(acc, 31);
+	return acc * PRIME1;
+}
+
+// xxhash64 style rounds on 4 independent lanes so the compiler can vectorize the inner loop
+static uint64_t hashTile(const uint8_t* pixels, size_t stride, int tileWidth, int tileHeight) {
+	uint64_t lanes[4] = { PRIME1 + PRIME2, PRIME2, 0, (uint64_t) 0 - PRIME1 };
+	size_t rowSize = (size_t) tileWidth * 4;
+	for (int y = 0; y < tileHeight; y++) {
+		const uint8_t* row = pixels + y * stride;
+		size_t i = 0;
+		for (; i + 32 <= rowSize; i += 32) {
+			uint64_t w[4];
+			memcpy(w, row + i, 32);
+			for (int l = 0; l < 4; l++) {
+				lanes[l] = hashRound(lanes[l], w[l]);
+			}
+		}
+		for (; i < rowSize; i += 4) {
+			uint32_t w;
+			memcpy(&w, row + i, 4);
+			lanes[0] = hashRound(lanes[0], w);
+		}
+	}
+	uint64_t h = rotl(lanes[0], 1) + rotl(lanes[1], 7) + rotl(lanes[2], 12) + rotl(lanes[3], 18);
+	h ^= h >> 33;
+	h *= PRIME2;
+	h ^= h >> 29;
+	h *= PRIME1;
+	h ^= h >> 32;
+	return h;
+}
+
+extern "C" JNIEXPORT void JNICALL Java_org_eclipse_fx_drift_internal_SYS_hashTiles(JNIEnv *env, jclass cls, jlong _pPixels, jint _width, jint _height, jint _tileSize, jlongArray _hashes) {
+	const uint8_t* pixels = (const uint8_t*) _pPixels;
+	int width = (int) _width;
+	int height = (int) _height;
+	int tileSize = (int) _tileSize;
+	size_t stride = (size_t) width * 4;
+	int tilesX = (width + tileSize - 1) / tileSize;
+	int tilesY = (height + tileSize - 1) / tileSize;
+	if (env->GetArrayLength(_hashes) < tilesX * tilesY) {
+		return;
+	}
+	jlong* hashes = (jlong*) env->GetPrimitiveArrayCritical(_hashes, NULL);
+	for (int ty = 0; ty < tilesY; ty++) {
+		int y = ty * tileSize;
+		int tileHeight = height - y < tileSize ? height - y : tileSize;
+		for (int tx = 0; tx < tilesX; tx++) {
+			int x = tx * tileSize;
+			int tileWidth = width - x < tileSize ? width - x : tileSize;
+			hashes[ty * tilesX + tx] = (jlong) hashTile(pixels + y * stride + (size_t) x * 4, stride, tileWidth, tileHeight);
+		}
+	}
+	env->ReleasePrimitiveArrayCritical(_hashes, hashes, 0);
+}
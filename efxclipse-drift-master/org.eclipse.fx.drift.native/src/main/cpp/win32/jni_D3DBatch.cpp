@@ -92,4 +92,40 @@ extern "C" JNIEXPORT void JNICALL Java_org_eclipse_fx_drift_internal_D3DBatch_up
 
 
 
+}
+
+extern "C" JNIEXPORT void JNICALL Java_org_eclipse_fx_drift_internal_D3DBatch_uploadTextureRegion(JNIEnv *env, jclass cls, jobject _fxTexture, jlong _pPixels, jint _width, jint _height, jint _x, jint _y, jint _w, jint _h) {
+	JavaVM* vm;
+	env->GetJavaVM(&vm);
+	JNIHelper::Initialize(vm);
+
+	void* resourceHandle = GetD3DResourceHandle(_fxTexture);
+	java8::D3DResource* d3dResource = (java8::D3DResource*) resourceHandle;
+	IDirect3DTexture9* texture = d3dResource->pTexture;
+
+	auto pPixels = (byte*) _pPixels;
+	auto width = (int) _width;
+
+	RECT region;
+	region.left = _x;
+	region.top = _y;
+	region.right = _x + _w;
+	region.bottom = _y + _h;
+
+	D3DLOCKED_RECT tmp;
+	// no discard here, the rest of the texture must be kept
+	if (FAILED(texture->LockRect(0, &tmp, &region, 0))) {
+		return;
+	}
+
+	byte* rowBits = (byte*)tmp.pBits;
+	int sourcePitch = width * 4 * sizeof(byte);
+	int rowSize = (int) _w * 4 * sizeof(byte);
+	for (int h = 0; h < (int) _h; h++) {
+		int offset = ((int) _y + h) * sourcePitch + (int) _x * 4;
+		memcpy(rowBits, (pPixels + offset), rowSize);
+		rowBits += tmp.Pitch;
+	}
+
+	texture->UnlockRect(0);
 }
\ No newline at end of file
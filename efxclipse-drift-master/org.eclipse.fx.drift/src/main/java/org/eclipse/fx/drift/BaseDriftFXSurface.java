@@ -17,6 +17,7 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.fx.drift.impl.DriftDebug;
 import org.eclipse.fx.drift.impl.NGDriftFXSurface;
+import org.eclipse.fx.drift.internal.DirtyNotifier;
 import org.eclipse.fx.drift.internal.DriftFX;
 import org.eclipse.fx.drift.internal.DriftLogger;
 import org.eclipse.fx.drift.internal.ScreenObserver;
@@ -55,8 +56,15 @@ public abstract class BaseDriftFXSurface extends Node {
 		}
 	}
 	
+	private static final int CHANGED_CONTENTS = 1;
+	private static final int CHANGED_SWAPCHAIN = 1 << 1;
+	private static final int CHANGED_SURFACE_DATA = 1 << 2;
+	
 	private AtomicReference<SurfaceData> surfaceData = new AtomicReference<>(null);
 	
+	// one FX thread visit for all changes reported by the renderer
+	private final DirtyNotifier notifier = new DirtyNotifier(Platform::runLater, this::applyChanges);
+	
 	private final ReadOnlyDoubleWrapper screenScaleFactor = new ReadOnlyDoubleWrapper(this, "screenScaleFactor", 1.0);
 	private final DoubleProperty userScaleFactor = new SimpleDoubleProperty(this, "userScaleFactor", 1.0);
 	
@@ -73,6 +81,7 @@ public abstract class BaseDriftFXSurface extends Node {
 		screenScaleFactor.bind(screenObserver.currentRenderScaleProperty());
 		screenScaleFactor.addListener((x, o, n) -> updateSurfaceData());
 		placementStrategy.addListener((x, o, n) -> updateSurfaceData());
+		userScaleFactor.addListener((x, o, n) -> updateSurfaceData());
 	}
 	
 	
@@ -304,6 +313,10 @@ public abstract class BaseDriftFXSurface extends Node {
    
    private void updateSurfaceData() {
 	   DriftDebug.outputThread();
+	   if (!Platform.isFxApplicationThread()) {
+		   notifier.markDirty(CHANGED_SURFACE_DATA);
+		   return;
+	   }
 	   SurfaceData data = computeSurfaceData();
 	   if (!data.equals(surfaceData.get())) {
 		   surfaceData.set(data);
@@ -311,21 +324,40 @@ public abstract class BaseDriftFXSurface extends Node {
 	   }
    }
    
+   private void applyChanges(int changes) {
+	   if ((changes & CHANGED_SURFACE_DATA) != 0) {
+		   updateSurfaceData();
+	   }
+	   if ((changes & (CHANGED_CONTENTS | CHANGED_SWAPCHAIN)) != 0) {
+		   getHelper().markDirty(DirtyBits.NODE_CONTENTS);
+	   }
+   }
+   
 	public void dirty() {
 		DriftDebug.outputThread();
-		Platform.runLater(() ->  getHelper().markDirty(DirtyBits.NODE_CONTENTS));
+		notifier.markDirty(CHANGED_CONTENTS);
 	}
 
 	private AtomicReference<FrontSwapChain> swapChainBuf = new AtomicReference<>();
+	private volatile FrontSwapChain currentSwapChain;
 	
 	public void setSwapChain(FrontSwapChain swapChain) {
 		DriftDebug.outputThread();
+		currentSwapChain = swapChain;
 		FrontSwapChain leftover = swapChainBuf.getAndSet(swapChain);
 		if (leftover != null) LOGGER.warn(() -> "Leftover swapchain!!! This is not good! " + leftover);
-		Platform.runLater(() ->  getHelper().markDirty(DirtyBits.NODE_CONTENTS));
+		notifier.markDirty(CHANGED_SWAPCHAIN);
 	}
 	
 	
+	/**
+	 * @return where the last displayed frames of the current swapchain spent their time, can be called from any thread
+	 */
+	public FrameLatency getFrameLatency() {
+		FrontSwapChain swapChain = currentSwapChain;
+		return swapChain == null ? new FrameLatency(new long[0][]) : swapChain.getFrameLatency();
+	}
+	
 	// Internal Type access
 	private static void drift_addShutdownHook(Runnable hook) {
 		com.sun.javafx.tk.Toolkit.getToolkit().addShutdownHook(hook);
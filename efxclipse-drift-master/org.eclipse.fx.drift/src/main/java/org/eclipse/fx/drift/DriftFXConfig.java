@@ -29,12 +29,34 @@ public final class DriftFXConfig {
 	private static final String KEY_SHOW_FPS = "driftfx.showfps";
 	private static final String KEY_USE_JAVA_LIBRARY_PATH = "driftfx.use.java.library.path";
 	private static final String KEY_LOGGING_SERVICE = "driftfx.logging.service";
+	private static final String KEY_ASYNC_READBACK = "driftfx.mainmemory.asyncreadback";
+	private static final String KEY_PERSISTENT_MAPPING = "driftfx.mainmemory.persistentmapping";
+	private static final String KEY_DIRECT_MAPPING = "driftfx.mainmemory.directmapping";
+	private static final String KEY_TILE_CHANGE_DETECTION = "driftfx.mainmemory.tilechangedetection";
+	private static final String KEY_PREMULTIPLY = "driftfx.mainmemory.premultiply";
+	private static final String KEY_SRGB_ENCODE = "driftfx.mainmemory.srgbencode";
+	private static final String KEY_TRANSFER_FORMAT_PROBE = "driftfx.mainmemory.formatprobe";
+	private static final String KEY_DOWNSCALE = "driftfx.mainmemory.downscale";
+	private static final String KEY_GOVERNOR_BUDGET = "driftfx.governor.budget";
+	private static final String KEY_GOVERNOR_MIN_SCALE = "driftfx.governor.minscale";
+	private static final String KEY_GOVERNOR_MAX_SCALE = "driftfx.governor.maxscale";
 	
 	static {
 		register(new ConfigValue<Integer>(KEY_LOG_LEVEL, 0, Integer::parseInt));
 		register(new ConfigValue<Boolean>(KEY_SHOW_FPS, false, Boolean::parseBoolean));
 		register(new ConfigValue<Boolean>(KEY_USE_JAVA_LIBRARY_PATH, false, Boolean::parseBoolean));
 		register(new ConfigValue<LoggingService>(KEY_LOGGING_SERVICE, new StdOutLoggingService(), DriftFXConfig::convert));
+		register(new ConfigValue<Boolean>(KEY_ASYNC_READBACK, true, Boolean::parseBoolean));
+		register(new ConfigValue<Boolean>(KEY_PERSISTENT_MAPPING, false, Boolean::parseBoolean));
+		register(new ConfigValue<Boolean>(KEY_DIRECT_MAPPING, false, Boolean::parseBoolean));
+		register(new ConfigValue<Boolean>(KEY_TILE_CHANGE_DETECTION, false, Boolean::parseBoolean));
+		register(new ConfigValue<Boolean>(KEY_PREMULTIPLY, false, Boolean::parseBoolean));
+		register(new ConfigValue<Boolean>(KEY_SRGB_ENCODE, false, Boolean::parseBoolean));
+		register(new ConfigValue<Boolean>(KEY_TRANSFER_FORMAT_PROBE, false, Boolean::parseBoolean));
+		register(new ConfigValue<Boolean>(KEY_DOWNSCALE, false, Boolean::parseBoolean));
+		register(new ConfigValue<Double>(KEY_GOVERNOR_BUDGET, 0.0, Double::parseDouble));
+		register(new ConfigValue<Double>(KEY_GOVERNOR_MIN_SCALE, 0.5, Double::parseDouble));
+		register(new ConfigValue<Double>(KEY_GOVERNOR_MAX_SCALE, 1.0, Double::parseDouble));
 	}
 	
 	private DriftFXConfig() {}
@@ -134,4 +156,141 @@ public final class DriftFXConfig {
 		DriftFXConfig.<LoggingService>get(KEY_LOGGING_SERVICE).setValue(service);
 	}
 	
+	/**
+	 * MainMemory transfer: if enabled (the default) a presented frame is handed to the frontend once its readback has
+	 * finished on the GPU, instead of waiting for the readback in {@link Swapchain#present(RenderTarget)}. This adds up to
+	 * one frame of latency. Pending frames are delivered by the following swapchain calls, a renderer that stops
+	 * presenting calls {@link Swapchain#flush()} or {@link Swapchain#presentUnchanged()}.
+	 */
+	public static boolean isAsyncReadback() {
+		return DriftFXConfig.<Boolean>get(KEY_ASYNC_READBACK).getValue();
+	}
+	
+	public static void setAsyncReadback(boolean asyncReadback) {
+		DriftFXConfig.<Boolean>get(KEY_ASYNC_READBACK).setValue(asyncReadback);
+	}
+	
+	/**
+	 * MainMemory transfer: if enabled the readback buffers are created with <code>glBufferStorage</code> and stay mapped
+	 * for the lifetime of the swapchain. The frontend reads the mapped memory directly which saves the per frame map
+	 * and copy. Requires OpenGL 4.4, otherwise the default path is used.
+	 */
+	public static boolean isPersistentMapping() {
+		return DriftFXConfig.<Boolean>get(KEY_PERSISTENT_MAPPING).getValue();
+	}
+	
+	public static void setPersistentMapping(boolean persistentMapping) {
+		DriftFXConfig.<Boolean>get(KEY_PERSISTENT_MAPPING).setValue(persistentMapping);
+	}
+	
+	/**
+	 * MainMemory transfer: if enabled the readback buffer of a presented frame stays mapped until the frontend released
+	 * the image and the frontend uploads directly from it. Same effect as {@link #isPersistentMapping()} for drivers
+	 * without <code>glBufferStorage</code>, which takes precedence if both are enabled.
+	 */
+	public static boolean isDirectMapping() {
+		return DriftFXConfig.<Boolean>get(KEY_DIRECT_MAPPING).getValue();
+	}
+	
+	public static void setDirectMapping(boolean directMapping) {
+		DriftFXConfig.<Boolean>get(KEY_DIRECT_MAPPING).setValue(directMapping);
+	}
+	
+	/**
+	 * MainMemory transfer: if enabled frames presented without damage rectangles are split into tiles after the readback
+	 * and only the tiles whose hash changed since the image was presented the last time are uploaded by the frontend.
+	 */
+	public static boolean isTileChangeDetection() {
+		return DriftFXConfig.<Boolean>get(KEY_TILE_CHANGE_DETECTION).getValue();
+	}
+	
+	public static void setTileChangeDetection(boolean tileChangeDetection) {
+		DriftFXConfig.<Boolean>get(KEY_TILE_CHANGE_DETECTION).setValue(tileChangeDetection);
+	}
+	
+	/**
+	 * MainMemory transfer: if enabled the renderer is expected to produce straight (non premultiplied) alpha and the
+	 * color channels are multiplied with the alpha channel after the readback, since JavaFX composites premultiplied
+	 * textures. The zero copy mappings ({@link #isPersistentMapping()}, {@link #isDirectMapping()}) are not used then.
+	 */
+	public static boolean isPremultiply() {
+		return DriftFXConfig.<Boolean>get(KEY_PREMULTIPLY).getValue();
+	}
+	
+	public static void setPremultiply(boolean premultiply) {
+		DriftFXConfig.<Boolean>get(KEY_PREMULTIPLY).setValue(premultiply);
+	}
+	
+	/**
+	 * MainMemory transfer: if enabled the renderer is expected to produce linear color which is encoded to sRGB after
+	 * the readback. Like {@link #isPremultiply()} this disables the zero copy mappings.
+	 */
+	public static boolean isSRGBEncode() {
+		return DriftFXConfig.<Boolean>get(KEY_SRGB_ENCODE).getValue();
+	}
+	
+	public static void setSRGBEncode(boolean srgbEncode) {
+		DriftFXConfig.<Boolean>get(KEY_SRGB_ENCODE).setValue(srgbEncode);
+	}
+	
+	/**
+	 * MainMemory transfer: if enabled the GL format / type combinations for the readback and upload of RGBA8 frames are
+	 * timed once per device and the fastest one the frontend supports is used. Otherwise the frontend's native channel
+	 * order with <code>GL_UNSIGNED_INT_8_8_8_8_REV</code> is used.
+	 */
+	public static boolean isTransferFormatProbe() {
+		return DriftFXConfig.<Boolean>get(KEY_TRANSFER_FORMAT_PROBE).getValue();
+	}
+	
+	public static void setTransferFormatProbe(boolean transferFormatProbe) {
+		DriftFXConfig.<Boolean>get(KEY_TRANSFER_FORMAT_PROBE).setValue(transferFormatProbe);
+	}
+	
+	/**
+	 * MainMemory transfer: if enabled and the surface shows the frames noticeably smaller than they are rendered, the
+	 * frames are scaled down to the displayed size on the GPU and only the smaller frame is read back and uploaded.
+	 */
+	public static boolean isDownscale() {
+		return DriftFXConfig.<Boolean>get(KEY_DOWNSCALE).getValue();
+	}
+	
+	public static void setDownscale(boolean downscale) {
+		DriftFXConfig.<Boolean>get(KEY_DOWNSCALE).setValue(downscale);
+	}
+	
+	/**
+	 * The render time in milliseconds the resolution governor tries to hold (e.g. 16.6), 0 to disable it. While enabled
+	 * the governor scales the user scale factor the application set on a surface: it lowers the render resolution while
+	 * the renderer misses the budget and restores it once there is headroom again or the renderer went idle.
+	 */
+	public static double getGovernorBudget() {
+		return DriftFXConfig.<Double>get(KEY_GOVERNOR_BUDGET).getValue();
+	}
+	
+	public static void setGovernorBudget(double budget) {
+		DriftFXConfig.<Double>get(KEY_GOVERNOR_BUDGET).setValue(budget);
+	}
+	
+	/**
+	 * the lowest scale the resolution governor applies to the user scale factor, see {@link #getGovernorBudget()}
+	 */
+	public static double getGovernorMinScale() {
+		return DriftFXConfig.<Double>get(KEY_GOVERNOR_MIN_SCALE).getValue();
+	}
+	
+	public static void setGovernorMinScale(double minScale) {
+		DriftFXConfig.<Double>get(KEY_GOVERNOR_MIN_SCALE).setValue(minScale);
+	}
+	
+	/**
+	 * the scale of the user scale factor the resolution governor restores, see {@link #getGovernorBudget()}
+	 */
+	public static double getGovernorMaxScale() {
+		return DriftFXConfig.<Double>get(KEY_GOVERNOR_MAX_SCALE).getValue();
+	}
+	
+	public static void setGovernorMaxScale(double maxScale) {
+		DriftFXConfig.<Double>get(KEY_GOVERNOR_MAX_SCALE).setValue(maxScale);
+	}
+	
 }
@@ -0,0 +1,124 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift;
+
+import java.util.Arrays;
+
+/**
+ * Where the last frames spent their time between being acquired by the renderer and reaching the screen.
+ * <p>
+ * Every frame carries a {@link System#nanoTime()} stamp per {@link Stage}. The duration of a stage is the time since
+ * the previous one, all values are in nanoseconds. Only frames which were displayed are included.
+ * </p>
+ */
+public final class FrameLatency {
+	
+	public enum Stage {
+		/** the renderer acquired the image */
+		ACQUIRE,
+		/** the renderer presented the image, the duration is the rendering */
+		PRESENT,
+		/** the image is ready to be handed to JavaFX, e.g. the MainMemory readback finished */
+		READBACK,
+		/** the frontend received the image from the transport */
+		DELIVERY,
+		/** the first render pass of the surface showing the image started, includes waiting for the pulse */
+		RENDER,
+		/** the image was uploaded to its texture during that render pass */
+		UPLOAD
+	}
+	
+	private static final Stage[] STAGES = Stage.values();
+	
+	// [frame][stage], oldest frame first
+	private final long[][] stamps;
+	
+	public FrameLatency(long[][] stamps) {
+		this.stamps = stamps;
+	}
+	
+	public int getFrameCount() {
+		return stamps.length;
+	}
+	
+	/**
+	 * @param frame 0 for the oldest frame
+	 */
+	public long getStamp(int frame, Stage stage) {
+		return stamps[frame][stage.ordinal()];
+	}
+	
+	/**
+	 * @return the time the frame spent in the stage, 0 for {@link Stage#ACQUIRE}
+	 */
+	public long getDuration(int frame, Stage stage) {
+		if (stage == Stage.ACQUIRE) {
+			return 0;
+		}
+		return stamps[frame][stage.ordinal()] - stamps[frame][stage.ordinal() - 1];
+	}
+	
+	/**
+	 * @return the time from acquire to upload
+	 */
+	public long getLatency(int frame) {
+		return stamps[frame][Stage.UPLOAD.ordinal()] - stamps[frame][Stage.ACQUIRE.ordinal()];
+	}
+	
+	/**
+	 * @param percentile e.g. 50 or 99
+	 * @return the duration of the stage not exceeded by the given percentage of the frames
+	 */
+	public long getPercentile(Stage stage, double percentile) {
+		long[] values = new long[stamps.length];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = getDuration(i, stage);
+		}
+		return percentile(values, percentile);
+	}
+	
+	/**
+	 * @param percentile e.g. 50 or 99
+	 * @return the latency not exceeded by the given percentage of the frames
+	 */
+	public long getLatencyPercentile(double percentile) {
+		long[] values = new long[stamps.length];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = getLatency(i);
+		}
+		return percentile(values, percentile);
+	}
+	
+	// nearest rank
+	private static long percentile(long[] values, double percentile) {
+		if (values.length == 0) {
+			return 0;
+		}
+		Arrays.sort(values);
+		int rank = (int) Math.ceil(percentile / 100 * values.length);
+		return values[Math.max(0, Math.min(values.length - 1, rank - 1))];
+	}
+	
+	private static String millis(long nanos) {
+		return String.format("%.2f", nanos / 1e6);
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder b = new StringBuilder("FrameLatency(" + stamps.length + " frames, p50/p99 ms:");
+		for (int i = 1; i < STAGES.length; i++) {
+			b.append(' ').append(STAGES[i]).append(' ').append(millis(getPercentile(STAGES[i], 50))).append('/').append(millis(getPercentile(STAGES[i], 99)));
+		}
+		b.append(", total ").append(millis(getLatencyPercentile(50))).append('/').append(millis(getLatencyPercentile(99))).append(')');
+		return b.toString();
+	}
+}
@@ -0,0 +1,55 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift;
+
+/**
+ * The pixel format in which the frames of a swapchain are transferred to JavaFX.
+ * <p>
+ * The narrower formats reduce the bytes read back and uploaded per frame, the images are expanded to the JavaFX
+ * texture format while they are uploaded. They only apply to the {@link StandardTransferTypes#MainMemory} transfer,
+ * the other transfer types always share the whole RGBA texture.
+ * </p>
+ */
+public enum ImageFormat {
+	/**
+	 * 8 bit per channel with alpha, the default
+	 */
+	RGBA8(4, true),
+	/**
+	 * 8 bit per channel without alpha, for opaque content
+	 */
+	RGB8(3, false),
+	/**
+	 * 5 bit red and blue, 6 bit green, without alpha. Half the bytes of {@link #RGBA8} at the cost of banding in gradients
+	 */
+	RGB565(2, false),
+	/**
+	 * 16 bit half float per channel with alpha, values are clamped to [0, 1] when uploaded
+	 */
+	RGBA16F(8, true);
+	
+	private final int bytesPerPixel;
+	private final boolean alpha;
+	
+	private ImageFormat(int bytesPerPixel, boolean alpha) {
+		this.bytesPerPixel = bytesPerPixel;
+		this.alpha = alpha;
+	}
+	
+	public int getBytesPerPixel() {
+		return bytesPerPixel;
+	}
+	
+	public boolean hasAlpha() {
+		return alpha;
+	}
+}
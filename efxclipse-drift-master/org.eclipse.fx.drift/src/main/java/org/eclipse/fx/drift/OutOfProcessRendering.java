@@ -0,0 +1,112 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift;
+
+import java.net.InetSocketAddress;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.eclipse.fx.drift.internal.RemoteRendererImpl;
+import org.eclipse.fx.drift.internal.frontend.FrontendImpl;
+import org.eclipse.fx.drift.internal.prism.Prism;
+import org.eclipse.fx.drift.internal.transport.Command;
+import org.eclipse.fx.drift.internal.transport.RemoteTransport;
+import org.eclipse.fx.drift.internal.transport.RemoteTransport.Role;
+import org.eclipse.fx.drift.internal.transport.command.SurfaceChangedCommand;
+import org.eclipse.fx.drift.internal.transport.shm.SharedMemoryTransport;
+import org.eclipse.fx.drift.internal.transport.socket.SocketTransport;
+
+import javafx.beans.InvalidationListener;
+
+/**
+ * Lets a renderer in another process draw into a {@link DriftFXSurface}.
+ * <p>
+ * The JavaFX process serves the surface on a channel name, the renderer process connects to it and uses the returned
+ * {@link Renderer} like the one of {@link GLRenderer#getRenderer(DriftFXSurface)}. The frames are shared through
+ * memory mapped files (in <code>/dev/shm</code> on Linux). If the processes can't share memory (e.g. in different
+ * containers) they can use a TCP connection instead, the frames are sent as compressed deltas then. Only
+ * {@link StandardTransferTypes#MainMemory} is supported.
+ * </p>
+ */
+public final class OutOfProcessRendering {
+	
+	private OutOfProcessRendering() {}
+	
+	/**
+	 * serves the surface to a renderer process. Must be called on the FX application thread before the renderer
+	 * connects.
+	 * @param surface the surface
+	 * @param channel the name the renderer connects to
+	 * @return closes the channel
+	 */
+	public static AutoCloseable serve(DriftFXSurface surface, String channel) {
+		return serve(surface, receiver -> new SharedMemoryTransport(channel, Role.FRONTEND, receiver));
+	}
+	
+	/**
+	 * serves the surface to a renderer process over TCP. Must be called on the FX application thread.
+	 * @param surface the surface
+	 * @param address the address to listen on, a loopback address unless the renderer runs on another host
+	 * @return closes the connection
+	 */
+	public static AutoCloseable serve(DriftFXSurface surface, InetSocketAddress address) {
+		return serve(surface, receiver -> new SocketTransport(address, Role.FRONTEND, receiver));
+	}
+	
+	private static AutoCloseable serve(DriftFXSurface surface, Function<Consumer<Command>, RemoteTransport> transportFactory) {
+		FrontendImpl frontend = new FrontendImpl(surface);
+		RemoteTransport transport = transportFactory.apply(frontend::receiveCommand);
+		frontend.setCommandChannel(transport::send);
+		transport.setBGRA(Prism.isBGRA());
+		transport.start();
+		
+		InvalidationListener sendSurface = o -> transport.send(new SurfaceChangedCommand(surface.getWidth(), surface.getHeight(), surface.getScreenScaleFactor(), surface.getUserScaleFactor()));
+		surface.widthProperty().addListener(sendSurface);
+		surface.heightProperty().addListener(sendSurface);
+		surface.screenScaleFactorProperty().addListener(sendSurface);
+		surface.userScaleFactorProperty().addListener(sendSurface);
+		sendSurface.invalidated(null);
+		
+		return () -> {
+			surface.widthProperty().removeListener(sendSurface);
+			surface.heightProperty().removeListener(sendSurface);
+			surface.screenScaleFactorProperty().removeListener(sendSurface);
+			surface.userScaleFactorProperty().removeListener(sendSurface);
+			transport.stop();
+		};
+	}
+	
+	/**
+	 * connects to a surface served by another process, waits up to 10 seconds for it.
+	 * @param channel the name passed to {@link #serve(DriftFXSurface, String)}
+	 * @return the renderer
+	 */
+	public static Renderer connect(String channel) {
+		return new RemoteRendererImpl(receiver -> new SharedMemoryTransport(channel, Role.BACKEND, receiver));
+	}
+	
+	/**
+	 * connects to a surface served over TCP, waits up to 10 seconds for it.
+	 * @param address the address passed to {@link #serve(DriftFXSurface, InetSocketAddress)}
+	 * @return the renderer
+	 */
+	public static Renderer connect(InetSocketAddress address) {
+		return new RemoteRendererImpl(receiver -> new SocketTransport(address, Role.BACKEND, receiver));
+	}
+	
+	/**
+	 * disconnects a renderer returned by {@link #connect(String)} or {@link #connect(InetSocketAddress)}, its swapchains must be disposed before.
+	 */
+	public static void disconnect(Renderer renderer) {
+		((RemoteRendererImpl) renderer).dispose();
+	}
+}
@@ -12,6 +12,17 @@
 package org.eclipse.fx.drift;
 
 public enum PresentationMode {
+	/**
+	 * The latest presented frame replaces the pending one, older frames are released without being shown.
+	 */
 	MAILBOX,
-	QUEUE
+	/**
+	 * Presented frames are queued and shown one per JavaFX pulse. The renderer is throttled since images are only
+	 * released once they were replaced on screen.
+	 */
+	QUEUE,
+	/**
+	 * Like {@link #QUEUE}, but if the queue is full at the time of a pulse the frontend skips to the latest frame.
+	 */
+	FIFO_RELAXED
 }
\ No newline at end of file
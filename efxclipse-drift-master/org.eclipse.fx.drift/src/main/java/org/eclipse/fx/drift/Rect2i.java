@@ -0,0 +1,35 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift;
+
+public class Rect2i {
+	public final int x;
+	public final int y;
+	public final int width;
+	public final int height;
+	
+	public Rect2i(int x, int y, int width, int height) {
+		this.x = x;
+		this.y = y;
+		this.width = width;
+		this.height = height;
+	}
+	
+	public boolean isEmpty() {
+		return width <= 0 || height <= 0;
+	}
+	
+	@Override
+	public String toString() {
+		return "Rect2i(" + x + ", " + y + ", " + width + ", " + height + ")";
+	}
+}
@@ -22,5 +22,28 @@ public interface Swapchain {
 	
 	void present(RenderTarget image);
 	
+	/**
+	 * presents the image declaring which parts changed since the previously presented frame. Only those parts are
+	 * transferred, depending on the transfer type.
+	 * @param image the image
+	 * @param damage the changed rectangles in pixels of the image (origin bottom left, like OpenGL). An empty array
+	 * declares the frame as unchanged, <code>null</code> as completely changed.
+	 */
+	void present(RenderTarget image, Rect2i... damage);
+	
+	/**
+	 * declares that the content did not change since the previously presented frame. Nothing needs to be acquired, no
+	 * image is transferred and JavaFX keeps showing the current image, only the frame statistics are updated.
+	 */
+	void presentUnchanged();
+	
+	/**
+	 * hands all presented frames to JavaFX, waiting for their transfer if needed. Presented frames are otherwise
+	 * delivered by the following calls on the swapchain, a renderer that stops presenting (e.g. because it only renders
+	 * on demand) calls this after its last present.
+	 */
+	default void flush() {
+	}
+	
 	void dispose();
 }
@@ -17,13 +17,19 @@ public class SwapchainConfig {
 	public final int imageCount;
 	public final PresentationMode presentationMode;
 	public final TransferType transferType;
+	public final ImageFormat format;
 	
 	
 	public SwapchainConfig(Vec2i size, int imageCount, PresentationMode presentationMode, TransferType transferType) {
+		this(size, imageCount, presentationMode, transferType, null);
+	}
+	
+	public SwapchainConfig(Vec2i size, int imageCount, PresentationMode presentationMode, TransferType transferType, ImageFormat format) {
 		this.size = size;
 		this.imageCount = imageCount;
 		this.presentationMode = check(presentationMode);
 		this.transferType = check(transferType);
+		this.format = check(format);
 	}
 	
 	
@@ -34,6 +40,13 @@ public class SwapchainConfig {
 		return presentationMode;
 	}
 	
+	private static final ImageFormat check(ImageFormat format) {
+		if (format == null) {
+			format = ImageFormat.RGBA8;
+		}
+		return format;
+	}
+	
 	private static final TransferType check(TransferType transferType) {
 		if (transferType == null) {
 			transferType = StandardTransferTypes.MainMemory;
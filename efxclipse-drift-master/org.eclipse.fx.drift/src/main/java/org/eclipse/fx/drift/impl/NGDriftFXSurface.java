@@ -13,10 +13,12 @@ package org.eclipse.fx.drift.impl;
 
 import org.eclipse.fx.drift.DriftFXConfig;
 import org.eclipse.fx.drift.Placement;
+import org.eclipse.fx.drift.Vec2i;
 import org.eclipse.fx.drift.internal.DriftFX;
 import org.eclipse.fx.drift.internal.DriftLogger;
-import org.eclipse.fx.drift.internal.FPSCounter;
+import org.eclipse.fx.drift.internal.FrameStats;
 import org.eclipse.fx.drift.internal.SurfaceData;
+import org.eclipse.fx.drift.internal.common.ImageData;
 import org.eclipse.fx.drift.internal.frontend.FrontSwapChain;
 import org.eclipse.fx.drift.internal.frontend.SimpleFrontSwapChain;
 
@@ -26,11 +28,6 @@ import com.sun.prism.Graphics;
 import com.sun.prism.Texture;
 import com.sun.prism.paint.Color;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.event.ActionEvent;
-import javafx.event.EventHandler;
-import javafx.util.Duration;
 
 // Note: this implementation is against internal JavafX API
 @SuppressWarnings("restriction")
@@ -41,27 +38,17 @@ public class NGDriftFXSurface extends NGNode {
 	private FrontSwapChain nextSwapChain;
 	private FrontSwapChain swapChain;
 	
-	private FPSCounter fxFpsCounter = new FPSCounter(100);
-	private Timeline historyTick;
+	private final FrameStats fxFrameStats = new FrameStats(128);
 	
 	public void setSwapChain(FrontSwapChain swapChain) {
 		this.nextSwapChain = swapChain;
 	}
 	
-	public NGDriftFXSurface() {
-		
-		if (DriftFXConfig.isShowFps()) {
-			historyTick = new Timeline(new KeyFrame(Duration.millis(100), new EventHandler<ActionEvent>() {
-				@Override
-				public void handle(ActionEvent arg0) {
-					fxFpsCounter.historyTick();
-					if (swapChain != null) ((SimpleFrontSwapChain)swapChain).fpsCounter.historyTick();
-				}
-			}));
-			historyTick.setCycleCount(Timeline.INDEFINITE);
-			historyTick.play();
-		}
-		
+	/**
+	 * @return the frame times of the surface rendering
+	 */
+	public FrameStats getFrameStats() {
+		return fxFrameStats;
 	}
 	
 	public void destroy() {
@@ -171,21 +158,23 @@ public class NGDriftFXSurface extends NGNode {
 	
 	private void drawStats(Graphics g) {
 		DriftDebug.assertQuantumRenderer();
+		FrameStats rendererStats = swapChain != null ? ((SimpleFrontSwapChain)swapChain).frameStats : null;
 		if (swapChain != null) {
 			g.setPaint(new Color(0,0,0,0.5f));
-			g.fillRect(155, 0, 150, 85);
+			g.fillRect(155, 0, 190, 85);
 			String info = "Texture: " + swapChain.getSize().x + "x" + swapChain.getSize().y;
 			info += "\nTransfer: " + swapChain.getTransferType().id;
+			info += "\nJavaFX: " + NGRenderUtil.formatStats(fxFrameStats);
+			info += "\nRenderer: " + NGRenderUtil.formatStats(rendererStats);
 			NGRenderUtil.writeText(g, -155, 0, 12, info, Color.WHITE, false);
 		}
-		NGRenderUtil.drawFPSGraph(g, 0, 0, 150, 40, "JavaFX", fxFpsCounter);
-		if (swapChain != null) {
-			FPSCounter c = ((SimpleFrontSwapChain)swapChain).fpsCounter;
-			NGRenderUtil.drawFPSGraph(g, 0, 45, 150, 40, "Renderer", c);
+		NGRenderUtil.drawFPSGraph(g, 0, 0, 150, 40, "JavaFX", fxFrameStats);
+		if (rendererStats != null) {
+			NGRenderUtil.drawFPSGraph(g, 0, 45, 150, 40, "Renderer", rendererStats);
 		}
 	}
 	
-	private void drawTexture(Graphics g, Texture t) {
+	private void drawTexture(Graphics g, Texture t, ImageData data) {
 		float frameContainerWidth = surfaceData.width;
 		float frameContainerHeight = surfaceData.height;
 		
@@ -196,6 +185,17 @@ public class NGDriftFXSurface extends NGNode {
 		float frameTextureHeightFxSpace = frameTextureHeight / (surfaceData.userScaleY * surfaceData.renderScaleY);
 		
 		Pos pos = computePlacement(surfaceData.placementStrategy, frameContainerWidth, frameContainerHeight, frameTextureWidthFxSpace, frameTextureHeightFxSpace);
+		
+		// the transform includes the render scale and the scale of the parents
+		BaseTransform tx = g.getTransformNoClone();
+		int displayWidth = (int) Math.ceil(pos.width * Math.hypot(tx.getMxx(), tx.getMyx()));
+		int displayHeight = (int) Math.ceil(pos.height * Math.hypot(tx.getMxy(), tx.getMyy()));
+		swapChain.setDisplaySize(displayWidth, displayHeight);
+		
+		// the backend may have scaled the frame down to the display size
+		Vec2i contentSize = data.contentSize;
+		int frameContentWidth = contentSize != null ? contentSize.x : frameTextureWidth;
+		int frameContentHeight = contentSize != null ? contentSize.y : frameTextureHeight;
 
 		// flip it vertically
 		g.scale(1, -1);
@@ -204,13 +204,14 @@ public class NGDriftFXSurface extends NGNode {
 		pos.y = frameContainerHeight - pos.y - pos.height;
 
 		g.drawTexture(t, pos.x, pos.y, 
-				pos.x + pos.width, pos.y + pos.height, 0, 0, frameTextureWidth, frameTextureHeight);
+				pos.x + pos.width, pos.y + pos.height, 0, 0, frameContentWidth, frameContentHeight);
 	}
 	
 //	@Override
 	protected void renderContent(Graphics g) {
 		DriftDebug.assertQuantumRenderer();
-		fxFpsCounter.tickStart();
+		long renderStart = System.nanoTime();
+		fxFrameStats.frameStart();
 		
 		if (swapChain != null && swapChain.isDisposed()) {
 			swapChain = null;
@@ -222,13 +223,15 @@ public class NGDriftFXSurface extends NGNode {
 		}
 		
 		if (swapChain != null) {
+			swapChain.pulse();
 			swapChain.getCurrentImage().ifPresent(image -> {
 				
 				image.update();
+				swapChain.displayed(image.getData(), renderStart);
 				
 				BaseTransform saved = g.getTransformNoClone().copy();
 				
-				drawTexture(g, image.getTexture());
+				drawTexture(g, image.getTexture(), image.getData());
 				
 				// restore transform
 				g.setTransform(saved);
@@ -237,7 +240,7 @@ public class NGDriftFXSurface extends NGNode {
 		}
 
 		
-		fxFpsCounter.tick();
+		fxFrameStats.frame();
 		
 		if (DriftFXConfig.isShowFps()) {
 			drawStats(g);
@@ -12,7 +12,7 @@
 package org.eclipse.fx.drift.impl;
 
 import org.eclipse.fx.drift.internal.DriftUtil;
-import org.eclipse.fx.drift.internal.FPSCounter;
+import org.eclipse.fx.drift.internal.FrameStats;
 
 import com.sun.javafx.font.FontStrike;
 import com.sun.javafx.font.PGFont;
@@ -30,7 +30,7 @@ import javafx.scene.text.TextAlignment;
 
 @SuppressWarnings("restriction")
 public class NGRenderUtil {
-	public static void drawFPSGraph(Graphics g, float x, float y, float width, float height, String label, FPSCounter c) {
+	public static void drawFPSGraph(Graphics g, float x, float y, float width, float height, String label, FrameStats c) {
 		int count = 30;
 		Color bg = new Color(0, 0, 0, 0.5f);
 		Color fg = new Color(1, 1, 1, 1);
@@ -46,7 +46,8 @@ public class NGRenderUtil {
 		float lineWidth = lineAvail * 8/10f;
 		
 		for (int i = 0; i < count; i++) {
-			double fps = c.fpsHistory[i];
+			long frameTime = c.getFrameTime(i);
+			double fps = frameTime == 0 ? 0 : 1e9 / frameTime;
 			double hue = Math.min(1, fps / 60d);
 			javafx.scene.paint.Color hsb = javafx.scene.paint.Color.hsb(hue * 100, .7, .7);
 			g.setPaint(new Color((float)hsb.getRed(), (float)hsb.getGreen(), (float)hsb.getBlue(), 0.5f));
@@ -54,7 +55,14 @@ public class NGRenderUtil {
 			g.fillRect(x + padding + graphWidth - i * lineAvail - lineAvail, y + padding + graphHeight - norm, lineWidth, norm);
 		}
 		writeText(g, x, y, 12, String.format("%s", label), fg, false);
-		writeText(g, x - width + 100 , y + height / 2 - 15, 24, String.format("%5.1ffps", c.fps), fg, true);
+		writeText(g, x - width + 100 , y + height / 2 - 15, 24, String.format("%5.1ffps", c.getFps()), fg, true);
+	}
+	
+	/**
+	 * @return p99 frame time, jitter and dropped frames
+	 */
+	public static String formatStats(FrameStats c) {
+		return String.format("p99 %.1fms \u00B1%.1fms, %d dropped", c.getPercentile(99) / 1e6, c.getJitter() / 1e6, c.getDroppedFrames());
 	}
 	
 	public static void writeText(Graphics g, float x, float y, int fontSize, String text, Color color, boolean rightAligned) {
@@ -18,4 +18,7 @@ public class D3DBatch {
 
 	public static native void uploadTexture(Texture fxTexture, long pPixels, int width, int height, int size);
 	
+	/** uploads the rect (x, y, w, h) of the pixels (width x height) to the same position of the texture */
+	public static native void uploadTextureRegion(Texture fxTexture, long pPixels, int width, int height, int x, int y, int w, int h);
+	
 }
@@ -0,0 +1,51 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Collects change bits from any thread and delivers them with at most one outstanding task on the target executor
+ * (usually the FX application thread). Bits set while a task is outstanding are delivered by that task.
+ */
+public class DirtyNotifier {
+	
+	private final AtomicInteger pending = new AtomicInteger();
+	private final Executor executor;
+	private final IntConsumer onChange;
+	
+	public DirtyNotifier(Executor executor, IntConsumer onChange) {
+		this.executor = executor;
+		this.onChange = onChange;
+	}
+	
+	public void markDirty(int bits) {
+		int old = pending.get();
+		if ((old & bits) == bits) {
+			// already pending
+			return;
+		}
+		old = pending.getAndAccumulate(bits, (a, b) -> a | b);
+		if (old == 0) {
+			executor.execute(this::deliver);
+		}
+	}
+	
+	private void deliver() {
+		int bits = pending.getAndSet(0);
+		if (bits != 0) {
+			onChange.accept(bits);
+		}
+	}
+}
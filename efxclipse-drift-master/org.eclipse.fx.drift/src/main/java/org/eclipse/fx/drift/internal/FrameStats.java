@@ -0,0 +1,246 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records frame times with {@link System#nanoTime()}.
+ * <p>
+ * Recording does not allocate and takes no lock. The intervals of the last frames are kept in a ring, all intervals
+ * in a log-bucketed histogram (16 buckets per power of two, so percentiles are within about 6%). Every getter can be
+ * called from any thread while frames are recorded, the values are then approximate.
+ * </p>
+ * <p>
+ * Intervals above {@link #IDLE_NANOS} are gaps in which nothing had to be drawn and are not recorded. An interval of
+ * at least 1.5 times the median of the recent frames counts the frames that would have fit into it as dropped. The
+ * median is updated every {@link #REFERENCE_FRAMES} frames, so it follows a changed frame rate.
+ * </p>
+ */
+public class FrameStats {
+	
+	public static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+	private static final long FPS_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+	// minimum samples before drops are counted
+	private static final int MIN_REFERENCE_FRAMES = 10;
+	private static final int REFERENCE_FRAMES = 32;
+	
+	private static final int MIN_SHIFT = 14;
+	private static final int SUB_BITS = 4;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+	private static final int MAX_SHIFT = 36;
+	private static final int BUCKETS = 1 + (MAX_SHIFT - MIN_SHIFT + 1) * SUB_COUNT;
+	
+	private final AtomicLongArray ring;
+	private final AtomicLong sequence = new AtomicLong();
+	private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+	private final AtomicLong recorded = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong last = new AtomicLong();
+	
+	// the median interval of the recent frames, recomputed once per REFERENCE_FRAMES
+	private volatile long reference;
+	private volatile long referenceFrame;
+	
+	private volatile long frameStart;
+	private volatile long duration;
+	
+	public FrameStats(int historySize) {
+		this.ring = new AtomicLongArray(historySize);
+	}
+	
+	/**
+	 * marks the begin of the work for a frame, see {@link #getDuration()}
+	 */
+	public void frameStart() {
+		frameStart = System.nanoTime();
+	}
+	
+	public void frame() {
+		frame(System.nanoTime());
+	}
+	
+	/**
+	 * records a frame
+	 * @param now the {@link System#nanoTime()} of the frame
+	 */
+	public void frame(long now) {
+		long start = frameStart;
+		if (start != 0) {
+			duration = now - start;
+		}
+		long previous = last.getAndSet(now);
+		if (previous == 0) {
+			return;
+		}
+		long interval = now - previous;
+		if (interval <= 0 || interval > IDLE_NANOS) {
+			return;
+		}
+		long count = sequence.get();
+		if (count >= MIN_REFERENCE_FRAMES && (reference == 0 || count - referenceFrame >= REFERENCE_FRAMES)) {
+			referenceFrame = count;
+			reference = getRecentMedian(count);
+		}
+		long reference = this.reference;
+		if (reference > 0 && interval * 2 >= reference * 3) {
+			dropped.addAndGet(Math.round((double) interval / reference) - 1);
+		}
+		long index = sequence.getAndIncrement();
+		ring.lazySet((int) (index % ring.length()), interval);
+		histogram.incrementAndGet(bucket(interval));
+		recorded.incrementAndGet();
+	}
+	
+	// lower median of the last frames, without sorting a copy so recording stays allocation free
+	private long getRecentMedian(long count) {
+		int frames = (int) Math.min(count, Math.min(REFERENCE_FRAMES, ring.length()));
+		long median = 0;
+		for (int a = 0; a < frames; a++) {
+			long value = ring.get((int) ((count - 1 - a) % ring.length()));
+			int notAbove = 0;
+			for (int b = 0; b < frames; b++) {
+				if (ring.get((int) ((count - 1 - b) % ring.length())) <= value) {
+					notAbove++;
+				}
+			}
+			if (notAbove * 2 >= frames && (median == 0 || value < median)) {
+				median = value;
+			}
+		}
+		return median;
+	}
+	
+	static int bucket(long nanos) {
+		if (nanos < (1L << MIN_SHIFT)) {
+			return 0;
+		}
+		int exp = 63 - Long.numberOfLeadingZeros(nanos);
+		if (exp > MAX_SHIFT) {
+			return BUCKETS - 1;
+		}
+		int sub = (int) (nanos >>> (exp - SUB_BITS)) & (SUB_COUNT - 1);
+		return 1 + (exp - MIN_SHIFT) * SUB_COUNT + sub;
+	}
+	
+	// the middle of the bucket
+	static long bucketValue(int bucket) {
+		if (bucket == 0) {
+			return (1L << MIN_SHIFT) / 2;
+		}
+		int exp = (bucket - 1) / SUB_COUNT + MIN_SHIFT;
+		int sub = (bucket - 1) % SUB_COUNT;
+		long width = 1L << (exp - SUB_BITS);
+		return (1L << exp) + sub * width + width / 2;
+	}
+	
+	/**
+	 * @return the number of recorded frame intervals
+	 */
+	public long getFrameCount() {
+		return recorded.get();
+	}
+	
+	/**
+	 * @return the frames that were expected but missing
+	 */
+	public long getDroppedFrames() {
+		return dropped.get();
+	}
+	
+	/**
+	 * @return the time from {@link #frameStart()} to {@link #frame()} of the last frame in nanos
+	 */
+	public long getDuration() {
+		return duration;
+	}
+	
+	/**
+	 * @param age 0 for the most recent frame
+	 * @return the interval of the frame in nanos, 0 if it is not in the history
+	 */
+	public long getFrameTime(int age) {
+		long count = sequence.get();
+		if (age < 0 || age >= ring.length() || age >= count) {
+			return 0;
+		}
+		return ring.get((int) ((count - 1 - age) % ring.length()));
+	}
+	
+	/**
+	 * @return the frame rate of the last 500ms of the history
+	 */
+	public double getFps() {
+		long sum = 0;
+		int frames = 0;
+		for (int age = 0; age < ring.length() && sum < FPS_WINDOW_NANOS; age++) {
+			long interval = getFrameTime(age);
+			if (interval == 0) {
+				break;
+			}
+			sum += interval;
+			frames++;
+		}
+		return sum == 0 ? 0 : frames * 1e9 / sum;
+	}
+	
+	/**
+	 * @return the standard deviation of the frame intervals in the history in nanos
+	 */
+	public long getJitter() {
+		long sum = 0;
+		int frames = 0;
+		for (int age = 0; age < ring.length(); age++) {
+			long interval = getFrameTime(age);
+			if (interval == 0) {
+				break;
+			}
+			sum += interval;
+			frames++;
+		}
+		if (frames < 2) {
+			return 0;
+		}
+		double mean = (double) sum / frames;
+		double squares = 0;
+		for (int age = 0; age < frames; age++) {
+			double deviation = getFrameTime(age) - mean;
+			squares += deviation * deviation;
+		}
+		return Math.round(Math.sqrt(squares / (frames - 1)));
+	}
+	
+	/**
+	 * @param percentile e.g. 50 or 99
+	 * @return the frame interval in nanos not exceeded by the given percentage of all recorded frames
+	 */
+	public long getPercentile(double percentile) {
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			total += histogram.get(i);
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += histogram.get(i);
+			if (seen >= rank) {
+				return bucketValue(i);
+			}
+		}
+		return bucketValue(BUCKETS - 1);
+	}
+}
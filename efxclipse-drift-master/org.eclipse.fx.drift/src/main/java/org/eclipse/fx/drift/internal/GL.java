@@ -29,23 +29,50 @@ public final class GL {
 	public static final int GL_TEXTURE_2D = 0x0DE1;
 	public static final int GL_TEXTURE_RECTANGLE = 0x84F5;
 	
+	public static final int GL_RGB = 0x1907;
+	public static final int GL_BGR = 0x80E0;
 	public static final int GL_RGBA = 0x1908;
 	public static final int GL_BGRA = 0x80E1;
 	
 	public static final int GL_UNSIGNED_BYTE = 0x1401;
+	public static final int GL_HALF_FLOAT = 0x140B;
+	public static final int GL_UNSIGNED_SHORT_5_6_5 = 0x8363;
 	public static final int GL_UNSIGNED_INT_8_8_8_8_REV = 0x8367;
 	
 	public static final int GL_STATIC_READ = 0x88E5;
 	public static final int GL_READ_ONLY = 0x88B8;
 	public static final int GL_PIXEL_PACK_BUFFER = 0x88EB;
+	public static final int GL_PIXEL_UNPACK_BUFFER = 0x88EC;
+	public static final int GL_STREAM_DRAW = 0x88E0;
+	public static final int GL_WRITE_ONLY = 0x88B9;
 	public static final int GL_RGB8 = 0x8051;
 	public static final int GL_RGBA8 = 0x8058;
+	public static final int GL_RGBA16F = 0x881A;
+	
+	public static final int GL_VENDOR = 0x1F00;
+	public static final int GL_RENDERER = 0x1F01;
+	public static final int GL_VERSION = 0x1F02;
+	public static final int GL_EXTENSIONS = 0x1F03;
+	public static final int GL_NUM_EXTENSIONS = 0x821D;
+	
+	public static final int GL_MAJOR_VERSION = 0x821B;
+	public static final int GL_MINOR_VERSION = 0x821C;
+	
+	public static final int GL_MAP_READ_BIT = 0x0001;
+	public static final int GL_MAP_WRITE_BIT = 0x0002;
+	public static final int GL_MAP_PERSISTENT_BIT = 0x0040;
+	public static final int GL_MAP_COHERENT_BIT = 0x0080;
+	public static final int GL_CLIENT_STORAGE_BIT = 0x0200;
 	
 	public static native int glGenTexture();
 	public static native void glDeleteTexture(int texture);
 	public static native void glBindTexture(int target, int texture);
 	public static native void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, long pPixels);
+	public static native void glTexSubImage2D(int target, int level, int xoffset, int yoffset, int width, int height, int format, int type, long pPixels);
+	/** GL 4.2 / ARB_texture_storage */
+	public static native void glTexStorage2D(int target, int levels, int internalformat, int width, int height);
 	public static native void glGetTexImage(int target, int level, int format, int type, long pPixels);
+	public static native void glReadPixels(int x, int y, int width, int height, int format, int type, long pPixels);
 	public static native boolean glIsTexture(int texture);
 	
 	public static native int glGenBuffer();
@@ -54,6 +81,10 @@ public final class GL {
 	public static native void glBindBuffer(int target, int buffer);
 	public static native long glMapBuffer(int target, int access);
 	public static native void glUnmapBuffer(int target);
+	/** GL 4.4 / ARB_buffer_storage */
+	public static native void glBufferStorage(int target, long size, long pData, int flags);
+	/** GL 3.0 / ARB_map_buffer_range */
+	public static native long glMapBufferRange(int target, long offset, long length, int access);
 	
 	
 	public static native boolean initialize();
@@ -75,10 +106,13 @@ public final class GL {
 	public static final int GL_LINEAR = 0x2601;
 	public static final int GL_READ_FRAMEBUFFER = 0x8CA8;
 	public static final int GL_DRAW_FRAMEBUFFER = 0x8CA9;
+	public static final int GL_DRAW_FRAMEBUFFER_BINDING = 0x8CA6;
+	public static final int GL_READ_FRAMEBUFFER_BINDING = 0x8CAA;
 	
 	public static native void glClearColor(float red, float green, float blue, float alpha);
 	public static native void glClear(int mask);
 	
+	public static final int GL_NO_ERROR = 0;
 	public static native int glGetError();
 	
 	public static native int glGenFramebuffer();
@@ -137,6 +171,9 @@ public final class GL {
 	
 	public static native int glGetInteger(int pname);
 	public static native float glGetFloat(int pname);
+	public static native String glGetString(int name);
+	/** GL 3.0 */
+	public static native String glGetStringi(int name, int index);
 	
 	public static native String getLastDriftGLError();
 	
@@ -0,0 +1,91 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.eclipse.fx.drift.Renderer;
+import org.eclipse.fx.drift.Swapchain;
+import org.eclipse.fx.drift.SwapchainConfig;
+import org.eclipse.fx.drift.Vec2d;
+import org.eclipse.fx.drift.Vec2i;
+import org.eclipse.fx.drift.internal.backend.BackendImpl;
+import org.eclipse.fx.drift.internal.transport.Command;
+import org.eclipse.fx.drift.internal.transport.RemoteTransport;
+import org.eclipse.fx.drift.internal.transport.command.SurfaceChangedCommand;
+
+/**
+ * Renderer of a process without the surface, the frontend is served by another process.
+ */
+public class RemoteRendererImpl implements Renderer {
+	
+	private final BackendImpl backend;
+	private final RemoteTransport transport;
+	
+	private volatile SurfaceChangedCommand surface = new SurfaceChangedCommand(0, 0, 1, 1);
+	
+	/**
+	 * @param transportFactory creates the backend side of a transport for the given receiver
+	 */
+	public RemoteRendererImpl(Function<Consumer<Command>, RemoteTransport> transportFactory) {
+		backend = new BackendImpl();
+		transport = transportFactory.apply(this::receiveCommand);
+		backend.setCommandChannel(transport::send);
+		backend.setImageMemoryFactory(transport::createImageMemory);
+		transport.start();
+	}
+	
+	private void receiveCommand(Command command) {
+		if (command instanceof SurfaceChangedCommand) {
+			surface = (SurfaceChangedCommand) command;
+		}
+		else {
+			backend.receiveCommand(command);
+		}
+	}
+	
+	public void dispose() {
+		transport.stop();
+	}
+	
+	@Override
+	public Vec2i getSize() {
+		SurfaceChangedCommand s = surface;
+		int x = (int) Math.ceil(s.getWidth() * s.getUserScale() * s.getScreenScale());
+		int y = (int) Math.ceil(s.getHeight() * s.getUserScale() * s.getScreenScale());
+		return new Vec2i(x, y);
+	}
+	
+	@Override
+	public Vec2d getLogicalSize() {
+		SurfaceChangedCommand s = surface;
+		return new Vec2d(s.getWidth(), s.getHeight());
+	}
+	
+	@Override
+	public Vec2d getScreenScale() {
+		double screenScale = surface.getScreenScale();
+		return new Vec2d(screenScale, screenScale);
+	}
+	
+	@Override
+	public Vec2d getUserScale() {
+		double userScale = surface.getUserScale();
+		return new Vec2d(userScale, userScale);
+	}
+	
+	@Override
+	public Swapchain createSwapchain(SwapchainConfig config) {
+		return backend.createSwapchain(config);
+	}
+}
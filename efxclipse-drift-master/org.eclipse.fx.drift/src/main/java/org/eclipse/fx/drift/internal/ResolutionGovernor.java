@@ -0,0 +1,143 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.fx.drift.DriftFXConfig;
+
+/**
+ * Picks the user scale factor of a surface so the renderer holds a frame time budget.
+ * <p>
+ * The scale is relative to the user scale factor the application chose. The renderer side is measured by its render
+ * time (acquire to present), which is neither bounded by vsync or the pulse nor inflated by JavaFX stalls. Every
+ * {@link #WINDOW} frames its average is compared with the budget. Since the cost of a frame grows with its pixel
+ * count, a miss lowers the scale by the square root of the overshoot; with enough headroom it is raised again by one
+ * {@link #STEP}. The time JavaFX needs to render and upload a frame is recorded separately: it never lowers the scale
+ * but holds it back while the frontend has no headroom either. Scales are multiples of the step, so the renderer does
+ * not reallocate its swapchain for tiny changes, and the first window after a change is skipped while the renderer
+ * adapts. {@link #idle()} restores the full scale once the renderer stopped presenting.
+ * </p>
+ * <p>
+ * The methods can be called from any thread.
+ * </p>
+ */
+public class ResolutionGovernor {
+	
+	static final int WINDOW = 16;
+	static final double STEP = 1 / 16.0;
+	// above the budget by this factor the scale is lowered
+	private static final double MISS = 1.1;
+	// below the budget by this factor the scale is raised
+	private static final double HEADROOM = 0.75;
+	
+	private final double budget;
+	private final double minScale;
+	private final double maxScale;
+	
+	private double scale;
+	private long renderSum;
+	private int renderCount;
+	private long frontendSum;
+	private int frontendCount;
+	private boolean settling;
+	
+	/**
+	 * @param budgetNanos the frame time to hold
+	 * @param minScale the lowest scale, relative to the application's user scale factor
+	 * @param maxScale the highest scale, also the initial one
+	 */
+	public ResolutionGovernor(long budgetNanos, double minScale, double maxScale) {
+		this.budget = budgetNanos;
+		this.minScale = Math.min(minScale, maxScale);
+		this.maxScale = maxScale;
+		this.scale = maxScale;
+	}
+	
+	/**
+	 * @return the governor configured with {@link DriftFXConfig#getGovernorBudget()}, <code>null</code> if disabled
+	 */
+	public static ResolutionGovernor create() {
+		double budget = DriftFXConfig.getGovernorBudget();
+		if (budget <= 0) {
+			return null;
+		}
+		return new ResolutionGovernor(Math.round(budget * TimeUnit.MILLISECONDS.toNanos(1)), DriftFXConfig.getGovernorMinScale(), DriftFXConfig.getGovernorMaxScale());
+	}
+	
+	/**
+	 * records a frame of the renderer
+	 * @param renderNanos the time from acquiring the image to presenting it
+	 * @return the scale to render with
+	 */
+	public synchronized double frame(long renderNanos) {
+		renderSum += renderNanos;
+		renderCount++;
+		if (renderCount < WINDOW) {
+			return scale;
+		}
+		double average = (double) renderSum / renderCount;
+		double frontend = frontendCount == 0 ? 0 : (double) frontendSum / frontendCount;
+		renderSum = 0;
+		renderCount = 0;
+		frontendSum = 0;
+		frontendCount = 0;
+		if (settling) {
+			settling = false;
+			return scale;
+		}
+		if (average > budget * MISS && scale > minScale) {
+			double target = scale * Math.sqrt(budget / average);
+			setScale(Math.min(Math.floor(target / STEP) * STEP, scale - STEP));
+		}
+		else if (average < budget * HEADROOM && frontend < budget * HEADROOM && scale < maxScale) {
+			setScale(scale + STEP);
+		}
+		return scale;
+	}
+	
+	/**
+	 * records a frame of the frontend
+	 * @param nanos the time JavaFX took to render and upload the frame
+	 */
+	public synchronized void frontendFrame(long nanos) {
+		frontendSum += nanos;
+		frontendCount++;
+	}
+	
+	/**
+	 * the renderer stopped presenting, the next frames are rendered with the full scale
+	 * @return the scale to render with
+	 */
+	public synchronized double idle() {
+		renderSum = 0;
+		renderCount = 0;
+		frontendSum = 0;
+		frontendCount = 0;
+		settling = false;
+		scale = maxScale;
+		return scale;
+	}
+	
+	public synchronized double getScale() {
+		return scale;
+	}
+	
+	public double getMaxScale() {
+		return maxScale;
+	}
+	
+	private void setScale(double value) {
+		scale = Math.max(minScale, Math.min(maxScale, value));
+		settling = true;
+	}
+}
@@ -11,6 +11,8 @@
  * ******************************************************************************/
 package org.eclipse.fx.drift.internal;
 
+import java.nio.ByteBuffer;
+
 public final class SYS {
 
 	private SYS() {}
@@ -23,4 +25,31 @@ public final class SYS {
 	public static native void free(long pointer);
 	public static native void memcpy(long pDst, long pSrc, int size);
 	
+	/**
+	 * @return the address of the direct buffer
+	 */
+	public static native long address(ByteBuffer buffer);
+	/**
+	 * @return a direct buffer (big endian) on the memory, the memory is not owned by the buffer
+	 */
+	public static native ByteBuffer wrap(long pointer, int size);
+	
+	/**
+	 * maps the existing file shared and read/write
+	 * @return the address or 0 on failure
+	 */
+	public static native long mmap(String path, int size);
+	public static native void munmap(long pointer, int size);
+	
+	// ordered accesses to memory shared with other threads or processes
+	public static native int getIntAcquire(long pointer);
+	public static native void putIntRelease(long pointer, int value);
+	public static native long getLongAcquire(long pointer);
+	public static native void putLongRelease(long pointer, long value);
+	
+	/**
+	 * hashes the tiles (row by row) of the 4 byte per pixel image into <code>hashes</code>
+	 */
+	public static native void hashTiles(long pPixels, int width, int height, int tileSize, long[] hashes);
+	
 }
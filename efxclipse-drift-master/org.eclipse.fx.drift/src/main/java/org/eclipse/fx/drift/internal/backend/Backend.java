@@ -11,12 +11,14 @@
  * ******************************************************************************/
 package org.eclipse.fx.drift.internal.backend;
 
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import org.eclipse.fx.drift.SwapchainConfig;
 import org.eclipse.fx.drift.internal.transport.Command;
+import org.eclipse.fx.drift.internal.transport.SwapchainCommand;
 
 public interface Backend {
 
@@ -28,4 +30,16 @@ public interface Backend {
 	void sendCommand(Command command);
 	
 	<C extends Command> CompletableFuture<C> waitForCommand(Class<C> type, Predicate<C> filter);
+	
+	/**
+	 * waits for the command of the given type for the swapchain, cheaper than a filter
+	 */
+	<C extends SwapchainCommand> CompletableFuture<C> waitForCommand(Class<C> type, UUID swapChainId);
+	
+	/**
+	 * @return the memory for the MainMemory images of the swapchain, <code>null</code> for process local memory
+	 */
+	default ImageMemory createImageMemory(UUID swapChainId) {
+		return null;
+	}
 }
@@ -11,41 +11,93 @@
  * ******************************************************************************/
 package org.eclipse.fx.drift.internal.backend;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import org.eclipse.fx.drift.SwapchainConfig;
+import org.eclipse.fx.drift.internal.DriftFX;
+import org.eclipse.fx.drift.internal.DriftLogger;
+import org.eclipse.fx.drift.internal.common.TransferFormat;
 import org.eclipse.fx.drift.internal.transport.Command;
+import org.eclipse.fx.drift.internal.transport.SwapchainCommand;
 import org.eclipse.fx.drift.internal.transport.command.CreateSwapchainCommand;
+import org.eclipse.fx.drift.internal.transport.command.DisplaySizeCommand;
 import org.eclipse.fx.drift.internal.transport.command.ReleaseCommand;
 import org.eclipse.fx.drift.internal.transport.command.SwapchainCreatedCommand;
+import org.eclipse.fx.drift.internal.transport.command.SwapchainDisposedCommand;
 
 public class BackendImpl implements Backend {
+	private static final DriftLogger LOGGER = DriftFX.createLogger(BackendImpl.class);
 
-	private Map<UUID, BackendSwapchain> swapChains = new HashMap<>();
-	private BackendSwapchain swapChain;
+	private Map<UUID, BackendSwapchain> swapChains = new ConcurrentHashMap<>();
+	private volatile BackendSwapchain swapChain;
 	
 	private Consumer<Command> commandChannel;
+	private Function<UUID, ImageMemory> imageMemoryFactory;
 	
-	private Map<Predicate<Command>, CompletableFuture<?>> await = new HashMap<>();
+	// waiters for a command type of a swapchain
+	private Map<WaiterKey, CompletableFuture<Command>> keyedWaiters = new ConcurrentHashMap<>();
+	// waiters with arbitrary filters, only tested if there are any
+	private List<Waiter> filteredWaiters = new CopyOnWriteArrayList<>();
+	
+	private static class WaiterKey {
+		final Class<?> type;
+		final UUID swapChainId;
+		
+		WaiterKey(Class<?> type, UUID swapChainId) {
+			this.type = type;
+			this.swapChainId = swapChainId;
+		}
+		
+		@Override
+		public int hashCode() {
+			return 31 * type.hashCode() + swapChainId.hashCode();
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof WaiterKey)) {
+				return false;
+			}
+			WaiterKey other = (WaiterKey) obj;
+			return type == other.type && swapChainId.equals(other.swapChainId);
+		}
+	}
+	
+	private static class Waiter {
+		final Predicate<Command> filter;
+		final CompletableFuture<Command> result;
+		
+		Waiter(Predicate<Command> filter, CompletableFuture<Command> result) {
+			this.filter = filter;
+			this.result = result;
+		}
+	}
 	
 	@Override
 	public BackendSwapchain createSwapchain(SwapchainConfig config) {
 		UUID id = UUID.randomUUID();
-		swapChain = new SimpleSwapchain(this, id, config);
-		swapChain.allocate();
+		BackendSwapchain created = new SimpleSwapchain(this, id, config);
+		created.allocate();
 		
-		swapChains.put(id, swapChain);
+		swapChains.put(id, created);
+		swapChain = created;
 		
-		CompletableFuture<SwapchainCreatedCommand> waitForCreated = waitForCommand(SwapchainCreatedCommand.class, c -> id.equals(c.getId()));
-		sendCommand(new CreateSwapchainCommand(id, swapChain.getImages(), config.presentationMode));
-		waitForCreated.join();
+		CompletableFuture<SwapchainCreatedCommand> waitForCreated = waitForCommand(SwapchainCreatedCommand.class, id);
+		sendCommand(new CreateSwapchainCommand(id, created.getImages(), config.presentationMode, created.getTransferFormats()));
+		TransferFormat transferFormat = waitForCreated.join().getTransferFormat();
+		if (transferFormat != null) {
+			created.setTransferFormat(transferFormat);
+		}
 		
-		return swapChain;
+		return created;
 	}
 	
 	@Override
@@ -53,33 +105,73 @@ public class BackendImpl implements Backend {
 		this.commandChannel = commandChannel;
 	}
 	
+	public void setImageMemoryFactory(Function<UUID, ImageMemory> imageMemoryFactory) {
+		this.imageMemoryFactory = imageMemoryFactory;
+	}
+	
+	@Override
+	public ImageMemory createImageMemory(UUID swapChainId) {
+		return imageMemoryFactory == null ? null : imageMemoryFactory.apply(swapChainId);
+	}
+	
+	@SuppressWarnings("unchecked")
 	@Override
 	public <C extends Command> CompletableFuture<C> waitForCommand(Class<C> type, Predicate<C> filter) {
-		CompletableFuture<C> result = new CompletableFuture<>();
-		synchronized (await) {
-			await.put(command -> type.isAssignableFrom(command.getClass()) && filter.test((C) command), result);
-		}
-		return result;
+		CompletableFuture<Command> result = new CompletableFuture<>();
+		filteredWaiters.add(new Waiter(command -> type.isInstance(command) && filter.test((C) command), result));
+		return (CompletableFuture<C>) (CompletableFuture<?>) result;
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Override
+	public <C extends SwapchainCommand> CompletableFuture<C> waitForCommand(Class<C> type, UUID swapChainId) {
+		CompletableFuture<Command> result = keyedWaiters.computeIfAbsent(new WaiterKey(type, swapChainId), k -> new CompletableFuture<>());
+		return (CompletableFuture<C>) (CompletableFuture<?>) result;
 	}
 	
 	@Override
 	public void receiveCommand(Command command) {
 //		System.err.println("Backend recceived " + command);
 		
-		synchronized (await) {
-			for (Predicate<Command> test : await.keySet()) {
-				if (test.test(command)) {
-					CompletableFuture f = await.remove(test);
-					f.complete(command);
-				}
+		if (command instanceof ReleaseCommand) {
+			ReleaseCommand cmd = (ReleaseCommand) command;
+			BackendSwapchain target = swapChain;
+			if (target == null || !target.getId().equals(cmd.getSwapChainId())) {
+				target = swapChains.get(cmd.getSwapChainId());
+			}
+			if (target == null) {
+				LOGGER.error(() -> "Release for unknown swapchain " + cmd);
+			}
+			else {
+				target.release(cmd.getImageData());
 			}
 		}
+		else if (command instanceof DisplaySizeCommand) {
+			DisplaySizeCommand cmd = (DisplaySizeCommand) command;
+			BackendSwapchain target = swapChains.get(cmd.getSwapChainId());
+			if (target != null) {
+				target.setDisplaySize(cmd.getSize());
+			}
+		}
+		else if (command instanceof SwapchainDisposedCommand) {
+			swapChains.remove(((SwapchainDisposedCommand) command).getId());
+		}
 		
-		if (command instanceof ReleaseCommand) {
-			ReleaseCommand cmd = (ReleaseCommand) command;
-			swapChains.get(cmd.getSwapChainId()).release(cmd.getImageData());
+		if (command instanceof SwapchainCommand && !keyedWaiters.isEmpty()) {
+			CompletableFuture<Command> waiter = keyedWaiters.remove(new WaiterKey(command.getClass(), ((SwapchainCommand) command).getSwapChainId()));
+			if (waiter != null) {
+				waiter.complete(command);
+			}
+		}
+		if (!filteredWaiters.isEmpty()) {
+			for (Waiter waiter : filteredWaiters) {
+				if (waiter.filter.test(command) && filteredWaiters.remove(waiter)) {
+					waiter.result.complete(command);
+				}
+			}
 		}
 	}
+	
 	@Override
 	public void sendCommand(Command command) {
 		this.commandChannel.accept(command);
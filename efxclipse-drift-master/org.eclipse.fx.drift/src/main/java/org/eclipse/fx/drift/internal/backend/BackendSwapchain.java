@@ -12,12 +12,17 @@
 package org.eclipse.fx.drift.internal.backend;
 
 import java.util.List;
+import java.util.UUID;
 
 import org.eclipse.fx.drift.Swapchain;
+import org.eclipse.fx.drift.Vec2i;
 import org.eclipse.fx.drift.internal.common.ImageData;
+import org.eclipse.fx.drift.internal.common.TransferFormat;
 
 public interface BackendSwapchain extends Swapchain {
 
+	UUID getId();
+	
 	void allocate();
 
 	
@@ -26,4 +31,16 @@ public interface BackendSwapchain extends Swapchain {
 	
 	List<ImageData> getImages();
 	
+	/**
+	 * @return the formats offered to the frontend, the fastest first
+	 */
+	List<TransferFormat> getTransferFormats();
+	
+	void setTransferFormat(TransferFormat format);
+	
+	/**
+	 * @param displaySize the physical pixels the frames currently cover on screen
+	 */
+	void setDisplaySize(Vec2i displaySize);
+	
 }
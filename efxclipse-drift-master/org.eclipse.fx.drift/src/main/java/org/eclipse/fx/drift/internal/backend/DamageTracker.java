@@ -0,0 +1,121 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.backend;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.fx.drift.Rect2i;
+import org.eclipse.fx.drift.Vec2i;
+
+/**
+ * Tracks for each swapchain image which parts of its transferred content are outdated.
+ * <p>
+ * The renderer declares the damage relative to the previously presented frame, which usually is a different image. So
+ * the region to transfer for an image is the union of all damage since the image itself was presented the last time.
+ * </p>
+ */
+public class DamageTracker {
+	
+	/** above this count the rectangles are merged into their bounding box */
+	static final int MAX_RECTS = 16;
+	
+	private final Vec2i size;
+	// null means the whole image
+	private final List<List<Rect2i>> outdated = new ArrayList<>();
+	
+	public DamageTracker(int imageCount, Vec2i size) {
+		this.size = size;
+		for (int i = 0; i < imageCount; i++) {
+			outdated.add(null);
+		}
+	}
+	
+	/**
+	 * @param number the presented image
+	 * @param damage the damage of the frame, <code>null</code> for the full frame
+	 * @return the region of the image to transfer, <code>null</code> for the full image
+	 */
+	public Rect2i[] present(int number, Rect2i[] damage) {
+		List<Rect2i> clipped = clip(damage);
+		for (int i = 0; i < outdated.size(); i++) {
+			if (i != number) {
+				outdated.set(i, union(outdated.get(i), clipped));
+			}
+		}
+		List<Rect2i> region = union(outdated.get(number), clipped);
+		outdated.set(number, new ArrayList<>());
+		return region == null ? null : region.toArray(new Rect2i[region.size()]);
+	}
+	
+	private List<Rect2i> clip(Rect2i[] damage) {
+		if (damage == null) {
+			return null;
+		}
+		List<Rect2i> result = new ArrayList<>(damage.length);
+		for (Rect2i r : damage) {
+			int x0 = Math.max(0, r.x);
+			int y0 = Math.max(0, r.y);
+			int x1 = Math.min(size.x, r.x + r.width);
+			int y1 = Math.min(size.y, r.y + r.height);
+			if (x1 - x0 == size.x && y1 - y0 == size.y) {
+				return null;
+			}
+			if (x1 > x0 && y1 > y0) {
+				result.add(new Rect2i(x0, y0, x1 - x0, y1 - y0));
+			}
+		}
+		return result;
+	}
+	
+	private static List<Rect2i> union(List<Rect2i> a, List<Rect2i> b) {
+		if (a == null || b == null) {
+			return null;
+		}
+		List<Rect2i> result = new ArrayList<>(a.size() + b.size());
+		result.addAll(a);
+		for (Rect2i r : b) {
+			if (!isContained(result, r)) {
+				result.add(r);
+			}
+		}
+		if (result.size() > MAX_RECTS) {
+			Rect2i bounds = bounds(result);
+			result.clear();
+			result.add(bounds);
+		}
+		return result;
+	}
+	
+	private static boolean isContained(List<Rect2i> rects, Rect2i r) {
+		for (Rect2i o : rects) {
+			if (r.x >= o.x && r.y >= o.y && r.x + r.width <= o.x + o.width && r.y + r.height <= o.y + o.height) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private static Rect2i bounds(List<Rect2i> rects) {
+		int x0 = Integer.MAX_VALUE;
+		int y0 = Integer.MAX_VALUE;
+		int x1 = Integer.MIN_VALUE;
+		int y1 = Integer.MIN_VALUE;
+		for (Rect2i r : rects) {
+			x0 = Math.min(x0, r.x);
+			y0 = Math.min(y0, r.y);
+			x1 = Math.max(x1, r.x + r.width);
+			y1 = Math.max(y1, r.y + r.height);
+		}
+		return new Rect2i(x0, y0, x1 - x0, y1 - y0);
+	}
+}
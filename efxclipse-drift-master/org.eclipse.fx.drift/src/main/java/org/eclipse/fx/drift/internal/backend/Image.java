@@ -11,8 +11,13 @@
  * ******************************************************************************/
 package org.eclipse.fx.drift.internal.backend;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.eclipse.fx.drift.RenderTarget;
+import org.eclipse.fx.drift.Vec2i;
 import org.eclipse.fx.drift.internal.common.ImageData;
+import org.eclipse.fx.drift.internal.common.TransferFormat;
 
 public interface Image extends RenderTarget, GLRenderTarget {
 
@@ -35,6 +40,34 @@ public interface Image extends RenderTarget, GLRenderTarget {
 	void onAcquire();
 	/** called right before the image is presented to the frontend */
 	void onPresent();
+	/** 
+	 * called after {@link #onPresent()} until it returns <code>true</code>, the image is sent to the frontend afterwards
+	 * @param wait if <code>true</code> the call blocks until the image is ready
+	 */
+	default boolean completePresent(boolean wait) {
+		return true;
+	}
+	
+	/**
+	 * @return the formats the image can be transferred in, the fastest first. Empty if the format is fixed
+	 */
+	default List<TransferFormat> getTransferFormats() {
+		return Collections.emptyList();
+	}
+	
+	/**
+	 * called with the format chosen by the frontend before the image is acquired the first time
+	 */
+	default void setTransferFormat(TransferFormat format) {
+		// fixed format
+	}
+	
+	/**
+	 * called with the physical pixels the frames currently cover on screen, images may transfer smaller frames then
+	 */
+	default void setDisplaySize(Vec2i displaySize) {
+		// always the full size
+	}
 	
 	
 	
@@ -11,6 +11,10 @@
  * ******************************************************************************/
 package org.eclipse.fx.drift.internal.backend;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.fx.drift.ImageFormat;
 import org.eclipse.fx.drift.TransferType;
 import org.eclipse.fx.drift.Vec2i;
 import org.eclipse.fx.drift.internal.common.IOSurfaceImageData;
@@ -19,10 +23,36 @@ import org.eclipse.fx.drift.internal.common.NVDXInteropImageData;
 
 public class ImageFactory {
 
+	public interface ImageCreator {
+		Image createImage(int number, Vec2i size);
+	}
+	
+	private static final Map<TransferType, ImageCreator> creators = new ConcurrentHashMap<>();
+	
+	/**
+	 * registers the images of an additional transfer type, e.g. a fake one for benchmarks
+	 */
+	public static void register(TransferType type, ImageCreator creator) {
+		creators.put(type, creator);
+	}
 	
 	public static Image createImage(int number, Vec2i size, TransferType type) {
+		return createImage(number, size, type, null);
+	}
+	
+	public static Image createImage(int number, Vec2i size, TransferType type, ImageMemory memory) {
+		return createImage(number, size, type, ImageFormat.RGBA8, memory);
+	}
+	
+	/**
+	 * @param format only used by the MainMemory transfer
+	 */
+	public static Image createImage(int number, Vec2i size, TransferType type, ImageFormat format, ImageMemory memory) {
 		if (type == MainMemoryImageData.TYPE) {
-			return new MainMemoryImage(number, size);
+			return new MainMemoryImage(number, size, format, memory);
+		}
+		if (memory != null) {
+			throw new RuntimeException("ImageFactory#createImage: " + type + " can not be used with the current transport");
 		}
 		if (type == NVDXInteropImageData.TYPE) {
 			return new NVDXInteropImage(number, size);
@@ -30,6 +60,10 @@ public class ImageFactory {
 		if (type == IOSurfaceImageData.TYPE) {
 			return new IOSurfaceImage(number, size);
 		}
+		ImageCreator creator = creators.get(type);
+		if (creator != null) {
+			return creator.createImage(number, size);
+		}
 		
 		throw new RuntimeException("ImageFactory#createImage: Unknown TransferType (" + type + ")");
 	}
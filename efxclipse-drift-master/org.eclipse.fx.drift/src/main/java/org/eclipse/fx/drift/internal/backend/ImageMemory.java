@@ -0,0 +1,22 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.backend;
+
+/**
+ * Provides the pixel memory of MainMemory images, so transports can place it where the frontend can read it.
+ */
+public interface ImageMemory {
+	long allocate(int number, int size);
+	void free(int number, long pointer);
+	/** @return <code>true</code> if the frontend expects BGRA instead of RGBA */
+	boolean isBGRA();
+}
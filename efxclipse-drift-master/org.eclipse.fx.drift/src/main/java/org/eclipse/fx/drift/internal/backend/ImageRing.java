@@ -0,0 +1,173 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.backend;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free ring of image slot numbers.
+ * <p>
+ * Producers and consumers may be on any thread. Slots carry a sequence number (see D. Vyukov's bounded MPMC queue),
+ * so neither {@link #offer(int)} nor {@link #poll()} allocates. Blocked consumers park with {@link LockSupport} and
+ * never hold a monitor.
+ * </p>
+ */
+public class ImageRing {
+
+	public static final int EMPTY = -1;
+
+	private static final int MAX_WAITERS = 8;
+	private static final long FALLBACK_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final int mask;
+	private final int[] values;
+	private final AtomicLongArray sequences;
+
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong tail = new AtomicLong();
+
+	private final AtomicInteger waiterCount = new AtomicInteger();
+	private final AtomicReferenceArray<Thread> waiters = new AtomicReferenceArray<>(MAX_WAITERS);
+
+	public ImageRing(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be > 0");
+		}
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) {
+			size <<= 1;
+		}
+		this.mask = size - 1;
+		this.values = new int[size];
+		this.sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			sequences.set(i, i);
+		}
+	}
+
+	/**
+	 * @return <code>false</code> if the ring is full
+	 */
+	public boolean offer(int value) {
+		long pos = tail.get();
+		while (true) {
+			int index = (int) pos & mask;
+			long diff = sequences.get(index) - pos;
+			if (diff == 0) {
+				if (tail.compareAndSet(pos, pos + 1)) {
+					values[index] = value;
+					sequences.set(index, pos + 1);
+					signal();
+					return true;
+				}
+				pos = tail.get();
+			} else if (diff < 0) {
+				return false;
+			} else {
+				pos = tail.get();
+			}
+		}
+	}
+
+	/**
+	 * @return the next value or {@link #EMPTY}
+	 */
+	public int poll() {
+		long pos = head.get();
+		while (true) {
+			int index = (int) pos & mask;
+			long diff = sequences.get(index) - (pos + 1);
+			if (diff == 0) {
+				if (head.compareAndSet(pos, pos + 1)) {
+					int value = values[index];
+					sequences.lazySet(index, pos + mask + 1);
+					return value;
+				}
+				pos = head.get();
+			} else if (diff < 0) {
+				return EMPTY;
+			} else {
+				pos = head.get();
+			}
+		}
+	}
+
+	/**
+	 * Waits until a value is available.
+	 */
+	public int take() throws InterruptedException {
+		int value = poll();
+		if (value != EMPTY) {
+			return value;
+		}
+		Thread current = Thread.currentThread();
+		waiterCount.incrementAndGet();
+		int slot = registerWaiter(current);
+		try {
+			while (true) {
+				value = poll();
+				if (value != EMPTY) {
+					return value;
+				}
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+				if (slot == -1) {
+					// more waiters than slots, fall back to polling
+					LockSupport.parkNanos(this, FALLBACK_PARK_NANOS);
+				} else {
+					LockSupport.park(this);
+				}
+			}
+		} finally {
+			if (slot != -1) {
+				waiters.set(slot, null);
+			}
+			waiterCount.decrementAndGet();
+		}
+	}
+
+	public boolean isEmpty() {
+		return head.get() >= tail.get();
+	}
+
+	public int size() {
+		long size = tail.get() - head.get();
+		return (int) Math.max(0, Math.min(size, mask + 1));
+	}
+
+	private int registerWaiter(Thread thread) {
+		for (int i = 0; i < MAX_WAITERS; i++) {
+			if (waiters.get(i) == null && waiters.compareAndSet(i, null, thread)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private void signal() {
+		if (waiterCount.get() == 0) {
+			return;
+		}
+		for (int i = 0; i < MAX_WAITERS; i++) {
+			Thread waiter = waiters.get(i);
+			if (waiter != null) {
+				LockSupport.unpark(waiter);
+			}
+		}
+	}
+}
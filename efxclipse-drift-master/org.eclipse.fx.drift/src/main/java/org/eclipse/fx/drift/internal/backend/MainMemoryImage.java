@@ -18,53 +18,136 @@
 package org.eclipse.fx.drift.internal.backend;
 
 import static org.eclipse.fx.drift.internal.GL.GL_BGRA;
+import static org.eclipse.fx.drift.internal.GL.GL_CLIENT_STORAGE_BIT;
+import static org.eclipse.fx.drift.internal.GL.GL_COLOR_ATTACHMENT0;
+import static org.eclipse.fx.drift.internal.GL.GL_COLOR_BUFFER_BIT;
+import static org.eclipse.fx.drift.internal.GL.GL_DRAW_FRAMEBUFFER;
+import static org.eclipse.fx.drift.internal.GL.GL_DRAW_FRAMEBUFFER_BINDING;
+import static org.eclipse.fx.drift.internal.GL.GL_EXTENSIONS;
+import static org.eclipse.fx.drift.internal.GL.GL_HALF_FLOAT;
+import static org.eclipse.fx.drift.internal.GL.GL_LINEAR;
+import static org.eclipse.fx.drift.internal.GL.GL_MAJOR_VERSION;
+import static org.eclipse.fx.drift.internal.GL.GL_MAP_COHERENT_BIT;
+import static org.eclipse.fx.drift.internal.GL.GL_MAP_PERSISTENT_BIT;
+import static org.eclipse.fx.drift.internal.GL.GL_MAP_READ_BIT;
+import static org.eclipse.fx.drift.internal.GL.GL_MINOR_VERSION;
+import static org.eclipse.fx.drift.internal.GL.GL_NUM_EXTENSIONS;
+import static org.eclipse.fx.drift.internal.GL.GL_PACK_ALIGNMENT;
+import static org.eclipse.fx.drift.internal.GL.GL_PACK_ROW_LENGTH;
+import static org.eclipse.fx.drift.internal.GL.GL_PACK_SKIP_PIXELS;
+import static org.eclipse.fx.drift.internal.GL.GL_PACK_SKIP_ROWS;
 import static org.eclipse.fx.drift.internal.GL.GL_PIXEL_PACK_BUFFER;
+import static org.eclipse.fx.drift.internal.GL.GL_READ_FRAMEBUFFER;
+import static org.eclipse.fx.drift.internal.GL.GL_READ_FRAMEBUFFER_BINDING;
 import static org.eclipse.fx.drift.internal.GL.GL_READ_ONLY;
 import static org.eclipse.fx.drift.internal.GL.GL_RGBA;
+import static org.eclipse.fx.drift.internal.GL.GL_RGBA16F;
 import static org.eclipse.fx.drift.internal.GL.GL_STATIC_READ;
 import static org.eclipse.fx.drift.internal.GL.GL_TEXTURE_2D;
 import static org.eclipse.fx.drift.internal.GL.GL_UNSIGNED_BYTE;
-import static org.eclipse.fx.drift.internal.GL.GL_UNSIGNED_INT_8_8_8_8_REV;
+import static org.eclipse.fx.drift.internal.GL.GL_AREADY_SIGNALED;
+import static org.eclipse.fx.drift.internal.GL.GL_CONDITION_SATISFIED;
+import static org.eclipse.fx.drift.internal.GL.GL_TIMEOUT_EXPIRED;
 import static org.eclipse.fx.drift.internal.GL.glBindBuffer;
+import static org.eclipse.fx.drift.internal.GL.glBindFramebuffer;
 import static org.eclipse.fx.drift.internal.GL.glBindTexture;
+import static org.eclipse.fx.drift.internal.GL.glBlitFramebuffer;
 import static org.eclipse.fx.drift.internal.GL.glBufferData;
+import static org.eclipse.fx.drift.internal.GL.glBufferStorage;
+import static org.eclipse.fx.drift.internal.GL.glClientWaitSync;
+import static org.eclipse.fx.drift.internal.GL.glCreateFence;
 import static org.eclipse.fx.drift.internal.GL.glDeleteBuffer;
+import static org.eclipse.fx.drift.internal.GL.glDeleteFramebuffer;
+import static org.eclipse.fx.drift.internal.GL.glDeleteSync;
 import static org.eclipse.fx.drift.internal.GL.glDeleteTexture;
+import static org.eclipse.fx.drift.internal.GL.glFramebufferTexture;
 import static org.eclipse.fx.drift.internal.GL.glGenBuffer;
+import static org.eclipse.fx.drift.internal.GL.glGenFramebuffer;
 import static org.eclipse.fx.drift.internal.GL.glGenTexture;
+import static org.eclipse.fx.drift.internal.GL.glGetInteger;
+import static org.eclipse.fx.drift.internal.GL.glGetString;
+import static org.eclipse.fx.drift.internal.GL.glGetStringi;
 import static org.eclipse.fx.drift.internal.GL.glGetTexImage;
 import static org.eclipse.fx.drift.internal.GL.glMapBuffer;
+import static org.eclipse.fx.drift.internal.GL.glMapBufferRange;
+import static org.eclipse.fx.drift.internal.GL.glPixelStorei;
+import static org.eclipse.fx.drift.internal.GL.glReadPixels;
 import static org.eclipse.fx.drift.internal.GL.glTexImage2D;
 import static org.eclipse.fx.drift.internal.GL.glUnmapBuffer;
 import static org.eclipse.fx.drift.internal.SYS.free;
+import static org.eclipse.fx.drift.internal.SYS.hashTiles;
 import static org.eclipse.fx.drift.internal.SYS.malloc;
 import static org.eclipse.fx.drift.internal.SYS.memcpy;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.fx.drift.DriftFXConfig;
+import org.eclipse.fx.drift.ImageFormat;
+import org.eclipse.fx.drift.Rect2i;
 import org.eclipse.fx.drift.Vec2i;
 import org.eclipse.fx.drift.internal.DriftFX;
 import org.eclipse.fx.drift.internal.DriftLogger;
 import org.eclipse.fx.drift.internal.common.ImageData;
+import org.eclipse.fx.drift.internal.common.ImageFormats;
 import org.eclipse.fx.drift.internal.common.MainMemoryImageData;
+import org.eclipse.fx.drift.internal.common.TransferFormat;
 import org.eclipse.fx.drift.internal.prism.Prism;
 
 public class MainMemoryImage implements Image {
 	private static final DriftLogger LOGGER = DriftFX.createLogger(MainMemoryImage.class);
+	private static final long WAIT_TIMEOUT = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final int PERSISTENT_FLAGS = GL_MAP_READ_BIT | GL_MAP_PERSISTENT_BIT | GL_MAP_COHERENT_BIT;
 	
 	public static final ImageType TYPE = new ImageType("MainMemory");
 	
 	private int number;
 	private Vec2i size;
+	private final ImageFormat format;
 	private int persistentPBO;
+	// signals the end of the readback into the persistentPBO
+	private long readbackFence;
+	// the persistentPBO stays mapped and memPointer points into it
+	private boolean persistentMapping;
+	// the persistentPBO is mapped when presenting and unmapped once the image was released
+	private boolean directMapping;
+	private boolean mapped;
+	// used to read back damaged regions
+	private int readFbo;
+	// finds the changed tiles if the renderer does not report damage
+	private TileChangeDetector tileChangeDetector;
+	// premultiplies / encodes the pixels after the readback, null if they are used as they are
+	private PixelConverter converter;
+	// the physical pixels the frames cover on screen, null if unknown or not scaled down
+	private volatile Vec2i displaySize;
+	// the frame scaled down to the display size, allocated with the first scaled frame and resized with the content
+	private int scaleTexture;
+	private int scaleFbo;
+	private Vec2i scaleSize;
 
 	private MainMemoryImageData data;
+	// provided by the transport, null for malloc
+	private final ImageMemory memory;
 	
 	int glTexture;
 	long memPointer;
 	int memSize;
 	
 	public MainMemoryImage(int number, Vec2i size) {
+		this(number, size, null);
+	}
+	
+	public MainMemoryImage(int number, Vec2i size, ImageMemory memory) {
+		this(number, size, ImageFormat.RGBA8, memory);
+	}
+	
+	public MainMemoryImage(int number, Vec2i size, ImageFormat format, ImageMemory memory) {
 		this.number = number;
 		this.size = size;
+		this.format = format;
+		this.memory = memory;
 	}
 	
 	@Override
@@ -82,69 +165,426 @@ public class MainMemoryImage implements Image {
 	public void allocate() {
 		glTexture = glGenTexture();
 		glBindTexture(GL_TEXTURE_2D, glTexture);
-		glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, size.x, size.y, 0, GL_BGRA, GL_UNSIGNED_BYTE, 0);
+		if (format == ImageFormat.RGBA16F) {
+			// the renderer gets the extra precision too
+			glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA16F, size.x, size.y, 0, GL_RGBA, GL_HALF_FLOAT, 0);
+		}
+		else {
+			glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, size.x, size.y, 0, GL_BGRA, GL_UNSIGNED_BYTE, 0);
+		}
 		glBindTexture(GL_TEXTURE_2D, 0);
 		
-		memSize = size.x * size.y * 4;
-		memPointer = malloc(memSize);
+		memSize = size.x * size.y * format.getBytesPerPixel();
+		// with a conversion stage the pixels are always read back as BGRA and swizzled on the way if needed
+		converter = format == ImageFormat.RGBA8 ? PixelConverter.create(!isBGRA()) : null;
+
+		// the mappings are process local, memory from a transport must be used for every frame
+		// the conversion writes to the pixels, so they can't be used with the read only mappings either
+		boolean mappable = memory == null && converter == null;
+		if (mappable && DriftFXConfig.isPersistentMapping() && isBufferStorageSupported()) {
+			allocatePersistentMapping();
+		}
+		if (!persistentMapping) {
+			directMapping = mappable && DriftFXConfig.isDirectMapping();
+			if (memory != null) {
+				memPointer = memory.allocate(number, memSize);
+			}
+			else if (!directMapping) {
+				memPointer = malloc(memSize);
+			}
+			
+			// Create a persistent PBO for asynchronous readback.
+			persistentPBO = glGenBuffer();
+			glBindBuffer(GL_PIXEL_PACK_BUFFER, persistentPBO);
+			glBufferData(GL_PIXEL_PACK_BUFFER, memSize, 0, GL_STATIC_READ);
+			glBindBuffer(GL_PIXEL_PACK_BUFFER, 0);
+		}
+		LOGGER.debug(() -> "*allocated " + number + " 0x" + Long.toHexString(memPointer)
+				+ " (" + size.x + "x" + size.y + " " + format + ": " + memSize + "B" + (persistentMapping ? ", persistent mapped" : directMapping ? ", direct mapped" : "") + ")");
+		this.data = new MainMemoryImageData(number, size, memPointer, memSize, format);
+		// the tiles are hashed as 4 byte pixels
+		if (DriftFXConfig.isTileChangeDetection() && format.getBytesPerPixel() == 4) {
+			tileChangeDetector = new TileChangeDetector(size);
+		}
+	}
 
-		// Create a persistent PBO for asynchronous readback.
+	private static boolean isBufferStorageSupported() {
+		// pre 3.0 contexts don't know GL_MAJOR_VERSION and leave the result at 0
+		int version = glGetInteger(GL_MAJOR_VERSION) * 10 + glGetInteger(GL_MINOR_VERSION);
+		return version >= 44 || isExtensionSupported("GL_ARB_buffer_storage");
+	}
+	
+	private static boolean isExtensionSupported(String extension) {
+		int count = glGetInteger(GL_NUM_EXTENSIONS);
+		for (int i = 0; i < count; i++) {
+			if (extension.equals(glGetStringi(GL_EXTENSIONS, i))) {
+				return true;
+			}
+		}
+		if (count == 0) {
+			// compatibility contexts before 3.0
+			String extensions = glGetString(GL_EXTENSIONS);
+			return extensions != null && Arrays.asList(extensions.split(" ")).contains(extension);
+		}
+		return false;
+	}
+	
+	private void allocatePersistentMapping() {
 		persistentPBO = glGenBuffer();
 		glBindBuffer(GL_PIXEL_PACK_BUFFER, persistentPBO);
-		glBufferData(GL_PIXEL_PACK_BUFFER, memSize, 0, GL_STATIC_READ);
+		glBufferStorage(GL_PIXEL_PACK_BUFFER, memSize, 0, PERSISTENT_FLAGS | GL_CLIENT_STORAGE_BIT);
+		long mapped = glMapBufferRange(GL_PIXEL_PACK_BUFFER, 0, memSize, PERSISTENT_FLAGS);
 		glBindBuffer(GL_PIXEL_PACK_BUFFER, 0);
-		LOGGER.debug(() -> "*allocated " + number + " 0x" + Long.toHexString(memPointer)
-				+ " (" + size.x + "x" + size.y + ": " + memSize + "B)");
-		this.data = new MainMemoryImageData(number, size, memPointer, memSize);
+		if (mapped == 0) {
+			LOGGER.warn(() -> "Failed to map persistent PBO, falling back to glMapBuffer.");
+			glDeleteBuffer(persistentPBO);
+			persistentPBO = 0;
+			return;
+		}
+		memPointer = mapped;
+		persistentMapping = true;
 	}
 
 	@Override
 	public void release() {
+		if (readbackFence != 0) {
+			glDeleteSync(readbackFence);
+			readbackFence = 0;
+		}
+		if (readFbo != 0) {
+			glDeleteFramebuffer(readFbo);
+			readFbo = 0;
+		}
 		// Delete the texture.
 		glDeleteTexture(glTexture);
+		if (scaleTexture != 0) {
+			glDeleteFramebuffer(scaleFbo);
+			glDeleteTexture(scaleTexture);
+			scaleFbo = 0;
+			scaleTexture = 0;
+			scaleSize = null;
+		}
 		// Delete the persistent PBO.
+		if (persistentMapping || mapped) {
+			glBindBuffer(GL_PIXEL_PACK_BUFFER, persistentPBO);
+			glUnmapBuffer(GL_PIXEL_PACK_BUFFER);
+			glBindBuffer(GL_PIXEL_PACK_BUFFER, 0);
+		}
 		glDeleteBuffer(persistentPBO);
 		persistentPBO = 0;
 		LOGGER.debug(() -> "*release " + glTexture + " 0x" + Long.toHexString(memPointer));
-		free(memPointer);
+		if (memory != null) {
+			memory.free(number, memPointer);
+		}
+		else if (!persistentMapping && !directMapping) {
+			free(memPointer);
+		}
 	}
 
 	@Override
 	public void onAcquire() {
-
+		if (mapped) {
+			// the frontend released the image, the buffer is ours again
+			data.memPointer = 0;
+			glBindBuffer(GL_PIXEL_PACK_BUFFER, persistentPBO);
+			glUnmapBuffer(GL_PIXEL_PACK_BUFFER);
+			glBindBuffer(GL_PIXEL_PACK_BUFFER, 0);
+			mapped = false;
+		}
 	}
 
 	@Override
 	public void onPresent() {
-		synchronized (data) {
-			downloadToMemoryUsingPBO(glTexture, memSize, memPointer);
+		Vec2i contentSize = getContentSize(size, displaySize);
+		if (contentSize != null) {
+			scaleDown(contentSize);
+			// only the scaled frame is transferred, the rest of the image is not shown
+			Vec2i previous = data.contentSize;
+			if (data.damage == null || previous == null || previous.x != contentSize.x || previous.y != contentSize.y) {
+				data.damage = new Rect2i[] { new Rect2i(0, 0, contentSize.x, contentSize.y) };
+			}
+			else {
+				data.damage = scaleDamage(data.damage, size, contentSize);
+			}
+			data.contentSize = contentSize;
+			startReadback(scaleTexture);
+			return;
+		}
+		if (data.contentSize != null) {
+			// the image still holds a scaled frame
+			data.damage = null;
+			data.contentSize = null;
+		}
+		startReadback(glTexture);
+	}
+	
+	@Override
+	public void setDisplaySize(Vec2i displaySize) {
+		this.displaySize = DriftFXConfig.isDownscale() ? displaySize : null;
+	}
+	
+	/**
+	 * @return the size to scale the frame down to, <code>null</code> if the full frame is transferred
+	 */
+	static Vec2i getContentSize(Vec2i size, Vec2i displaySize) {
+		if (displaySize == null || displaySize.x <= 0 || displaySize.y <= 0) {
+			return null;
+		}
+		int width = Math.min(size.x, displaySize.x);
+		int height = Math.min(size.y, displaySize.y);
+		// below a quarter of the pixels saved the extra pass and the filtering are not worth it
+		if (4L * width * height > 3L * size.x * size.y) {
+			return null;
+		}
+		return new Vec2i(width, height);
+	}
+	
+	/**
+	 * @return the damage of the full frame in the pixels of the scaled frame, grown by a pixel for the linear filter
+	 */
+	static Rect2i[] scaleDamage(Rect2i[] damage, Vec2i size, Vec2i contentSize) {
+		Rect2i[] result = new Rect2i[damage.length];
+		for (int i = 0; i < damage.length; i++) {
+			Rect2i r = damage[i];
+			int x0 = Math.max(0, (int) ((long) r.x * contentSize.x / size.x) - 1);
+			int y0 = Math.max(0, (int) ((long) r.y * contentSize.y / size.y) - 1);
+			int x1 = Math.min(contentSize.x, (int) (((long) (r.x + r.width) * contentSize.x + size.x - 1) / size.x) + 1);
+			int y1 = Math.min(contentSize.y, (int) (((long) (r.y + r.height) * contentSize.y + size.y - 1) / size.y) + 1);
+			result[i] = new Rect2i(x0, y0, x1 - x0, y1 - y0);
+		}
+		return result;
+	}
+	
+	private void scaleDown(Vec2i contentSize) {
+		int boundDrawFbo = glGetInteger(GL_DRAW_FRAMEBUFFER_BINDING);
+		int boundReadFbo = glGetInteger(GL_READ_FRAMEBUFFER_BINDING);
+		if (scaleTexture == 0) {
+			scaleTexture = glGenTexture();
+			scaleFbo = glGenFramebuffer();
+		}
+		if (scaleSize == null || scaleSize.x != contentSize.x || scaleSize.y != contentSize.y) {
+			glBindTexture(GL_TEXTURE_2D, scaleTexture);
+			if (format == ImageFormat.RGBA16F) {
+				glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA16F, contentSize.x, contentSize.y, 0, GL_RGBA, GL_HALF_FLOAT, 0);
+			}
+			else {
+				glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, contentSize.x, contentSize.y, 0, GL_BGRA, GL_UNSIGNED_BYTE, 0);
+			}
+			glBindTexture(GL_TEXTURE_2D, 0);
+			glBindFramebuffer(GL_DRAW_FRAMEBUFFER, scaleFbo);
+			glFramebufferTexture(GL_DRAW_FRAMEBUFFER, GL_COLOR_ATTACHMENT0, scaleTexture, 0);
+			scaleSize = contentSize;
+		}
+		else {
+			glBindFramebuffer(GL_DRAW_FRAMEBUFFER, scaleFbo);
+		}
+		glBindFramebuffer(GL_READ_FRAMEBUFFER, getReadFbo());
+		glBlitFramebuffer(0, 0, size.x, size.y, 0, 0, contentSize.x, contentSize.y, GL_COLOR_BUFFER_BIT, GL_LINEAR);
+		glBindFramebuffer(GL_READ_FRAMEBUFFER, boundReadFbo);
+		glBindFramebuffer(GL_DRAW_FRAMEBUFFER, boundDrawFbo);
+	}
+	
+	@Override
+	public boolean completePresent(boolean wait) {
+		if (readbackFence == 0) {
+			return true;
 		}
+		if (!isReadbackDone(wait)) {
+			return false;
+		}
+		glDeleteSync(readbackFence);
+		readbackFence = 0;
+		if (directMapping) {
+			mapForFrontend();
+		}
+		else if (!persistentMapping) {
+			// the coherent mapping already contains the pixels
+			synchronized (data) {
+				downloadToMemory(memSize, memPointer);
+				if (converter != null) {
+					convert();
+				}
+			}
+		}
+		if (tileChangeDetector != null) {
+			detectChanges();
+		}
+		return true;
+	}
+	
+	private void convert() {
+		Rect2i[] region = data.damage;
+		if (region == null) {
+			converter.convert(memPointer, size.x, size.y);
+		}
+		else {
+			converter.convert(memPointer, size.x, region);
+		}
+	}
+	
+	private void detectChanges() {
+		if (data.damage != null) {
+			// the renderer knows better, but our hashes are outdated now
+			tileChangeDetector.invalidate();
+			return;
+		}
+		hashTiles(data.memPointer, size.x, size.y, tileChangeDetector.getTileSize(), tileChangeDetector.getHashes());
+		data.damage = tileChangeDetector.update();
 	}
 
-	private void downloadToMemoryUsingPBO(int tex, int size, long pPixels) {
+	private void startReadback(int tex) {
 		// Bind the persistent PBO.
 		glBindBuffer(GL_PIXEL_PACK_BUFFER, persistentPBO);
 
 		// Bind the texture and initiate asynchronous readback into the PBO.
 		glBindTexture(GL_TEXTURE_2D, tex);
 
-		int format = Prism.isD3D() ? GL_BGRA : GL_RGBA;
-		glGetTexImage(GL_TEXTURE_2D, 0, format, GL_UNSIGNED_INT_8_8_8_8_REV, 0);
+		int glFormat = ImageFormats.getGLFormat(format, converter != null || isBGRA());
+		int glType = ImageFormats.getGLType(format);
+		TransferFormat transferFormat = data.transferFormat;
+		if (transferFormat != null && converter == null) {
+			glFormat = transferFormat.glFormat;
+			glType = transferFormat.glType;
+		}
+		glPixelStorei(GL_PACK_ALIGNMENT, ImageFormats.getAlignment(format));
+		Rect2i[] region = data.damage;
+		if (region == null) {
+			glGetTexImage(GL_TEXTURE_2D, 0, glFormat, glType, 0);
+		}
+		else {
+			readRegion(tex == scaleTexture ? scaleFbo : getReadFbo(), region, glFormat, glType);
+		}
+		glPixelStorei(GL_PACK_ALIGNMENT, 4);
 		glBindTexture(GL_TEXTURE_2D, 0);
 
+		// Unbind the PBO.
+		glBindBuffer(GL_PIXEL_PACK_BUFFER, 0);
+		
+		readbackFence = glCreateFence();
+	}
+	
+	@Override
+	public List<TransferFormat> getTransferFormats() {
+		if (format != ImageFormat.RGBA8) {
+			return Collections.emptyList();
+		}
+		if (converter != null) {
+			// the conversion stage always writes the default layout of the frontend
+			return Collections.singletonList(TransferFormat.getDefault(isBGRA()));
+		}
+		if (DriftFXConfig.isTransferFormatProbe()) {
+			return TransferFormatProbe.getRanking();
+		}
+		return TransferFormat.getDefaultRanking(isBGRA());
+	}
+	
+	@Override
+	public void setTransferFormat(TransferFormat transferFormat) {
+		data.transferFormat = transferFormat;
+	}
+	
+	/**
+	 * @return <code>true</code> if the frontend expects BGRA ordered pixels
+	 */
+	private boolean isBGRA() {
+		return memory != null ? memory.isBGRA() : Prism.isBGRA();
+	}
+	
+	private int getReadFbo() {
+		if (readFbo == 0) {
+			int boundFbo = glGetInteger(GL_READ_FRAMEBUFFER_BINDING);
+			readFbo = glGenFramebuffer();
+			glBindFramebuffer(GL_READ_FRAMEBUFFER, readFbo);
+			glFramebufferTexture(GL_READ_FRAMEBUFFER, GL_COLOR_ATTACHMENT0, glTexture, 0);
+			glBindFramebuffer(GL_READ_FRAMEBUFFER, boundFbo);
+		}
+		return readFbo;
+	}
+	
+	private void readRegion(int fbo, Rect2i[] region, int glFormat, int glType) {
+		// the renderer keeps drawing into its own framebuffer after present
+		int boundFbo = glGetInteger(GL_READ_FRAMEBUFFER_BINDING);
+		glBindFramebuffer(GL_READ_FRAMEBUFFER, fbo);
+		// the rects keep their position within the buffer
+		glPixelStorei(GL_PACK_ROW_LENGTH, size.x);
+		for (Rect2i r : region) {
+			glPixelStorei(GL_PACK_SKIP_PIXELS, r.x);
+			glPixelStorei(GL_PACK_SKIP_ROWS, r.y);
+			glReadPixels(r.x, r.y, r.width, r.height, glFormat, glType, 0);
+		}
+		glPixelStorei(GL_PACK_SKIP_PIXELS, 0);
+		glPixelStorei(GL_PACK_SKIP_ROWS, 0);
+		glPixelStorei(GL_PACK_ROW_LENGTH, 0);
+		glBindFramebuffer(GL_READ_FRAMEBUFFER, boundFbo);
+	}
+	
+	private boolean isReadbackDone(boolean wait) {
+		while (true) {
+			// the wait flushes the pending commands
+			int result = glClientWaitSync(readbackFence, wait ? WAIT_TIMEOUT : 0);
+			if (result == GL_AREADY_SIGNALED || result == GL_CONDITION_SATISFIED) {
+				return true;
+			}
+			if (result != GL_TIMEOUT_EXPIRED) {
+				LOGGER.warn(() -> "glClientWaitSync failed (" + result + "), falling back to a synchronous map");
+				return true;
+			}
+			if (!wait) {
+				return false;
+			}
+		}
+	}
+
+	private void mapForFrontend() {
+		glBindBuffer(GL_PIXEL_PACK_BUFFER, persistentPBO);
+		long glBuf = glMapBuffer(GL_PIXEL_PACK_BUFFER, GL_READ_ONLY);
+		glBindBuffer(GL_PIXEL_PACK_BUFFER, 0);
+		if (glBuf == 0L) {
+			LOGGER.warn(() -> "Failed to map persistent PBO for readback, switching to memcpy.");
+			directMapping = false;
+			memPointer = malloc(memSize);
+			// the new buffer needs the complete frame
+			data.damage = null;
+			downloadToMemory(memSize, memPointer);
+			data.memPointer = memPointer;
+			return;
+		}
+		mapped = true;
+		data.memPointer = glBuf;
+	}
+
+	private void downloadToMemory(int size, long pPixels) {
+		glBindBuffer(GL_PIXEL_PACK_BUFFER, persistentPBO);
+		
 		// Map the buffer so that we can copy its data to system memory.
 		long glBuf = glMapBuffer(GL_PIXEL_PACK_BUFFER, GL_READ_ONLY);
 		if (glBuf != 0L) {
-			memcpy(pPixels, glBuf, size);
+			Rect2i[] region = data.damage;
+			if (region == null) {
+				memcpy(pPixels, glBuf, size);
+			}
+			else {
+				copyRegion(region, pPixels, glBuf);
+			}
 			glUnmapBuffer(GL_PIXEL_PACK_BUFFER);
 		} else {
 			LOGGER.warn(() -> "Failed to map persistent PBO for readback.");
 		}
 
-		// Unbind the PBO.
 		glBindBuffer(GL_PIXEL_PACK_BUFFER, 0);
 	}
 
+	private void copyRegion(Rect2i[] region, long pTarget, long pSource) {
+		int bpp = format.getBytesPerPixel();
+		int stride = size.x * bpp;
+		for (Rect2i r : region) {
+			for (int row = r.y; row < r.y + r.height; row++) {
+				long offset = (long) row * stride + r.x * bpp;
+				memcpy(pTarget + offset, pSource + offset, r.width * bpp);
+			}
+		}
+	}
+
 	@Override
 	public int getGLTexture() {
 		return glTexture;
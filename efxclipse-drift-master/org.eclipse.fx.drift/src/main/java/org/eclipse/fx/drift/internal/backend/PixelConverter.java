@@ -0,0 +1,190 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.backend;
+
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+import org.eclipse.fx.drift.DriftFXConfig;
+import org.eclipse.fx.drift.Rect2i;
+import org.eclipse.fx.drift.internal.SYS;
+
+/**
+ * Converts read back pixels in place before they are handed to the frontend.
+ * <p>
+ * The pixels are 32 bit ints in native byte order (<code>GL_UNSIGNED_INT_8_8_8_8_REV</code>) with the alpha channel
+ * in the top byte, so every operation works on one int per pixel: red and blue are swapped with masks and the color
+ * channels are premultiplied two at a time (red and blue share one multiplication). Large frames are split into row
+ * bands which are converted in parallel.
+ * </p>
+ */
+public class PixelConverter {
+	
+	/** swaps the red and the blue channel */
+	public static final int SWIZZLE = 1;
+	/** encodes linear color channels to sRGB, expects straight alpha */
+	public static final int SRGB_ENCODE = 1 << 1;
+	/** multiplies the color channels with the alpha channel */
+	public static final int PREMULTIPLY = 1 << 2;
+	
+	/** frames with more pixels are converted by several threads */
+	private static final int PARALLEL_THRESHOLD = 512 * 512;
+	private static final int MIN_BAND_ROWS = 64;
+	
+	private static final byte[] SRGB_LUT = new byte[256];
+	
+	static {
+		for (int i = 0; i < 256; i++) {
+			double linear = i / 255d;
+			double srgb = linear <= 0.0031308 ? linear * 12.92 : 1.055 * Math.pow(linear, 1 / 2.4) - 0.055;
+			SRGB_LUT[i] = (byte) Math.round(srgb * 255);
+		}
+	}
+	
+	private final int operations;
+	
+	public PixelConverter(int operations) {
+		this.operations = operations;
+	}
+	
+	/**
+	 * @param swizzle <code>true</code> if the pixels are read back in a different channel order than the frontend expects
+	 * @return the converter for the configured operations or <code>null</code> if the pixels can be used as they are
+	 */
+	public static PixelConverter create(boolean swizzle) {
+		int operations = 0;
+		if (DriftFXConfig.isSRGBEncode()) {
+			operations |= SRGB_ENCODE;
+		}
+		if (DriftFXConfig.isPremultiply()) {
+			operations |= PREMULTIPLY;
+		}
+		if (operations == 0) {
+			return null;
+		}
+		return new PixelConverter(swizzle ? operations | SWIZZLE : operations);
+	}
+	
+	public int getOperations() {
+		return operations;
+	}
+	
+	private static IntBuffer wrap(long pPixels, int pixels) {
+		return SYS.wrap(pPixels, 4 * pixels).order(ByteOrder.nativeOrder()).asIntBuffer();
+	}
+	
+	/**
+	 * converts a complete frame
+	 */
+	public void convert(long pPixels, int width, int height) {
+		convert(wrap(pPixels, width * height), width, height);
+	}
+	
+	/**
+	 * converts the given regions of a frame, pixels covered by several regions are converted once
+	 */
+	public void convert(long pPixels, int width, Rect2i[] region) {
+		int height = 0;
+		for (Rect2i r : region) {
+			height = Math.max(height, r.y + r.height);
+		}
+		convert(wrap(pPixels, width * height), width, region);
+	}
+	
+	void convert(IntBuffer pixels, int width, int height) {
+		if (width * height < PARALLEL_THRESHOLD) {
+			convertRows(pixels, width, 0, width, 0, height);
+			return;
+		}
+		int bands = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), height / MIN_BAND_ROWS));
+		int rowsPerBand = (height + bands - 1) / bands;
+		IntStream.range(0, bands).parallel().forEach(band -> {
+			int from = band * rowsPerBand;
+			convertRows(pixels, width, 0, width, from, Math.min(height, from + rowsPerBand));
+		});
+	}
+	
+	void convert(IntBuffer pixels, int width, Rect2i[] region) {
+		// the conversion is not idempotent, so every row is converted in the merged spans of the regions covering it
+		Rect2i[] byX = region.clone();
+		Arrays.sort(byX, Comparator.comparingInt(r -> r.x));
+		int fromRow = Integer.MAX_VALUE;
+		int toRow = 0;
+		for (Rect2i r : byX) {
+			fromRow = Math.min(fromRow, r.y);
+			toRow = Math.max(toRow, r.y + r.height);
+		}
+		for (int row = fromRow; row < toRow; row++) {
+			int start = -1;
+			int end = -1;
+			for (Rect2i r : byX) {
+				if (row < r.y || row >= r.y + r.height) {
+					continue;
+				}
+				if (r.x > end) {
+					convertSpan(pixels, row * width + start, row * width + end);
+					start = r.x;
+				}
+				end = Math.max(end, r.x + r.width);
+			}
+			convertSpan(pixels, row * width + start, row * width + end);
+		}
+	}
+	
+	// absolute accesses only, the bands share the buffer
+	private void convertRows(IntBuffer pixels, int stride, int x, int width, int fromRow, int toRow) {
+		for (int row = fromRow; row < toRow; row++) {
+			convertSpan(pixels, row * stride + x, row * stride + x + width);
+		}
+	}
+	
+	private void convertSpan(IntBuffer pixels, int from, int to) {
+		for (int i = from; i < to; i++) {
+			pixels.put(i, convert(pixels.get(i)));
+		}
+	}
+	
+	public int convert(int pixel) {
+		if ((operations & SWIZZLE) != 0) {
+			pixel = (pixel & 0xFF00FF00) | ((pixel >>> 16) & 0xFF) | ((pixel & 0xFF) << 16);
+		}
+		if ((operations & SRGB_ENCODE) != 0) {
+			pixel = (pixel & 0xFF000000)
+					| (SRGB_LUT[(pixel >>> 16) & 0xFF] & 0xFF) << 16
+					| (SRGB_LUT[(pixel >>> 8) & 0xFF] & 0xFF) << 8
+					| (SRGB_LUT[pixel & 0xFF] & 0xFF);
+		}
+		if ((operations & PREMULTIPLY) != 0) {
+			pixel = premultiply(pixel);
+		}
+		return pixel;
+	}
+	
+	static int premultiply(int pixel) {
+		int a = pixel >>> 24;
+		if (a == 0xFF) {
+			return pixel;
+		}
+		if (a == 0) {
+			return 0;
+		}
+		// c * a / 255 rounded, red and blue at once
+		int rb = (pixel & 0x00FF00FF) * a + 0x00800080;
+		rb = ((rb + ((rb >>> 8) & 0x00FF00FF)) >>> 8) & 0x00FF00FF;
+		int g = (pixel & 0x0000FF00) * a + 0x00008000;
+		g = ((g + ((g >>> 8) & 0x0000FF00)) >>> 8) & 0x0000FF00;
+		return (pixel & 0xFF000000) | rb | g;
+	}
+}
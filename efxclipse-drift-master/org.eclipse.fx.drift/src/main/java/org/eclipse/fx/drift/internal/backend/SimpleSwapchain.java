@@ -11,25 +11,28 @@
  * ******************************************************************************/
 package org.eclipse.fx.drift.internal.backend;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
+import org.eclipse.fx.drift.DriftFXConfig;
+import org.eclipse.fx.drift.FrameLatency.Stage;
+import org.eclipse.fx.drift.Rect2i;
 import org.eclipse.fx.drift.RenderTarget;
 import org.eclipse.fx.drift.SwapchainConfig;
+import org.eclipse.fx.drift.Vec2i;
 import org.eclipse.fx.drift.internal.DriftFX;
 import org.eclipse.fx.drift.internal.DriftLogger;
 import org.eclipse.fx.drift.internal.common.ImageData;
+import org.eclipse.fx.drift.internal.common.TransferFormat;
 import org.eclipse.fx.drift.internal.transport.command.DisposeSwapchainCommand;
 import org.eclipse.fx.drift.internal.transport.command.PresentCommand;
+import org.eclipse.fx.drift.internal.transport.command.PresentUnchangedCommand;
 import org.eclipse.fx.drift.internal.transport.command.SwapchainDisposedCommand;
 
 public class SimpleSwapchain implements BackendSwapchain {
@@ -39,9 +42,16 @@ public class SimpleSwapchain implements BackendSwapchain {
 	private final Backend backend;
 	private final SwapchainConfig config;
 	
-	private Set<Image> images;
-	private Map<ImageData, Image> imageMap;
-	private BlockingQueue<Image> freeImages = new LinkedBlockingQueue<>();
+	private Image[] images;
+	// 1 while the image is acquired by the renderer or owned by the frontend
+	private AtomicIntegerArray inUse;
+	private ImageRing freeImages;
+	
+	// presented images waiting for their readback, only accessed by the renderer thread
+	private final Deque<Image> pendingPresents = new ArrayDeque<>();
+	private final boolean asyncPresent = DriftFXConfig.isAsyncReadback();
+	private long frameSequence;
+	private DamageTracker damageTracker;
 	
 	private boolean disposed = false;
 	
@@ -51,6 +61,11 @@ public class SimpleSwapchain implements BackendSwapchain {
 		this.config = config;
 	}
 	
+	@Override
+	public UUID getId() {
+		return id;
+	}
+	
 	@Override
 	public SwapchainConfig getConfig() {
 		return config;
@@ -58,93 +73,162 @@ public class SimpleSwapchain implements BackendSwapchain {
 	
 	public void allocate() {
 		LOGGER.debug(() -> "Allocating Swapchain");
-		synchronized (freeImages) {
-			images = new HashSet<>();
-			imageMap = new HashMap<>();
-			for (int number = 0; number < config.imageCount; number++) {
-				Image image = ImageFactory.createImage(number, config.size, config.transferType);
-				image.allocate();
-				images.add(image);
-				freeImages.add(image);
-				imageMap.put(image.getData(), image);
-			}
+		images = new Image[config.imageCount];
+		inUse = new AtomicIntegerArray(config.imageCount);
+		freeImages = new ImageRing(config.imageCount);
+		damageTracker = new DamageTracker(config.imageCount, config.size);
+		ImageMemory memory = backend.createImageMemory(id);
+		for (int number = 0; number < config.imageCount; number++) {
+			Image image = ImageFactory.createImage(number, config.size, config.transferType, config.format, memory);
+			image.allocate();
+			images[number] = image;
+			freeImages.offer(number);
 		}
 	}
 	
 	public void dispose() {
 		LOGGER.debug(() -> "Disposing Swapchain");
 		
-		CompletableFuture<SwapchainDisposedCommand> waitForCommand = backend.waitForCommand(SwapchainDisposedCommand.class, c -> id.equals(c.getId()));
+		flushPresents(true);
+		
+		CompletableFuture<SwapchainDisposedCommand> waitForCommand = backend.waitForCommand(SwapchainDisposedCommand.class, id);
 		backend.sendCommand(new DisposeSwapchainCommand(id));
 		waitForCommand.join();
 
-		synchronized (freeImages) {
-			for (Image image : freeImages) {
-				image.release();
-			}
-			images.removeAll(freeImages);
-			if (!images.isEmpty()) {
-				LOGGER.error(() -> "Unreleased Swapchain images remaining: " + images);
+		List<Image> unreleased = new ArrayList<>();
+		int number;
+		while ((number = freeImages.poll()) != ImageRing.EMPTY) {
+			images[number].release();
+			images[number] = null;
+		}
+		for (Image image : images) {
+			if (image != null) {
+				unreleased.add(image);
 			}
-			disposed = true;
 		}
+		if (!unreleased.isEmpty()) {
+			LOGGER.error(() -> "Unreleased Swapchain images remaining: " + unreleased);
+		}
+		disposed = true;
 	}
 
 	@Override
 	public RenderTarget acquire() throws InterruptedException {
-		synchronized (freeImages) {
-			Image image = freeImages.take();
-			image.onAcquire();
-			return image;
+		flushPresents(false);
+		int number = freeImages.poll();
+		if (number == ImageRing.EMPTY) {
+			// the frontend can only release images it got
+			flushPresents(true);
+			number = freeImages.take();
 		}
+		return onAcquire(number);
 	}
 	
 	// => called by frontend
 	@Override
 	public void release(ImageData imageData) {
-//		System.err.println("DriftFX Backend: Swapchain#release " + imageData.number);
-//		synchronized (freeImages) {
-			Image image = imageMap.get(imageData);
-			if (image == null) {
-				// panic
-				LOGGER.error(() -> "Wrong image released !!!!!");
-			}
-			else {
-				if (freeImages.contains(image)) {
-					System.err.println("Image already free!");
-				} else {
-					freeImages.add(image);
-				}
-			}
-//		}
+		int number = imageData.number;
+		if (number < 0 || number >= images.length || images[number] == null || images[number].getData() != imageData) {
+			// panic
+			LOGGER.error(() -> "Wrong image released !!!!!");
+		}
+		else if (!inUse.compareAndSet(number, 1, 0)) {
+			LOGGER.warn(() -> "Image already free! " + imageData);
+		}
+		else {
+			freeImages.offer(number);
+		}
 	}
 
 	@Override
 	public Optional<RenderTarget> tryAcquire() {
-		synchronized (freeImages) {
-			if (freeImages.isEmpty()) {
-				return Optional.empty();
-			}
-			else {
-				Image image = freeImages.poll();
-				if (image != null) image.onAcquire();
-				return Optional.of(image);
-			}
+		flushPresents(false);
+		int number = freeImages.poll();
+		if (number == ImageRing.EMPTY) {
+			return Optional.empty();
 		}
+		return Optional.of(onAcquire(number));
+	}
+	
+	private Image onAcquire(int number) {
+		inUse.set(number, 1);
+		Image image = images[number];
+		image.getData().resetStamps();
+		image.onAcquire();
+		return image;
 	}
 	
 	
 	// => calls fontend present
 	@Override
 	public void present(RenderTarget renderTarget) {
+		present(renderTarget, (Rect2i[]) null);
+	}
+	
+	@Override
+	public void present(RenderTarget renderTarget, Rect2i... damage) {
 		Image image = (Image) renderTarget;
 //		System.err.println("DriftFX Backend: Swapchain#present " + image.getData().number);
+		ImageData data = image.getData();
+		data.stamp(Stage.PRESENT);
+		data.damage = damageTracker.present(data.number, damage);
+		data.previousFrame = data.frame;
+		data.frame = ++frameSequence;
 		image.onPresent();
-		backend.sendCommand(new PresentCommand(id, image.getData()));
+		pendingPresents.add(image);
+		flushPresents(!asyncPresent);
+	}
+	
+	@Override
+	public void presentUnchanged() {
+		// the renderer is idle, its last frame has to reach the frontend
+		flushPresents(true);
+		backend.sendCommand(new PresentUnchangedCommand(id));
+	}
+	
+	@Override
+	public void flush() {
+		flushPresents(true);
+	}
+	
+	private void flushPresents(boolean wait) {
+		Image image;
+		while ((image = pendingPresents.peek()) != null && image.completePresent(wait)) {
+			pendingPresents.poll();
+			image.getData().stamp(Stage.READBACK);
+			backend.sendCommand(new PresentCommand(id, image.getData()));
+		}
 	}
 	
 	@Override
 	public List<ImageData> getImages() {
-		return images.stream().map(Image::getData).collect(Collectors.toList());
+		List<ImageData> result = new ArrayList<>(images.length);
+		for (Image image : images) {
+			result.add(image.getData());
+		}
+		return result;
+	}
+	
+	@Override
+	public List<TransferFormat> getTransferFormats() {
+		// all images are created alike
+		return images[0].getTransferFormats();
+	}
+	
+	@Override
+	public void setTransferFormat(TransferFormat format) {
+		for (Image image : images) {
+			image.setTransferFormat(format);
+		}
+	}
+	
+	@Override
+	public void setDisplaySize(Vec2i displaySize) {
+		for (Image image : images) {
+			// the frontend reports from its own thread
+			if (image != null) {
+				image.setDisplaySize(displaySize);
+			}
+		}
 	}
 }
@@ -0,0 +1,122 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.backend;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.fx.drift.Rect2i;
+import org.eclipse.fx.drift.Vec2i;
+
+/**
+ * Detects the changed tiles of an image by comparing the tile hashes with the ones of its previous content.
+ * <p>
+ * Each swapchain image owns its own detector, since the frontend texture of an image holds the previous content of
+ * that image. Changed tiles next to each other in a row are merged into one rectangle.
+ * </p>
+ */
+public class TileChangeDetector {
+	
+	public static final int TILE_SIZE = 64;
+	
+	private final Vec2i size;
+	private final int tileSize;
+	private final int tilesX;
+	private final int tilesY;
+	
+	private long[] hashes;
+	private long[] previous;
+	private boolean valid;
+	
+	public TileChangeDetector(Vec2i size) {
+		this(size, TILE_SIZE);
+	}
+	
+	public TileChangeDetector(Vec2i size, int tileSize) {
+		this.size = size;
+		this.tileSize = tileSize;
+		this.tilesX = (size.x + tileSize - 1) / tileSize;
+		this.tilesY = (size.y + tileSize - 1) / tileSize;
+		this.hashes = new long[tilesX * tilesY];
+		this.previous = new long[tilesX * tilesY];
+	}
+	
+	public int getTileSize() {
+		return tileSize;
+	}
+	
+	/**
+	 * @return the array to fill with the hashes of the current content
+	 */
+	public long[] getHashes() {
+		return hashes;
+	}
+	
+	/**
+	 * forgets the previous content, the next {@link #update()} reports the full image
+	 */
+	public void invalidate() {
+		valid = false;
+	}
+	
+	/**
+	 * compares the hashes from {@link #getHashes()} with the previous ones
+	 * 
+	 * @return the changed region, <code>null</code> if the previous content is unknown
+	 */
+	public Rect2i[] update() {
+		Rect2i[] result = valid ? diff() : null;
+		long[] tmp = previous;
+		previous = hashes;
+		hashes = tmp;
+		valid = true;
+		return result;
+	}
+	
+	private Rect2i[] diff() {
+		List<Rect2i> changed = new ArrayList<>();
+		for (int ty = 0; ty < tilesY; ty++) {
+			int start = -1;
+			for (int tx = 0; tx <= tilesX; tx++) {
+				boolean dirty = tx < tilesX && hashes[ty * tilesX + tx] != previous[ty * tilesX + tx];
+				if (dirty && start == -1) {
+					start = tx;
+				}
+				else if (!dirty && start != -1) {
+					changed.add(toRect(start, tx, ty));
+					start = -1;
+				}
+			}
+		}
+		if (changed.size() > DamageTracker.MAX_RECTS) {
+			// many small rects cost more than one bigger transfer
+			int x0 = Integer.MAX_VALUE;
+			int y0 = Integer.MAX_VALUE;
+			int x1 = 0;
+			int y1 = 0;
+			for (Rect2i r : changed) {
+				x0 = Math.min(x0, r.x);
+				y0 = Math.min(y0, r.y);
+				x1 = Math.max(x1, r.x + r.width);
+				y1 = Math.max(y1, r.y + r.height);
+			}
+			return new Rect2i[] { new Rect2i(x0, y0, x1 - x0, y1 - y0) };
+		}
+		return changed.toArray(new Rect2i[changed.size()]);
+	}
+	
+	private Rect2i toRect(int startX, int endX, int ty) {
+		int x = startX * tileSize;
+		int y = ty * tileSize;
+		return new Rect2i(x, y, Math.min(size.x, endX * tileSize) - x, Math.min(size.y, y + tileSize) - y);
+	}
+}
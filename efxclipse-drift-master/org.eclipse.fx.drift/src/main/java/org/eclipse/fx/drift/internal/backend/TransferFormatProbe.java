@@ -0,0 +1,162 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.backend;
+
+import static org.eclipse.fx.drift.internal.GL.GL_BGRA;
+import static org.eclipse.fx.drift.internal.GL.GL_NO_ERROR;
+import static org.eclipse.fx.drift.internal.GL.GL_PIXEL_PACK_BUFFER;
+import static org.eclipse.fx.drift.internal.GL.GL_PIXEL_UNPACK_BUFFER;
+import static org.eclipse.fx.drift.internal.GL.GL_READ_ONLY;
+import static org.eclipse.fx.drift.internal.GL.GL_RENDERER;
+import static org.eclipse.fx.drift.internal.GL.GL_RGBA8;
+import static org.eclipse.fx.drift.internal.GL.GL_STATIC_READ;
+import static org.eclipse.fx.drift.internal.GL.GL_TEXTURE_2D;
+import static org.eclipse.fx.drift.internal.GL.GL_UNSIGNED_BYTE;
+import static org.eclipse.fx.drift.internal.GL.GL_VENDOR;
+import static org.eclipse.fx.drift.internal.GL.GL_VERSION;
+import static org.eclipse.fx.drift.internal.GL.glBindBuffer;
+import static org.eclipse.fx.drift.internal.GL.glBindTexture;
+import static org.eclipse.fx.drift.internal.GL.glBufferData;
+import static org.eclipse.fx.drift.internal.GL.glDeleteBuffer;
+import static org.eclipse.fx.drift.internal.GL.glDeleteTexture;
+import static org.eclipse.fx.drift.internal.GL.glFinish;
+import static org.eclipse.fx.drift.internal.GL.glGenBuffer;
+import static org.eclipse.fx.drift.internal.GL.glGenTexture;
+import static org.eclipse.fx.drift.internal.GL.glGetError;
+import static org.eclipse.fx.drift.internal.GL.glGetString;
+import static org.eclipse.fx.drift.internal.GL.glGetTexImage;
+import static org.eclipse.fx.drift.internal.GL.glMapBuffer;
+import static org.eclipse.fx.drift.internal.GL.glTexImage2D;
+import static org.eclipse.fx.drift.internal.GL.glTexSubImage2D;
+import static org.eclipse.fx.drift.internal.GL.glUnmapBuffer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.eclipse.fx.drift.internal.DriftFX;
+import org.eclipse.fx.drift.internal.DriftLogger;
+import org.eclipse.fx.drift.internal.common.TransferFormat;
+
+/**
+ * Ranks the {@link TransferFormat}s by timing a readback and an upload of a small texture with each of them.
+ * <p>
+ * The probe runs once per device (vendor, renderer and driver version) and process, the result is cached. The upload
+ * is timed in the backend context, for a GL frontend on the same device this is the same driver path.
+ * </p>
+ */
+public final class TransferFormatProbe {
+	private static final DriftLogger LOGGER = DriftFX.createLogger(TransferFormatProbe.class);
+	
+	private static final int SIZE = 256;
+	private static final int ROUNDS = 4;
+	
+	private static final Map<String, List<TransferFormat>> RANKINGS = new ConcurrentHashMap<>();
+	
+	private TransferFormatProbe() {}
+	
+	/**
+	 * must be called with a current GL context
+	 * @return all formats the device supports, the fastest first
+	 */
+	public static List<TransferFormat> getRanking() {
+		String device = glGetString(GL_VENDOR) + " / " + glGetString(GL_RENDERER) + " / " + glGetString(GL_VERSION);
+		return RANKINGS.computeIfAbsent(device, TransferFormatProbe::probe);
+	}
+	
+	private static List<TransferFormat> probe(String device) {
+		TransferFormat[] formats = TransferFormat.values();
+		long[] nanos = new long[formats.length];
+		int size = SIZE * SIZE * 4;
+		
+		int source = createTexture();
+		int target = createTexture();
+		int buffer = glGenBuffer();
+		glBindBuffer(GL_PIXEL_PACK_BUFFER, buffer);
+		glBufferData(GL_PIXEL_PACK_BUFFER, size, 0, GL_STATIC_READ);
+		glBindBuffer(GL_PIXEL_PACK_BUFFER, 0);
+		// clear errors of the renderer
+		glGetError();
+		
+		for (int i = 0; i < formats.length; i++) {
+			// warm up, the first transfer may compile the conversion
+			transfer(formats[i], source, target, buffer);
+			long start = System.nanoTime();
+			for (int round = 0; round < ROUNDS; round++) {
+				transfer(formats[i], source, target, buffer);
+			}
+			nanos[i] = glGetError() == GL_NO_ERROR ? System.nanoTime() - start : Long.MAX_VALUE;
+		}
+		
+		glDeleteBuffer(buffer);
+		glDeleteTexture(source);
+		glDeleteTexture(target);
+		
+		List<TransferFormat> ranking = rank(formats, nanos);
+		if (ranking.isEmpty()) {
+			LOGGER.warn(() -> "Transfer format probe failed for " + device + ", using the defaults");
+			return TransferFormat.getDefaultRanking(true);
+		}
+		LOGGER.info(() -> "Transfer formats of " + device + ": " + IntStream.range(0, formats.length)
+				.mapToObj(i -> formats[i] + " " + (nanos[i] == Long.MAX_VALUE ? "unsupported" : nanos[i] / ROUNDS / 1000 + "us"))
+				.collect(Collectors.joining(", ")));
+		return ranking;
+	}
+	
+	/**
+	 * @return the formats sorted by their time, without the failed ones (<code>Long.MAX_VALUE</code>)
+	 */
+	static List<TransferFormat> rank(TransferFormat[] formats, long[] nanos) {
+		List<Integer> indices = new ArrayList<>();
+		for (int i = 0; i < formats.length; i++) {
+			if (nanos[i] != Long.MAX_VALUE) {
+				indices.add(i);
+			}
+		}
+		// stable, so equally fast formats keep their order
+		indices.sort(Comparator.comparingLong(i -> nanos[i]));
+		List<TransferFormat> result = new ArrayList<>(indices.size());
+		for (int i : indices) {
+			result.add(formats[i]);
+		}
+		return result;
+	}
+	
+	private static int createTexture() {
+		int texture = glGenTexture();
+		glBindTexture(GL_TEXTURE_2D, texture);
+		glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, SIZE, SIZE, 0, GL_BGRA, GL_UNSIGNED_BYTE, 0);
+		glBindTexture(GL_TEXTURE_2D, 0);
+		return texture;
+	}
+	
+	private static void transfer(TransferFormat format, int source, int target, int buffer) {
+		glBindBuffer(GL_PIXEL_PACK_BUFFER, buffer);
+		glBindTexture(GL_TEXTURE_2D, source);
+		glGetTexImage(GL_TEXTURE_2D, 0, format.glFormat, format.glType, 0);
+		// the map waits for the readback like the swapchain does
+		glMapBuffer(GL_PIXEL_PACK_BUFFER, GL_READ_ONLY);
+		glUnmapBuffer(GL_PIXEL_PACK_BUFFER);
+		glBindBuffer(GL_PIXEL_PACK_BUFFER, 0);
+		
+		glBindBuffer(GL_PIXEL_UNPACK_BUFFER, buffer);
+		glBindTexture(GL_TEXTURE_2D, target);
+		glTexSubImage2D(GL_TEXTURE_2D, 0, 0, 0, SIZE, SIZE, format.glFormat, format.glType, 0);
+		glBindBuffer(GL_PIXEL_UNPACK_BUFFER, 0);
+		glBindTexture(GL_TEXTURE_2D, 0);
+		glFinish();
+	}
+}
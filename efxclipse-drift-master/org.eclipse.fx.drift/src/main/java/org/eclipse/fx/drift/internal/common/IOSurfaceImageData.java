@@ -13,11 +13,12 @@ package org.eclipse.fx.drift.internal.common;
 
 import org.eclipse.fx.drift.TransferType;
 import org.eclipse.fx.drift.Vec2i;
+import org.eclipse.fx.drift.internal.prism.Prism;
 import org.eclipse.fx.drift.util.NativeUtil;
 
 public class IOSurfaceImageData extends ImageData {
 	
-	public static final TransferType TYPE = new TransferType("IOSurface", () -> NativeUtil.isMacOs());
+	public static final TransferType TYPE = new TransferType("IOSurface", () -> NativeUtil.isMacOs() && !Prism.isSW());
 
 	public final long ioSurfaceID;
 	
@@ -11,6 +11,10 @@
  * ******************************************************************************/
 package org.eclipse.fx.drift.internal.common;
 
+import java.util.Arrays;
+
+import org.eclipse.fx.drift.FrameLatency;
+import org.eclipse.fx.drift.Rect2i;
 import org.eclipse.fx.drift.TransferType;
 import org.eclipse.fx.drift.Vec2i;
 
@@ -20,9 +24,36 @@ public class ImageData {
 	public final Vec2i size;
 	public final TransferType type;
 	
+	/** sequence number of the presented frame the image holds, set by the backend before presenting */
+	public volatile long frame;
+	/** the frame the image held before */
+	public volatile long previousFrame;
+	/** the parts which changed compared to {@link #previousFrame}, <code>null</code> if the image changed completely */
+	public volatile Rect2i[] damage;
+	/** the part of the image holding the frame, scaled down to the display size, <code>null</code> for the whole image */
+	public volatile Vec2i contentSize;
+	/** the {@link System#nanoTime()} the frame passed the stages, indexed by {@link FrameLatency.Stage#ordinal()} */
+	public final long[] stamps = new long[FrameLatency.Stage.values().length];
+	
 	public ImageData(int number, TransferType type, Vec2i size) {
 		this.number = number;
 		this.type = type;
 		this.size = size;
 	}
+	
+	public void stamp(FrameLatency.Stage stage) {
+		stamps[stage.ordinal()] = System.nanoTime();
+	}
+	
+	public long getStamp(FrameLatency.Stage stage) {
+		return stamps[stage.ordinal()];
+	}
+	
+	/**
+	 * starts a new frame
+	 */
+	public void resetStamps() {
+		Arrays.fill(stamps, 0);
+		stamp(FrameLatency.Stage.ACQUIRE);
+	}
 }
@@ -0,0 +1,199 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.common;
+
+import static org.eclipse.fx.drift.internal.GL.GL_BGR;
+import static org.eclipse.fx.drift.internal.GL.GL_BGRA;
+import static org.eclipse.fx.drift.internal.GL.GL_HALF_FLOAT;
+import static org.eclipse.fx.drift.internal.GL.GL_RGB;
+import static org.eclipse.fx.drift.internal.GL.GL_RGBA;
+import static org.eclipse.fx.drift.internal.GL.GL_UNSIGNED_BYTE;
+import static org.eclipse.fx.drift.internal.GL.GL_UNSIGNED_INT_8_8_8_8_REV;
+import static org.eclipse.fx.drift.internal.GL.GL_UNSIGNED_SHORT_5_6_5;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+import org.eclipse.fx.drift.ImageFormat;
+import org.eclipse.fx.drift.internal.SYS;
+
+/**
+ * The GL pixel transfer parameters of the {@link ImageFormat}s and their expansion to 32 bit native order
+ * premultiplied ARGB ints for the pipelines which can't upload them directly.
+ * <p>
+ * The expansion expects the channel order of a BGRA frontend, i.e. the pixels were read back with
+ * {@link #getGLFormat(ImageFormat, boolean)} and <code>bgra = true</code>.
+ * </p>
+ */
+public final class ImageFormats {
+	
+	// 8 bit unorm value of each half float, clamped to [0, 1]
+	private static final byte[] HALF_TO_UNORM8 = new byte[1 << 16];
+	
+	static {
+		for (int i = 0; i < HALF_TO_UNORM8.length; i++) {
+			float value = halfToFloat((short) i);
+			HALF_TO_UNORM8[i] = (byte) (value > 0 ? Math.round(Math.min(value, 1f) * 255) : 0);
+		}
+	}
+	
+	private ImageFormats() {}
+	
+	public static int getGLFormat(ImageFormat format, boolean bgra) {
+		switch (format) {
+		case RGB8:
+			return bgra ? GL_BGR : GL_RGB;
+		case RGB565:
+			// the channels are packed into a short, red is always in the high bits
+			return GL_RGB;
+		default:
+			return bgra ? GL_BGRA : GL_RGBA;
+		}
+	}
+	
+	public static int getGLType(ImageFormat format) {
+		switch (format) {
+		case RGB8:
+			return GL_UNSIGNED_BYTE;
+		case RGB565:
+			return GL_UNSIGNED_SHORT_5_6_5;
+		case RGBA16F:
+			return GL_HALF_FLOAT;
+		default:
+			return GL_UNSIGNED_INT_8_8_8_8_REV;
+		}
+	}
+	
+	/**
+	 * @return the value for <code>GL_PACK_ALIGNMENT</code> / <code>GL_UNPACK_ALIGNMENT</code> matching the tightly
+	 *         packed rows
+	 */
+	public static int getAlignment(ImageFormat format) {
+		switch (format) {
+		case RGB8:
+			return 1;
+		case RGB565:
+			return 2;
+		default:
+			return 4;
+		}
+	}
+	
+	/**
+	 * @return a native order view of the image up to the end of the region
+	 */
+	private static ByteBuffer wrap(long pPixels, int bpp, int width, int x, int y, int w, int h) {
+		return SYS.wrap(pPixels, ((y + h - 1) * width + x + w) * bpp).order(ByteOrder.nativeOrder());
+	}
+	
+	/**
+	 * expands the region of the image at <code>pSrc</code> into the same region of the ARGB image at
+	 * <code>pDst</code>, both images are <code>width</code> pixels wide
+	 */
+	public static void expand(ImageFormat format, long pSrc, int width, int x, int y, int w, int h, long pDst) {
+		if (w <= 0 || h <= 0) {
+			return;
+		}
+		ByteBuffer src = wrap(pSrc, format.getBytesPerPixel(), width, x, y, w, h);
+		IntBuffer dst = wrap(pDst, 4, width, x, y, w, h).asIntBuffer();
+		expand(format, src, width, x, y, w, h, dst);
+	}
+	
+	static void expand(ImageFormat format, ByteBuffer src, int width, int x, int y, int w, int h, IntBuffer dst) {
+		int bpp = format.getBytesPerPixel();
+		for (int row = y; row < y + h; row++) {
+			int index = row * width + x;
+			for (int i = 0; i < w; i++) {
+				dst.put(index + i, toARGB(format, src, (index + i) * bpp));
+			}
+		}
+	}
+	
+	/**
+	 * expands the region of the image at <code>pSrc</code> into the same region of an ARGB array with the given
+	 * offset and scanline stride (in pixels)
+	 */
+	public static void expand(ImageFormat format, long pSrc, int width, int x, int y, int w, int h, int[] dst, int dstOffset, int dstStride) {
+		if (w <= 0 || h <= 0) {
+			return;
+		}
+		expand(format, wrap(pSrc, format.getBytesPerPixel(), width, x, y, w, h), width, x, y, w, h, dst, dstOffset, dstStride);
+	}
+	
+	static void expand(ImageFormat format, ByteBuffer src, int width, int x, int y, int w, int h, int[] dst, int dstOffset, int dstStride) {
+		int bpp = format.getBytesPerPixel();
+		for (int row = y; row < y + h; row++) {
+			int p = (row * width + x) * bpp;
+			int index = dstOffset + row * dstStride + x;
+			for (int i = 0; i < w; i++, p += bpp) {
+				dst[index + i] = toARGB(format, src, p);
+			}
+		}
+	}
+	
+	/**
+	 * copies the region of an {@link ImageFormat#RGBA8} image into the same region of an ARGB array
+	 */
+	public static void copy(long pSrc, int width, int x, int y, int w, int h, int[] dst, int dstOffset, int dstStride) {
+		if (w <= 0 || h <= 0) {
+			return;
+		}
+		IntBuffer src = wrap(pSrc, 4, width, x, y, w, h).asIntBuffer();
+		for (int row = y; row < y + h; row++) {
+			// a bulk copy per row
+			src.position(row * width + x);
+			src.get(dst, dstOffset + row * dstStride + x, w);
+		}
+	}
+	
+	/**
+	 * @param p the byte offset of the pixel
+	 */
+	static int toARGB(ImageFormat format, ByteBuffer src, int p) {
+		switch (format) {
+		case RGB8:
+			return 0xFF000000 | (src.get(p + 2) & 0xFF) << 16 | (src.get(p + 1) & 0xFF) << 8 | (src.get(p) & 0xFF);
+		case RGB565: {
+			int s = src.getShort(p) & 0xFFFF;
+			int r = s >>> 11;
+			int g = (s >>> 5) & 0x3F;
+			int b = s & 0x1F;
+			return 0xFF000000 | (r << 3 | r >>> 2) << 16 | (g << 2 | g >>> 4) << 8 | (b << 3 | b >>> 2);
+		}
+		case RGBA16F:
+			return (HALF_TO_UNORM8[src.getShort(p + 6) & 0xFFFF] & 0xFF) << 24
+					| (HALF_TO_UNORM8[src.getShort(p + 4) & 0xFFFF] & 0xFF) << 16
+					| (HALF_TO_UNORM8[src.getShort(p + 2) & 0xFFFF] & 0xFF) << 8
+					| (HALF_TO_UNORM8[src.getShort(p) & 0xFFFF] & 0xFF);
+		default:
+			return src.getInt(p);
+		}
+	}
+	
+	static float halfToFloat(short half) {
+		int sign = (half >>> 15) & 0x1;
+		int exponent = (half >>> 10) & 0x1F;
+		int mantissa = half & 0x3FF;
+		float value;
+		if (exponent == 0) {
+			value = mantissa * 0x1p-24f;
+		}
+		else if (exponent == 0x1F) {
+			value = mantissa == 0 ? Float.POSITIVE_INFINITY : Float.NaN;
+		}
+		else {
+			value = (1 + mantissa / 1024f) * (float) Math.pow(2, exponent - 15);
+		}
+		return sign == 0 ? value : -value;
+	}
+}
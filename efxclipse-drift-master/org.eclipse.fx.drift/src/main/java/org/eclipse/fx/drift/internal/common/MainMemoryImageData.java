@@ -11,6 +11,7 @@
  * ******************************************************************************/
 package org.eclipse.fx.drift.internal.common;
 
+import org.eclipse.fx.drift.ImageFormat;
 import org.eclipse.fx.drift.TransferType;
 import org.eclipse.fx.drift.Vec2i;
 
@@ -18,13 +19,26 @@ public class MainMemoryImageData extends ImageData {
 
 	public static final TransferType TYPE = new TransferType("MainMemory", () -> true);
 	
-	public final long memPointer;
+	/** 
+	 * the pixels, either a malloc'ed buffer or a mapped GL buffer of the backend. 
+	 * Is updated by the backend before presenting and only valid as long as the frontend owns the image.
+	 */
+	public volatile long memPointer;
 	public final int memSize;
+	/** the layout of the pixels, the rows are tightly packed */
+	public final ImageFormat format;
+	/** the negotiated GL format / type of {@link ImageFormat#RGBA8} pixels, <code>null</code> for the default one */
+	public volatile TransferFormat transferFormat;
 	
 	public MainMemoryImageData(int number, Vec2i size, long memPointer, int memSize) {
+		this(number, size, memPointer, memSize, ImageFormat.RGBA8);
+	}
+	
+	public MainMemoryImageData(int number, Vec2i size, long memPointer, int memSize, ImageFormat format) {
 		super(number, TYPE, size);
 		this.memPointer = memPointer;
 		this.memSize = memSize;
+		this.format = format;
 	}
 	
 	@Override
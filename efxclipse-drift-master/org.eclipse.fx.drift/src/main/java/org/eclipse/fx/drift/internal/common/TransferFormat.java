@@ -0,0 +1,79 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.common;
+
+import static org.eclipse.fx.drift.internal.GL.GL_BGRA;
+import static org.eclipse.fx.drift.internal.GL.GL_RGBA;
+import static org.eclipse.fx.drift.internal.GL.GL_UNSIGNED_BYTE;
+import static org.eclipse.fx.drift.internal.GL.GL_UNSIGNED_INT_8_8_8_8_REV;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.fx.drift.ImageFormat;
+
+/**
+ * The GL format / type combination used to read back and upload {@link ImageFormat#RGBA8} pixels.
+ * <p>
+ * All combinations have the same size, but drivers only have a fast path for some of them and convert the others on
+ * the CPU. The backend offers them ranked when it creates a swapchain and the frontend chooses the first one it can
+ * upload.
+ * </p>
+ */
+public enum TransferFormat {
+	BGRA_8_8_8_8_REV(GL_BGRA, GL_UNSIGNED_INT_8_8_8_8_REV),
+	BGRA_UNSIGNED_BYTE(GL_BGRA, GL_UNSIGNED_BYTE),
+	RGBA_8_8_8_8_REV(GL_RGBA, GL_UNSIGNED_INT_8_8_8_8_REV),
+	RGBA_UNSIGNED_BYTE(GL_RGBA, GL_UNSIGNED_BYTE);
+	
+	public final int glFormat;
+	public final int glType;
+	
+	private TransferFormat(int glFormat, int glType) {
+		this.glFormat = glFormat;
+		this.glType = glType;
+	}
+	
+	public boolean isBGRA() {
+		return glFormat == GL_BGRA;
+	}
+	
+	/**
+	 * @return <code>true</code> if every pixel is an ARGB int in native byte order, the layout D3D and the software
+	 *         pipeline upload
+	 */
+	public boolean isNativeARGB() {
+		return isBGRA() && (glType == GL_UNSIGNED_INT_8_8_8_8_REV || ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN);
+	}
+	
+	/**
+	 * @return the format used before the formats were negotiated
+	 */
+	public static TransferFormat getDefault(boolean bgra) {
+		return bgra ? BGRA_8_8_8_8_REV : RGBA_8_8_8_8_REV;
+	}
+	
+	/**
+	 * @return all formats, the default one first
+	 */
+	public static List<TransferFormat> getDefaultRanking(boolean bgra) {
+		List<TransferFormat> result = new ArrayList<>();
+		result.add(getDefault(bgra));
+		for (TransferFormat format : values()) {
+			if (!result.contains(format)) {
+				result.add(format);
+			}
+		}
+		return result;
+	}
+}
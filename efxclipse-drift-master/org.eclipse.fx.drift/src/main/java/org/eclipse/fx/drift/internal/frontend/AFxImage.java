@@ -28,6 +28,8 @@ public abstract class AFxImage<D extends ImageData> implements FxImage<D> {
 	
 	protected final D data;
 	
+	private long uploadedFrame = -1;
+	
 	public AFxImage(D data) {
 		this.data = data;
 	}
@@ -54,6 +56,25 @@ public abstract class AFxImage<D extends ImageData> implements FxImage<D> {
 		// default implementation does nothing
 	}
 
+	/**
+	 * @return <code>true</code> if the frame held by the image data was not yet transferred to the texture
+	 */
+	protected boolean isNewFrame() {
+		return data.frame != uploadedFrame;
+	}
+	
+	/**
+	 * @return <code>true</code> if the texture holds the frame the image held before, so only the damaged region needs
+	 * to be transferred
+	 */
+	protected boolean isPreviousFrameUploaded() {
+		return data.previousFrame == uploadedFrame;
+	}
+	
+	protected void frameUploaded() {
+		uploadedFrame = data.frame;
+	}
+
 	@Override
 	public Texture getTexture() {
 		return texture;
@@ -11,6 +11,7 @@
  * ******************************************************************************/
 package org.eclipse.fx.drift.internal.frontend;
 
+import org.eclipse.fx.drift.Rect2i;
 import org.eclipse.fx.drift.internal.common.MainMemoryImageData;
 
 public abstract class AMainMemoryFxImage extends AFxImage<MainMemoryImageData> {
@@ -21,9 +22,29 @@ public abstract class AMainMemoryFxImage extends AFxImage<MainMemoryImageData> {
 
 	@Override
 	public void update() {
-		uploadTexture();
+		if (data.memPointer == 0) {
+			// mapped backend memory which is not handed over (yet)
+			return;
+		}
+		if (!isNewFrame()) {
+			// repaint without a new frame
+			return;
+		}
+		Rect2i[] damage = data.damage;
+		if (damage != null && isPreviousFrameUploaded()) {
+			uploadTexture(damage);
+		}
+		else {
+			uploadTexture();
+		}
+		frameUploaded();
 	}
 
 	protected abstract void uploadTexture();
+	
+	/**
+	 * uploads only the given parts of the image
+	 */
+	protected abstract void uploadTexture(Rect2i[] region);
 
 }
\ No newline at end of file
@@ -11,18 +11,59 @@
  * ******************************************************************************/
 package org.eclipse.fx.drift.internal.frontend;
 
+import static org.eclipse.fx.drift.internal.SYS.free;
+import static org.eclipse.fx.drift.internal.SYS.malloc;
+
+import org.eclipse.fx.drift.ImageFormat;
+import org.eclipse.fx.drift.Rect2i;
 import org.eclipse.fx.drift.internal.D3DBatch;
+import org.eclipse.fx.drift.internal.common.ImageFormats;
 import org.eclipse.fx.drift.internal.common.MainMemoryImageData;
 
+/**
+ * Formats narrower than {@link ImageFormat#RGBA8} are expanded into a staging buffer first.
+ */
 public class D3DMainMemoryFxImage extends AMainMemoryFxImage {
 
+	private long staging;
+	
 	public D3DMainMemoryFxImage(MainMemoryImageData data) {
 		super(data);
 	}
 	
+	@Override
+	public void release() {
+		if (staging != 0) {
+			free(staging);
+			staging = 0;
+		}
+		super.release();
+	}
+	
 	@Override
 	protected void uploadTexture() {
-		D3DBatch.uploadTexture(getTexture(), data.memPointer, data.size.x, data.size.y, data.memSize);
+		if (data.format == ImageFormat.RGBA8) {
+			D3DBatch.uploadTexture(getTexture(), data.memPointer, data.size.x, data.size.y, data.memSize);
+			return;
+		}
+		long pPixels = expand(0, 0, data.size.x, data.size.y);
+		D3DBatch.uploadTexture(getTexture(), pPixels, data.size.x, data.size.y, data.size.x * data.size.y * 4);
+	}
+	
+	@Override
+	protected void uploadTexture(Rect2i[] region) {
+		for (Rect2i r : region) {
+			long pPixels = data.format == ImageFormat.RGBA8 ? data.memPointer : expand(r.x, r.y, r.width, r.height);
+			D3DBatch.uploadTextureRegion(getTexture(), pPixels, data.size.x, data.size.y, r.x, r.y, r.width, r.height);
+		}
+	}
+	
+	private long expand(int x, int y, int w, int h) {
+		if (staging == 0) {
+			staging = malloc(data.size.x * data.size.y * 4);
+		}
+		ImageFormats.expand(data.format, data.memPointer, data.size.x, x, y, w, h, staging);
+		return staging;
 	}
 
 }
@@ -11,54 +11,170 @@
  * ******************************************************************************/
 package org.eclipse.fx.drift.internal.frontend;
 
+import static org.eclipse.fx.drift.internal.GL.GL_MAJOR_VERSION;
+import static org.eclipse.fx.drift.internal.GL.GL_MINOR_VERSION;
+import static org.eclipse.fx.drift.internal.GL.GL_PIXEL_UNPACK_BUFFER;
 import static org.eclipse.fx.drift.internal.GL.GL_RGBA;
 import static org.eclipse.fx.drift.internal.GL.GL_RGBA8;
+import static org.eclipse.fx.drift.internal.GL.GL_STREAM_DRAW;
 import static org.eclipse.fx.drift.internal.GL.GL_TEXTURE_2D;
 import static org.eclipse.fx.drift.internal.GL.GL_UNPACK_ALIGNMENT;
 import static org.eclipse.fx.drift.internal.GL.GL_UNPACK_ROW_LENGTH;
+import static org.eclipse.fx.drift.internal.GL.GL_UNPACK_SKIP_PIXELS;
+import static org.eclipse.fx.drift.internal.GL.GL_UNPACK_SKIP_ROWS;
 import static org.eclipse.fx.drift.internal.GL.GL_UNSIGNED_INT_8_8_8_8_REV;
+import static org.eclipse.fx.drift.internal.GL.GL_WRITE_ONLY;
+import static org.eclipse.fx.drift.internal.GL.glBindBuffer;
 import static org.eclipse.fx.drift.internal.GL.glBindTexture;
+import static org.eclipse.fx.drift.internal.GL.glBufferData;
+import static org.eclipse.fx.drift.internal.GL.glDeleteBuffer;
+import static org.eclipse.fx.drift.internal.GL.glGenBuffer;
 import static org.eclipse.fx.drift.internal.GL.glGetInteger;
 import static org.eclipse.fx.drift.internal.GL.glIsTexture;
+import static org.eclipse.fx.drift.internal.GL.glMapBuffer;
 import static org.eclipse.fx.drift.internal.GL.glPixelStorei;
 import static org.eclipse.fx.drift.internal.GL.glTexImage2D;
+import static org.eclipse.fx.drift.internal.GL.glTexStorage2D;
+import static org.eclipse.fx.drift.internal.GL.glTexSubImage2D;
+import static org.eclipse.fx.drift.internal.GL.glUnmapBuffer;
+import static org.eclipse.fx.drift.internal.SYS.memcpy;
 
+import org.eclipse.fx.drift.Rect2i;
 import org.eclipse.fx.drift.internal.DriftFX;
 import org.eclipse.fx.drift.internal.DriftLogger;
+import org.eclipse.fx.drift.internal.common.ImageFormats;
 import org.eclipse.fx.drift.internal.common.MainMemoryImageData;
+import org.eclipse.fx.drift.internal.common.TransferFormat;
 import org.eclipse.fx.drift.internal.prism.PrismES2;
 
+/**
+ * Uploads through two alternating pixel unpack buffers, the texture storage is specified once and only updated with
+ * <code>glTexSubImage2D</code> afterwards. The copy from the buffer to the texture is done by the driver asynchronously.
+ */
 public class ES2MainMemoryFxImage extends AMainMemoryFxImage {
 	private static final DriftLogger LOGGER = DriftFX.createLogger(ES2MainMemoryFxImage.class);
 	
+	private final int[] unpackBuffers = new int[2];
+	private int nextUnpackBuffer;
+	
+	private int storageTexture;
+	
 	public ES2MainMemoryFxImage(MainMemoryImageData data) {
 		super(data);
 	}
 	
+	@Override
+	public void release() {
+		for (int i = 0; i < unpackBuffers.length; i++) {
+			if (unpackBuffers[i] != 0) {
+				glDeleteBuffer(unpackBuffers[i]);
+				unpackBuffers[i] = 0;
+			}
+		}
+		super.release();
+	}
+	
 	@Override
 	protected void uploadTexture() {
 		int targetTex = PrismES2.getTextureName(getTexture());
-		LOGGER.info(() -> "*uploadTexture 0x" + Long.toHexString(data.memPointer) + " => " + targetTex);
-		LOGGER.info(() -> " with Unpack.alignment = " + glGetInteger(GL_UNPACK_ALIGNMENT));
-		LOGGER.info(() -> " with Unpack.rowLength = " + glGetInteger(GL_UNPACK_ROW_LENGTH));
+		LOGGER.trace(() -> "*uploadTexture 0x" + Long.toHexString(data.memPointer) + " => " + targetTex);
 		synchronized (data) {
 			uploadTexture(targetTex, data.size.x, data.size.y, data.memPointer, data.memSize);
 		}
 	}
 	
+	@Override
+	protected void uploadTexture(Rect2i[] region) {
+		int targetTex = PrismES2.getTextureName(getTexture());
+		if (storageTexture != targetTex) {
+			uploadTexture();
+			return;
+		}
+		int format = getGLFormat();
+		int type = getGLType();
+		synchronized (data) {
+			// small regions are uploaded directly from client memory
+			glPixelStorei(GL_UNPACK_ALIGNMENT, ImageFormats.getAlignment(data.format));
+			glPixelStorei(GL_UNPACK_ROW_LENGTH, data.size.x);
+			glBindTexture(GL_TEXTURE_2D, targetTex);
+			for (Rect2i r : region) {
+				glPixelStorei(GL_UNPACK_SKIP_PIXELS, r.x);
+				glPixelStorei(GL_UNPACK_SKIP_ROWS, r.y);
+				glTexSubImage2D(GL_TEXTURE_2D, 0, r.x, r.y, r.width, r.height, format, type, data.memPointer);
+			}
+			glBindTexture(GL_TEXTURE_2D, 0);
+			glPixelStorei(GL_UNPACK_SKIP_PIXELS, 0);
+			glPixelStorei(GL_UNPACK_SKIP_ROWS, 0);
+			glPixelStorei(GL_UNPACK_ROW_LENGTH, 0);
+			glPixelStorei(GL_UNPACK_ALIGNMENT, 4);
+		}
+	}
+	
 	private void uploadTexture(int targetTex, int width, int height, long pPixels, int size) {
-//		System.err.println("*uploadTexture(" + targetTex + ", " + width + ", " + height + ", " + Long.toHexString(pPixels) + ", " + size + ")");
 		if (targetTex == 0) {
 			LOGGER.error(() -> "  !  Invalid Texture ID");
 		}
-		LOGGER.info(() -> "isTexture(" + targetTex + "): " + glIsTexture(targetTex));
-		glPixelStorei(GL_UNPACK_ALIGNMENT, 4);
+		LOGGER.trace(() -> "isTexture(" + targetTex + "): " + glIsTexture(targetTex));
+		glPixelStorei(GL_UNPACK_ALIGNMENT, ImageFormats.getAlignment(data.format));
 		glPixelStorei(GL_UNPACK_ROW_LENGTH, 0);
 		glBindTexture(GL_TEXTURE_2D, targetTex);
-		glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, width, height, 0, GL_RGBA, GL_UNSIGNED_INT_8_8_8_8_REV, pPixels);
+		
+		if (storageTexture != targetTex) {
+			specifyStorage(width, height);
+			storageTexture = targetTex;
+		}
+		
+		long pUpload = fillUnpackBuffer(pPixels, size);
+		// narrower formats are expanded to the RGBA8 storage by the driver
+		glTexSubImage2D(GL_TEXTURE_2D, 0, 0, 0, width, height, getGLFormat(), getGLType(), pUpload);
+		
+		glBindBuffer(GL_PIXEL_UNPACK_BUFFER, 0);
 		glBindTexture(GL_TEXTURE_2D, 0);
-//		glFlush();
-//		glFinish();
+		glPixelStorei(GL_UNPACK_ALIGNMENT, 4);
+	}
+	
+	private int getGLFormat() {
+		TransferFormat transferFormat = data.transferFormat;
+		return transferFormat != null ? transferFormat.glFormat : ImageFormats.getGLFormat(data.format, false);
+	}
+	
+	private int getGLType() {
+		TransferFormat transferFormat = data.transferFormat;
+		return transferFormat != null ? transferFormat.glType : ImageFormats.getGLType(data.format);
+	}
+	
+	private static void specifyStorage(int width, int height) {
+		int version = glGetInteger(GL_MAJOR_VERSION) * 10 + glGetInteger(GL_MINOR_VERSION);
+		if (version >= 42) {
+			glTexStorage2D(GL_TEXTURE_2D, 1, GL_RGBA8, width, height);
+		}
+		else {
+			glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, width, height, 0, GL_RGBA, GL_UNSIGNED_INT_8_8_8_8_REV, 0);
+		}
+	}
+	
+	/**
+	 * copies the pixels into the next unpack buffer and leaves it bound
+	 * @return the offset to pass to <code>glTexSubImage2D</code> or the client pointer if the buffer could not be mapped
+	 */
+	private long fillUnpackBuffer(long pPixels, int size) {
+		int index = nextUnpackBuffer;
+		nextUnpackBuffer = (nextUnpackBuffer + 1) % unpackBuffers.length;
+		if (unpackBuffers[index] == 0) {
+			unpackBuffers[index] = glGenBuffer();
+		}
+		glBindBuffer(GL_PIXEL_UNPACK_BUFFER, unpackBuffers[index]);
+		// orphan the previous storage, the driver may still be reading it
+		glBufferData(GL_PIXEL_UNPACK_BUFFER, size, 0, GL_STREAM_DRAW);
+		long pBuffer = glMapBuffer(GL_PIXEL_UNPACK_BUFFER, GL_WRITE_ONLY);
+		if (pBuffer == 0) {
+			LOGGER.warn(() -> "Failed to map unpack buffer, uploading from client memory.");
+			glBindBuffer(GL_PIXEL_UNPACK_BUFFER, 0);
+			return pPixels;
+		}
+		memcpy(pBuffer, pPixels, size);
+		glUnmapBuffer(GL_PIXEL_UNPACK_BUFFER);
+		return 0;
 	}
 	
 }
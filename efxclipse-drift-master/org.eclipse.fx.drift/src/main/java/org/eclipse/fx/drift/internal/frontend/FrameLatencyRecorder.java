@@ -0,0 +1,53 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.frontend;
+
+import org.eclipse.fx.drift.FrameLatency;
+
+/**
+ * Keeps the stage stamps of the last displayed frames of a swapchain.
+ */
+public class FrameLatencyRecorder {
+	
+	private static final int STAGES = FrameLatency.Stage.values().length;
+	
+	private final long[][] frames;
+	private int next;
+	private int count;
+	
+	public FrameLatencyRecorder(int capacity) {
+		this.frames = new long[capacity][STAGES];
+	}
+	
+	/**
+	 * copies the stamps, frames with a missing stamp are ignored
+	 */
+	public synchronized void record(long[] stamps) {
+		for (long stamp : stamps) {
+			if (stamp == 0) {
+				return;
+			}
+		}
+		System.arraycopy(stamps, 0, frames[next], 0, STAGES);
+		next = (next + 1) % frames.length;
+		count = Math.min(count + 1, frames.length);
+	}
+	
+	public synchronized FrameLatency snapshot() {
+		long[][] copy = new long[count][];
+		int oldest = (next - count + frames.length) % frames.length;
+		for (int i = 0; i < count; i++) {
+			copy[i] = frames[(oldest + i) % frames.length].clone();
+		}
+		return new FrameLatency(copy);
+	}
+}
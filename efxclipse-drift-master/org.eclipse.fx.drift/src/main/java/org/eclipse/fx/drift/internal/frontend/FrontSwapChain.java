@@ -16,6 +16,7 @@ import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 
+import org.eclipse.fx.drift.FrameLatency;
 import org.eclipse.fx.drift.TransferType;
 import org.eclipse.fx.drift.Vec2i;
 import org.eclipse.fx.drift.internal.common.ImageData;
@@ -25,6 +26,11 @@ import com.sun.prism.ResourceFactory;
 @SuppressWarnings("restriction")
 public interface FrontSwapChain {
 	
+	/**
+	 * is called by the quantum renderer once per pulse before {@link #getCurrentImage()}
+	 */
+	void pulse();
+	
 	Optional<FxImage<?>> getCurrentImage();
 	
 	
@@ -33,6 +39,27 @@ public interface FrontSwapChain {
 	
 	void present(ImageData image);
 	
+	/**
+	 * the backend presented a frame without changes, the current image stays
+	 */
+	void presentUnchanged();
+	
+	/**
+	 * is called by the quantum renderer after the current image was updated
+	 * @param renderStart the {@link System#nanoTime()} the render pass started
+	 */
+	void displayed(ImageData image, long renderStart);
+	
+	/**
+	 * is called by the quantum renderer with the physical pixels the current image covers on screen
+	 */
+	void setDisplaySize(int width, int height);
+	
+	/**
+	 * @return the stage timings of the last displayed frames
+	 */
+	FrameLatency getFrameLatency();
+	
 	CompletableFuture<Void> allocate();
 	CompletableFuture<Void> dispose();
 	
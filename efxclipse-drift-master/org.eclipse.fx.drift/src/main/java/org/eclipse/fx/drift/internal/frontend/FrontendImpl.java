@@ -11,26 +11,34 @@
  * ******************************************************************************/
 package org.eclipse.fx.drift.internal.frontend;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.eclipse.fx.drift.DriftFXSurface;
+import org.eclipse.fx.drift.FrameLatency.Stage;
 import org.eclipse.fx.drift.PresentationMode;
 import org.eclipse.fx.drift.Vec2i;
 import org.eclipse.fx.drift.internal.DriftFX;
 import org.eclipse.fx.drift.internal.DriftLogger;
+import org.eclipse.fx.drift.internal.FrameStats;
+import org.eclipse.fx.drift.internal.ResolutionGovernor;
 import org.eclipse.fx.drift.internal.common.ImageData;
+import org.eclipse.fx.drift.internal.common.MainMemoryImageData;
+import org.eclipse.fx.drift.internal.common.TransferFormat;
 import org.eclipse.fx.drift.internal.transport.Command;
 import org.eclipse.fx.drift.internal.transport.command.CreateSwapchainCommand;
+import org.eclipse.fx.drift.internal.transport.command.DisplaySizeCommand;
 import org.eclipse.fx.drift.internal.transport.command.DisposeSwapchainCommand;
 import org.eclipse.fx.drift.internal.transport.command.PresentCommand;
+import org.eclipse.fx.drift.internal.transport.command.PresentUnchangedCommand;
 import org.eclipse.fx.drift.internal.transport.command.ReleaseCommand;
 import org.eclipse.fx.drift.internal.transport.command.SwapchainCreatedCommand;
 import org.eclipse.fx.drift.internal.transport.command.SwapchainDisposedCommand;
@@ -38,47 +46,52 @@ import org.eclipse.fx.drift.internal.transport.command.SwapchainDisposedCommand;
 import com.sun.javafx.tk.RenderJob;
 import com.sun.javafx.tk.Toolkit;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
+import javafx.util.Duration;
 
 public class FrontendImpl implements Frontend {
 	private static final DriftLogger LOGGER = DriftFX.createLogger(FrontendImpl.class);
 	
 	private DriftFXSurface surface;
 	
-	private FrontSwapChain swapChain;
-	private Map<UUID, FrontSwapChain> swapChains = new HashMap<>();
+	// written by the control lane, read by the frame lane of the command bus
+	private volatile FrontSwapChain swapChain;
+	private Map<UUID, FrontSwapChain> swapChains = new ConcurrentHashMap<>();
 	
 	private Consumer<Command> commandChannel;
 	
+	// adapts the user scale factor to the frame times, null if disabled
+	private final ResolutionGovernor governor = ResolutionGovernor.create();
+	// the System#nanoTime() of the last presented frame, written by the frame lane
+	private volatile long lastPresent;
+	// restores the full scale once the renderer went idle, only accessed by the FX thread
+	private PauseTransition idleWatch;
+	// the user scale factor set by the application and the one the governor set last, only accessed by the FX thread
+	private double appScale;
+	private double appliedScale = Double.NaN;
+	
 	
 	public FrontendImpl(DriftFXSurface surface) {
 		this.surface = surface;
 	}
 	
+	// runs the jobs on the quantum renderer thread, the returned futures complete there
+	private static final Executor QUANTUM_RENDERER = command -> Toolkit.getToolkit().addRenderJob(new RenderJob(command));
+	
 	public <T> CompletableFuture<T> syncCallQuantumRenderer(Supplier<T> job) {
-		Toolkit toolkit = Toolkit.getToolkit();
-		return CompletableFuture.supplyAsync(job, command ->  {
-				Future future = toolkit.addRenderJob(new RenderJob(command));
-					try {
-						future.get();
-					} catch (InterruptedException | ExecutionException e) {
-						LOGGER.error(() -> "Exception during quantum renderer job execution", e);
-					}
-			});
+		CompletableFuture<T> result = asyncCallQuantumRenderer(job);
+		try {
+			result.join();
+		} catch (CompletionException e) {
+			LOGGER.error(() -> "Exception during quantum renderer job execution", e.getCause());
+		}
+		return result;
 	}
 	
 	public <T> CompletableFuture<T> asyncCallQuantumRenderer(Supplier<T> job) {
-		Toolkit toolkit = Toolkit.getToolkit();
-		return CompletableFuture.supplyAsync(job, (command) -> {
-			CompletableFuture.runAsync(() -> {
-					Future future = toolkit.addRenderJob(new RenderJob(command));
-					try {
-						future.get();
-					} catch (InterruptedException | ExecutionException e) {
-						LOGGER.error(() -> "Exception during quantum renderer job execution", e);
-					}
-				});
-			});
+		// nobody waits for the job unless the caller joins the result
+		return CompletableFuture.supplyAsync(job, QUANTUM_RENDERER);
 	}
 	
 	
@@ -95,10 +108,19 @@ public class FrontendImpl implements Frontend {
 		return new Vec2i(x, y);
 	}
 
-	public void doCreateSwapchain(UUID id, List<ImageData> images, PresentationMode presentationMode) {
+	public void doCreateSwapchain(UUID id, List<ImageData> images, PresentationMode presentationMode, List<TransferFormat> transferFormats) {
+		TransferFormat transferFormat = FxImageFactory.chooseTransferFormat(transferFormats);
+		if (transferFormat != null) {
+			LOGGER.debug(() -> "Transfer format " + transferFormat + " of " + transferFormats);
+			for (ImageData image : images) {
+				if (image instanceof MainMemoryImageData) {
+					((MainMemoryImageData) image).transferFormat = transferFormat;
+				}
+			}
+		}
 		swapChain = new SimpleFrontSwapChain(this, id, images, presentationMode, this::sendRelease);
 		swapChains.put(id, swapChain);
-		commandChannel.accept(new SwapchainCreatedCommand(id));
+		commandChannel.accept(new SwapchainCreatedCommand(id, transferFormat));
 		
 		surface.setSwapChain(swapChain);
 	}
@@ -106,18 +128,78 @@ public class FrontendImpl implements Frontend {
 	public void doDisposeSwapchain(UUID id) {
 		FrontSwapChain toDispose = swapChains.remove(id);
 		toDispose.dispose().join();
-		Platform.runLater(surface::dirty);
+		surface.dirty();
+	}
+
+	void requestRepaint() {
+		surface.dirty();
 	}
 
 	public void doPresent(ImageData image) {
+		long renderTime = image.getStamp(Stage.PRESENT) - image.getStamp(Stage.ACQUIRE);
 		swapChain.present(image);
 		surface.dirty();
+		if (governor != null) {
+			lastPresent = System.nanoTime();
+			if (image.getStamp(Stage.ACQUIRE) != 0 && renderTime > 0) {
+				double scale = governor.getScale();
+				if (governor.frame(renderTime) != scale) {
+					Platform.runLater(this::applyScale);
+				}
+			}
+		}
+	}
+	
+	// => quantum renderer
+	void displayed(ImageData image) {
+		if (governor != null) {
+			governor.frontendFrame(image.getStamp(Stage.UPLOAD) - image.getStamp(Stage.RENDER));
+		}
+	}
+	
+	// => FX thread
+	private void setScale(double scale) {
+		double current = surface.getUserScaleFactor();
+		if (current != appliedScale) {
+			// changed by the application since, its value is the upper bound
+			appScale = current;
+		}
+		appliedScale = appScale * scale;
+		surface.setUserScaleFactor(appliedScale);
+	}
+	
+	// => FX thread
+	private void applyScale() {
+		double scale = governor.getScale();
+		LOGGER.debug(() -> "Resolution governor: scale " + scale);
+		setScale(scale);
+		if (scale < governor.getMaxScale()) {
+			if (idleWatch == null) {
+				idleWatch = new PauseTransition(Duration.millis(TimeUnit.NANOSECONDS.toMillis(FrameStats.IDLE_NANOS)));
+				idleWatch.setOnFinished(e -> checkIdle());
+			}
+			idleWatch.playFromStart();
+		}
+	}
+	
+	// => FX thread
+	private void checkIdle() {
+		if (System.nanoTime() - lastPresent > FrameStats.IDLE_NANOS) {
+			setScale(governor.idle());
+		}
+		else if (governor.getScale() < governor.getMaxScale()) {
+			idleWatch.playFromStart();
+		}
 	}
 	
 	private void sendRelease(UUID id, ImageData image) {
 		commandChannel.accept(new ReleaseCommand(id, image));
 	}
 	
+	void sendDisplaySize(UUID id, Vec2i size) {
+		commandChannel.accept(new DisplaySizeCommand(id, size));
+	}
+	
 	void sendSwapchainDisposed(UUID id) {
 		commandChannel.accept(new SwapchainDisposedCommand(id));
 	}
@@ -134,7 +216,7 @@ public class FrontendImpl implements Frontend {
 		if (command instanceof CreateSwapchainCommand) {
 			LOGGER.debug(() -> "Frontend received " + command);
 			CreateSwapchainCommand cmd = (CreateSwapchainCommand) command;
-			doCreateSwapchain(cmd.getId(), cmd.getImages(), cmd.getPresentatioMode());
+			doCreateSwapchain(cmd.getId(), cmd.getImages(), cmd.getPresentatioMode(), cmd.getTransferFormats());
 		}
 		else if (command instanceof PresentCommand) {
 			PresentCommand cmd = (PresentCommand) command;
@@ -146,6 +228,12 @@ public class FrontendImpl implements Frontend {
 				sendRelease(cmd.getSwapChainId(), cmd.getImageData());
 			}
 		}
+		else if (command instanceof PresentUnchangedCommand) {
+			PresentUnchangedCommand cmd = (PresentUnchangedCommand) command;
+			if (cmd.getSwapChainId().equals(swapChain.getId())) {
+				swapChain.presentUnchanged();
+			}
+		}
 		else if (command instanceof DisposeSwapchainCommand) {
 			LOGGER.debug(() -> "Frontend received " + command);
 			DisposeSwapchainCommand cmd = (DisposeSwapchainCommand) command;
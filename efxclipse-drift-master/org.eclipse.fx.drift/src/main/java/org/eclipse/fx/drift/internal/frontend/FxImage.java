@@ -24,7 +24,7 @@ public interface FxImage<D extends ImageData> {
 	void allocate(ResourceFactory rf) throws Exception;
 	void release();
 	
-	/** is called by the quantum renderer before the texture is rendered */
+	/** is called by the quantum renderer before the texture is rendered, on every repaint - frames already transferred (see {@link ImageData#frame}) should be skipped */
 	void update();
 
 	Texture getTexture();
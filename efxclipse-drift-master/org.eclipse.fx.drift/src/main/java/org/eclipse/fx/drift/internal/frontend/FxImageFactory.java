@@ -11,10 +11,13 @@
  * ******************************************************************************/
 package org.eclipse.fx.drift.internal.frontend;
 
+import java.util.List;
+
 import org.eclipse.fx.drift.internal.common.IOSurfaceImageData;
 import org.eclipse.fx.drift.internal.common.ImageData;
 import org.eclipse.fx.drift.internal.common.MainMemoryImageData;
 import org.eclipse.fx.drift.internal.common.NVDXInteropImageData;
+import org.eclipse.fx.drift.internal.common.TransferFormat;
 import org.eclipse.fx.drift.internal.prism.Prism;
 
 public class FxImageFactory {
@@ -26,6 +29,8 @@ public class FxImageFactory {
 			return new ES2MainMemoryFxImage((MainMemoryImageData) data);
 			if (Prism.isD3D())
 			return new D3DMainMemoryFxImage((MainMemoryImageData) data);
+			if (Prism.isSW())
+			return new SWMainMemoryFxImage((MainMemoryImageData) data);
 		}
 		if (data.type == NVDXInteropImageData.TYPE) {
 			return new NVDXInteropFXImage((NVDXInteropImageData)data);
@@ -36,4 +41,18 @@ public class FxImageFactory {
 		
 		throw new RuntimeException();
 	}
+	
+	/**
+	 * @param offered the formats of the backend, the fastest first
+	 * @return the first offered format the pipeline can upload or <code>null</code>
+	 */
+	public static TransferFormat chooseTransferFormat(List<TransferFormat> offered) {
+		for (TransferFormat format : offered) {
+			// GL uploads any combination, D3D and the software pipeline copy native ARGB ints
+			if (Prism.isES2() || format.isNativeARGB()) {
+				return format;
+			}
+		}
+		return null;
+	}
 }
@@ -236,6 +236,9 @@ public class IOSurfaceFxImage extends AFxImage<IOSurfaceImageData> {
 	
 	@Override
 	public void update() {
+		if (!isNewFrame()) {
+			return;
+		}
 		// we need to use our QuantumHelper here because if we setup the blit operation on the quantum thread we destroy some gl state which leads to black surfaces in javafx
 		QuantumHelper.syncExecute(rf, () -> {
 		
@@ -250,6 +253,7 @@ public class IOSurfaceFxImage extends AFxImage<IOSurfaceImageData> {
 			glFinish(); // The quantum renderer needs to wait for this to be done
 			// TODO replace with a fence
 		});
+		frameUploaded();
 	}
 	
 	
@@ -0,0 +1,130 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.frontend;
+
+import java.nio.IntBuffer;
+import java.util.stream.IntStream;
+
+import org.eclipse.fx.drift.ImageFormat;
+import org.eclipse.fx.drift.Rect2i;
+import org.eclipse.fx.drift.internal.DriftFX;
+import org.eclipse.fx.drift.internal.DriftLogger;
+import org.eclipse.fx.drift.internal.common.ImageFormats;
+import org.eclipse.fx.drift.internal.common.MainMemoryImageData;
+import org.eclipse.fx.drift.internal.prism.PrismSW;
+
+import com.sun.prism.PixelFormat;
+import com.sun.prism.Texture;
+
+/**
+ * Copies the frames straight from main memory into the <code>int[]</code> backing the software pipeline texture. The
+ * backend reads back BGRA / <code>GL_UNSIGNED_INT_8_8_8_8_REV</code>, so every pixel is already a native order
+ * premultiplied ARGB int and no conversion is needed. Narrower formats are expanded on the way.
+ */
+@SuppressWarnings("restriction")
+public class SWMainMemoryFxImage extends AMainMemoryFxImage {
+	private static final DriftLogger LOGGER = DriftFX.createLogger(SWMainMemoryFxImage.class);
+	
+	/** frames with more pixels are copied by several threads */
+	private static final int PARALLEL_THRESHOLD = 1024 * 1024;
+	private static final int PARALLEL_CHUNKS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+	
+	private int[] fallbackPixels;
+	
+	public SWMainMemoryFxImage(MainMemoryImageData data) {
+		super(data);
+	}
+	
+	@Override
+	public void release() {
+		fallbackPixels = null;
+		super.release();
+	}
+	
+	@Override
+	protected void uploadTexture() {
+		synchronized (data) {
+			Texture texture = getTexture();
+			int[] pixels = PrismSW.getData(texture);
+			if (pixels == null) {
+				uploadFallback(texture, 0, 0, data.size.x, data.size.y);
+				return;
+			}
+			int width = data.size.x;
+			int height = data.size.y;
+			int offset = PrismSW.getOffset(texture);
+			int stride = PrismSW.getPhysicalWidth(texture);
+			if (width * height < PARALLEL_THRESHOLD) {
+				copyRegion(pixels, offset, stride, 0, 0, width, height);
+			}
+			else {
+				int rowsPerChunk = (height + PARALLEL_CHUNKS - 1) / PARALLEL_CHUNKS;
+				IntStream.range(0, PARALLEL_CHUNKS).parallel().forEach(chunk -> {
+					int from = chunk * rowsPerChunk;
+					int to = Math.min(height, from + rowsPerChunk);
+					if (from < to) {
+						copyRegion(pixels, offset, stride, 0, from, width, to - from);
+					}
+				});
+			}
+		}
+	}
+	
+	@Override
+	protected void uploadTexture(Rect2i[] region) {
+		synchronized (data) {
+			Texture texture = getTexture();
+			int[] pixels = PrismSW.getData(texture);
+			if (pixels == null) {
+				for (Rect2i r : region) {
+					uploadFallback(texture, r.x, r.y, r.width, r.height);
+				}
+				return;
+			}
+			int offset = PrismSW.getOffset(texture);
+			int stride = PrismSW.getPhysicalWidth(texture);
+			for (Rect2i r : region) {
+				copyRegion(pixels, offset, stride, r.x, r.y, r.width, r.height);
+			}
+		}
+	}
+	
+	private void copyRegion(int[] pixels, int offset, int stride, int x, int y, int width, int height) {
+		if (data.format == ImageFormat.RGBA8) {
+			// one bulk copy per row, or for all rows if they are contiguous
+			if (x == 0 && width == data.size.x && stride == width) {
+				ImageFormats.copy(data.memPointer + 4L * y * width, width * height, 0, 0, width * height, 1, pixels, offset + y * width, 0);
+			}
+			else {
+				ImageFormats.copy(data.memPointer, data.size.x, x, y, width, height, pixels, offset, stride);
+			}
+		}
+		else {
+			ImageFormats.expand(data.format, data.memPointer, data.size.x, x, y, width, height, pixels, offset, stride);
+		}
+	}
+	
+	/**
+	 * used until the texture allocated its array (or if the array is not accessible), the texture copies the pixels
+	 * itself and allocates on the way
+	 */
+	private void uploadFallback(Texture texture, int x, int y, int width, int height) {
+		LOGGER.trace(() -> "uploadFallback " + x + ", " + y + " " + width + "x" + height);
+		int size = data.size.x * data.size.y;
+		if (fallbackPixels == null || fallbackPixels.length < size) {
+			fallbackPixels = new int[size];
+		}
+		copyRegion(fallbackPixels, 0, data.size.x, x, y, width, height);
+		texture.update(IntBuffer.wrap(fallbackPixels), PixelFormat.INT_ARGB_PRE, x, y, x, y, width, height, data.size.x * 4, false);
+	}
+
+}
@@ -12,19 +12,23 @@
 package org.eclipse.fx.drift.internal.frontend;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 
+import org.eclipse.fx.drift.FrameLatency;
 import org.eclipse.fx.drift.PresentationMode;
 import org.eclipse.fx.drift.TransferType;
 import org.eclipse.fx.drift.Vec2i;
-import org.eclipse.fx.drift.internal.FPSCounter;
+import org.eclipse.fx.drift.internal.DriftFX;
+import org.eclipse.fx.drift.internal.DriftLogger;
+import org.eclipse.fx.drift.internal.FrameStats;
 import org.eclipse.fx.drift.internal.common.ImageData;
 
 import com.sun.prism.GraphicsPipeline;
@@ -32,21 +36,36 @@ import com.sun.prism.ResourceFactory;
 
 @SuppressWarnings("restriction")
 public class SimpleFrontSwapChain implements FrontSwapChain {
+	private static final DriftLogger LOGGER = DriftFX.createLogger(SimpleFrontSwapChain.class);
 
 	private FrontendImpl frontend;
 	
 	private UUID id;
 	private List<FxImage<?>> images = new ArrayList<>();
-	private Map<ImageData, FxImage<?>> imageMap = new HashMap<>();
+	// indexed by ImageData#number
+	private FxImage<?>[] imagesByNumber;
 	
+	// MAILBOX: the latest presented image, not yet picked up by the quantum renderer
 	private AtomicReference<ImageData> mailbox = new AtomicReference<>();
+	// MAILBOX: the image on screen, only written by the quantum renderer
+	private volatile ImageData displayed;
+	private AtomicBoolean swapScheduled = new AtomicBoolean();
+	
+	// QUEUE and FIFO_RELAXED
+	private BlockingQueue<ImageData> queue;
+	// only accessed by the quantum renderer
+	private ImageData current;
 	
 	private BiConsumer<UUID, ImageData> onRelease;
 	private Vec2i size;
 	private int imageCount;
 	private PresentationMode presentationMode;
 	
-	public FPSCounter fpsCounter = new FPSCounter(100);
+	public final FrameStats frameStats = new FrameStats(128);
+	private FrameLatencyRecorder latency = new FrameLatencyRecorder(128);
+	// the last reported display size, only accessed by the quantum renderer
+	private int displayWidth;
+	private int displayHeight;
 	
 	private boolean disposed = false;
 	
@@ -54,21 +73,73 @@ public class SimpleFrontSwapChain implements FrontSwapChain {
 	public SimpleFrontSwapChain(FrontendImpl frontend, UUID id, List<ImageData> images, PresentationMode presentationMode, BiConsumer<UUID, ImageData> onRelease) {
 		this.frontend = frontend;
 		this.id = id;
+		this.imagesByNumber = new FxImage<?>[images.size()];
 		for (ImageData image : images) {
 			FxImage<?> fxImage = FxImageFactory.createFxImage(image);
 			this.images.add(fxImage);
-			imageMap.put(image, fxImage);
+			imagesByNumber[image.number] = fxImage;
 		}
 		
 		this.presentationMode = presentationMode;
 		this.onRelease = onRelease;
+		if (isQueued()) {
+			this.queue = new ArrayBlockingQueue<>(images.size());
+		}
 		
 		allocate().join();
 	}
 	
+	private boolean isQueued() {
+		return presentationMode == PresentationMode.QUEUE || presentationMode == PresentationMode.FIFO_RELAXED;
+	}
+	
+	@Override
+	public void pulse() {
+		if (!isQueued()) {
+			swapMailbox();
+			return;
+		}
+		// the queue is full when all images but the one on screen are waiting
+		boolean behind = queue.size() > 1 && queue.size() >= images.size() - 1;
+		ImageData next = queue.poll();
+		if (next == null) {
+			return;
+		}
+		if (behind && presentationMode == PresentationMode.FIFO_RELAXED) {
+			ImageData newer;
+			while ((newer = queue.poll()) != null) {
+				release(next);
+				next = newer;
+			}
+		}
+		if (current != null) {
+			release(current);
+		}
+		current = next;
+		
+		if (!queue.isEmpty()) {
+			// one frame per pulse, request the next one
+			frontend.requestRepaint();
+		}
+	}
+	
+	// => quantum renderer
+	private void swapMailbox() {
+		ImageData next = mailbox.getAndSet(null);
+		if (next == null) {
+			return;
+		}
+		ImageData old = displayed;
+		displayed = next;
+		if (old != null) {
+			release(old);
+		}
+	}
+	
 	@Override
 	public Optional<FxImage<?>> getCurrentImage() {
-		return Optional.ofNullable(mailbox.get()).map(imageMap::get);
+		ImageData image = isQueued() ? current : displayed;
+		return Optional.ofNullable(image).map(i -> imagesByNumber[i.number]);
 	}
 	
 	@Override
@@ -99,6 +170,20 @@ public class SimpleFrontSwapChain implements FrontSwapChain {
 			if (old != null) {
 				release(old);
 			}
+			if (displayed != null) {
+				release(displayed);
+				displayed = null;
+			}
+			if (queue != null) {
+				ImageData queued;
+				while ((queued = queue.poll()) != null) {
+					release(queued);
+				}
+			}
+			if (current != null) {
+				release(current);
+				current = null;
+			}
 			
 			for (FxImage<?> fxImage : images) {
 				fxImage.release();
@@ -127,15 +212,68 @@ public class SimpleFrontSwapChain implements FrontSwapChain {
 	
 	// => called by backend
 	public void present(ImageData image) {
-		frontend.asyncCallQuantumRenderer(() -> {
-			ImageData old = mailbox.getAndSet(image);
-			if (old != null) {
-				release(old);
+		image.stamp(FrameLatency.Stage.DELIVERY);
+		if (isQueued()) {
+			// the backend cannot present more images than it owns, so the queue never overflows
+			if (!queue.offer(image)) {
+				LOGGER.error(() -> "Present queue overflow, releasing " + image);
+				release(image);
 			}
-			return null;
-		}).join();
+			frameStats.frame();
+			return;
+		}
 		
-		fpsCounter.tick();
+		ImageData stale = mailbox.getAndSet(image);
+		if (stale != null) {
+			// never picked up by the quantum renderer
+			release(stale);
+		}
+		if (displayed != null && images.size() <= 2 && swapScheduled.compareAndSet(false, true)) {
+			// the renderer has no free image left until the next pulse, which does not come while the surface is not
+			// rendered. So we swap with a render job instead.
+			frontend.asyncCallQuantumRenderer(() -> {
+				swapScheduled.set(false);
+				swapMailbox();
+				return null;
+			});
+		}
+		
+		frameStats.frame();
+	}
+
+	// => called by backend
+	@Override
+	public void presentUnchanged() {
+		frameStats.frame();
+	}
+
+	// => quantum renderer
+	@Override
+	public void displayed(ImageData image, long renderStart) {
+		if (image.getStamp(FrameLatency.Stage.RENDER) != 0) {
+			// already on screen
+			return;
+		}
+		image.stamps[FrameLatency.Stage.RENDER.ordinal()] = renderStart;
+		image.stamp(FrameLatency.Stage.UPLOAD);
+		latency.record(image.stamps);
+		frontend.displayed(image);
+	}
+	
+	// => quantum renderer, calls backend
+	@Override
+	public void setDisplaySize(int width, int height) {
+		if (width == displayWidth && height == displayHeight) {
+			return;
+		}
+		displayWidth = width;
+		displayHeight = height;
+		frontend.sendDisplaySize(id, new Vec2i(width, height));
+	}
+	
+	@Override
+	public FrameLatency getFrameLatency() {
+		return latency.snapshot();
 	}
 
 	// => calls backend
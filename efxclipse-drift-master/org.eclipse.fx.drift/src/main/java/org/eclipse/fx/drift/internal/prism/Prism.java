@@ -94,7 +94,8 @@ public class Prism {
 			
 			//NativeAPI.initializeES2Pipeline(contextHandleES2);
 		} else if (isSW) {
-			throw new UnsupportedOperationException("SW Support not yet implemented!");
+			PrismSW.initialize();
+			LOGGER.info(() -> " * Software pipeline, surfaces are transferred through main memory only");
 		} else {
 			throw new UnsupportedOperationException("Unknown JavaFX pipeline!");
 		}
@@ -113,6 +114,13 @@ public class Prism {
 		return isES2;
 	}
 	
+	/**
+	 * @return <code>true</code> if the pipeline textures expect BGRA ordered pixels
+	 */
+	public static boolean isBGRA() {
+		return isD3D || isSW;
+	}
+	
 	public static long getES2ContextHandle() {
 		return contextHandleES2;
 	}
@@ -133,6 +141,10 @@ public class Prism {
 		if (isES2()) {
 			return PrismES2.getTextureName(texture);
 		}
+		if (isSW()) {
+			// software textures have no native handle
+			return 0;
+		}
 		throw new UnsupportedOperationException("Not implemented");
 	}
 	
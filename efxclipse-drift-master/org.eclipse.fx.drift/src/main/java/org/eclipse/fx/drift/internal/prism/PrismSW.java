@@ -0,0 +1,82 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.prism;
+
+import java.lang.reflect.Field;
+
+import com.sun.prism.Texture;
+
+/**
+ * Access to the pixel storage of the software pipeline textures, a <code>SWArgbPreTexture</code> keeps its pixels in a
+ * plain <code>int[]</code> (premultiplied ARGB) which is read directly by the software renderer.
+ */
+@SuppressWarnings("restriction")
+public class PrismSW {
+
+	private static Class<?> cSWTexture;
+	private static Field fSWTexture_physicalWidth;
+	
+	private static Class<?> cSWArgbPreTexture;
+	private static Field fSWArgbPreTexture_data;
+	private static Field fSWArgbPreTexture_offset;
+	
+	static void initialize() throws ClassNotFoundException, NoSuchFieldException, SecurityException {
+		cSWTexture = Class.forName("com.sun.prism.sw.SWTexture");
+		fSWTexture_physicalWidth = cSWTexture.getDeclaredField("physicalWidth");
+		fSWTexture_physicalWidth.setAccessible(true);
+		
+		cSWArgbPreTexture = Class.forName("com.sun.prism.sw.SWArgbPreTexture");
+		fSWArgbPreTexture_data = cSWArgbPreTexture.getDeclaredField("data");
+		fSWArgbPreTexture_data.setAccessible(true);
+		fSWArgbPreTexture_offset = cSWArgbPreTexture.getDeclaredField("offset");
+		fSWArgbPreTexture_offset.setAccessible(true);
+	}
+	
+	/**
+	 * @return the pixel array of the texture or <code>null</code> if the texture is not backed by an array (yet)
+	 */
+	public static int[] getData(Texture texture) {
+		if (cSWArgbPreTexture == null || !cSWArgbPreTexture.isInstance(texture)) {
+			return null;
+		}
+		try {
+			return (int[]) fSWArgbPreTexture_data.get(texture);
+		}
+		catch (Exception e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * @return the index of the first pixel in {@link #getData(Texture)}
+	 */
+	public static int getOffset(Texture texture) {
+		try {
+			return fSWArgbPreTexture_offset.getInt(texture);
+		}
+		catch (Exception e) {
+			return 0;
+		}
+	}
+	
+	/**
+	 * @return the scanline stride of {@link #getData(Texture)} in pixels
+	 */
+	public static int getPhysicalWidth(Texture texture) {
+		try {
+			return fSWTexture_physicalWidth.getInt(texture);
+		}
+		catch (Exception e) {
+			return texture.getPhysicalWidth();
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.transport;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import org.eclipse.fx.drift.internal.DriftFX;
+import org.eclipse.fx.drift.internal.DriftLogger;
+
+/**
+ * Delivers the commands of one direction asynchronously to the receiver.
+ * <p>
+ * Frame commands ({@link FrameCommand}) and control commands travel on separate lanes. Each lane is drained by at most
+ * one task at a time, which delivers all pending commands in one go. A control command is only delivered once all
+ * frame commands sent before it were delivered, so for example a dispose never overtakes the releases before it.
+ * </p>
+ */
+public class CommandBus {
+	private static final DriftLogger LOGGER = DriftFX.createLogger(CommandBus.class);
+	
+	private static final int CAPACITY = 256;
+	private static final long WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+	
+	private static final ExecutorService SHARED_EXECUTOR = Executors.newCachedThreadPool(r -> {
+		Thread thread = new Thread(r, "DriftFX Command Bus");
+		thread.setDaemon(true);
+		return thread;
+	});
+	
+	private static class Envelope {
+		final Command command;
+		// the number of frame commands to deliver before this one
+		final long barrier;
+		
+		Envelope(Command command, long barrier) {
+			this.command = command;
+			this.barrier = barrier;
+		}
+	}
+	
+	private static class Lane {
+		final CommandRing<Envelope> ring = new CommandRing<>(CAPACITY);
+		final AtomicBoolean scheduled = new AtomicBoolean();
+		final AtomicLong sent = new AtomicLong();
+		final AtomicLong delivered = new AtomicLong();
+	}
+	
+	private final Consumer<Command> receiver;
+	private final Executor executor;
+	
+	private final Lane frames = new Lane();
+	private final Lane control = new Lane();
+	
+	public CommandBus(Consumer<Command> receiver) {
+		this(receiver, SHARED_EXECUTOR);
+	}
+	
+	public CommandBus(Consumer<Command> receiver, Executor executor) {
+		this.receiver = receiver;
+		this.executor = executor;
+	}
+	
+	public void send(Command command) {
+		if (command instanceof FrameCommand) {
+			frames.sent.incrementAndGet();
+			enqueue(frames, new Envelope(command, 0));
+		}
+		else {
+			enqueue(control, new Envelope(command, frames.sent.get()));
+		}
+	}
+	
+	private void enqueue(Lane lane, Envelope envelope) {
+		while (!lane.ring.offer(envelope)) {
+			// the receiver is behind, push back on the sender
+			LockSupport.parkNanos(this, WAIT_NANOS);
+		}
+		schedule(lane);
+	}
+	
+	private void schedule(Lane lane) {
+		if (lane.scheduled.compareAndSet(false, true)) {
+			executor.execute(() -> drain(lane));
+		}
+	}
+	
+	private void drain(Lane lane) {
+		do {
+			Envelope envelope;
+			while ((envelope = lane.ring.poll()) != null) {
+				while (frames.delivered.get() < envelope.barrier) {
+					LockSupport.parkNanos(this, WAIT_NANOS);
+				}
+				deliver(envelope.command);
+				lane.delivered.incrementAndGet();
+			}
+			lane.scheduled.set(false);
+		} while (!lane.ring.isEmpty() && lane.scheduled.compareAndSet(false, true));
+	}
+	
+	private void deliver(Command command) {
+		try {
+			receiver.accept(command);
+		} catch (RuntimeException e) {
+			LOGGER.error(() -> "Failed to deliver " + command, e);
+		}
+	}
+}
@@ -0,0 +1,305 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.fx.drift.FrameLatency.Stage;
+import org.eclipse.fx.drift.ImageFormat;
+import org.eclipse.fx.drift.PresentationMode;
+import org.eclipse.fx.drift.Rect2i;
+import org.eclipse.fx.drift.Vec2i;
+import org.eclipse.fx.drift.internal.common.ImageData;
+import org.eclipse.fx.drift.internal.common.MainMemoryImageData;
+import org.eclipse.fx.drift.internal.common.TransferFormat;
+import org.eclipse.fx.drift.internal.transport.command.CreateSwapchainCommand;
+import org.eclipse.fx.drift.internal.transport.command.DisplaySizeCommand;
+import org.eclipse.fx.drift.internal.transport.command.DisposeSwapchainCommand;
+import org.eclipse.fx.drift.internal.transport.command.PresentCommand;
+import org.eclipse.fx.drift.internal.transport.command.PresentUnchangedCommand;
+import org.eclipse.fx.drift.internal.transport.command.ReleaseCommand;
+import org.eclipse.fx.drift.internal.transport.command.SurfaceChangedCommand;
+import org.eclipse.fx.drift.internal.transport.command.SwapchainCreatedCommand;
+import org.eclipse.fx.drift.internal.transport.command.SwapchainDisposedCommand;
+
+/**
+ * Binary encoding of the commands for transports between processes.
+ * <p>
+ * Images are referenced by swapchain and number. The codec remembers the images of every swapchain whose
+ * {@link CreateSwapchainCommand} it encoded or decoded, so decoded commands carry the {@link ImageData} instances of
+ * the receiving side. Only MainMemory images can cross a process boundary, their pixels are shared by the transport.
+ * </p>
+ */
+public class CommandCodec {
+	
+	private static final byte CREATE_SWAPCHAIN = 1;
+	private static final byte SWAPCHAIN_CREATED = 2;
+	private static final byte DISPOSE_SWAPCHAIN = 3;
+	private static final byte SWAPCHAIN_DISPOSED = 4;
+	private static final byte PRESENT = 5;
+	private static final byte PRESENT_UNCHANGED = 6;
+	private static final byte RELEASE = 7;
+	private static final byte SURFACE_CHANGED = 8;
+	private static final byte DISPLAY_SIZE = 9;
+	
+	/**
+	 * Is informed about the images of a decoded swapchain before the command is delivered, and when a swapchain was
+	 * disposed on either side.
+	 */
+	public interface ImageListener {
+		void created(UUID swapChainId, List<ImageData> images);
+		void disposed(UUID swapChainId);
+	}
+	
+	private final Map<UUID, ImageData[]> images = new ConcurrentHashMap<>();
+	private final ImageListener listener;
+	
+	public CommandCodec(ImageListener listener) {
+		this.listener = listener;
+	}
+	
+	public byte[] encode(Command command) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+		try {
+			write(command, new DataOutputStream(bytes));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+	
+	public Command decode(byte[] data, int offset, int length) {
+		try {
+			return read(new DataInputStream(new ByteArrayInputStream(data, offset, length)));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	public void write(Command command, DataOutput out) throws IOException {
+		if (command instanceof PresentCommand) {
+			PresentCommand cmd = (PresentCommand) command;
+			ImageData data = cmd.getImageData();
+			out.writeByte(PRESENT);
+			writeUUID(out, cmd.getSwapChainId());
+			out.writeInt(data.number);
+			out.writeLong(data.frame);
+			out.writeLong(data.previousFrame);
+			writeRects(out, data.damage);
+			Vec2i contentSize = data.contentSize;
+			out.writeInt(contentSize == null ? -1 : contentSize.x);
+			out.writeInt(contentSize == null ? -1 : contentSize.y);
+			// the later stages are stamped by the frontend
+			out.writeLong(data.getStamp(Stage.ACQUIRE));
+			out.writeLong(data.getStamp(Stage.PRESENT));
+			out.writeLong(data.getStamp(Stage.READBACK));
+		}
+		else if (command instanceof ReleaseCommand) {
+			ReleaseCommand cmd = (ReleaseCommand) command;
+			out.writeByte(RELEASE);
+			writeUUID(out, cmd.getSwapChainId());
+			out.writeInt(cmd.getImageData().number);
+		}
+		else if (command instanceof PresentUnchangedCommand) {
+			out.writeByte(PRESENT_UNCHANGED);
+			writeUUID(out, ((PresentUnchangedCommand) command).getSwapChainId());
+		}
+		else if (command instanceof CreateSwapchainCommand) {
+			CreateSwapchainCommand cmd = (CreateSwapchainCommand) command;
+			out.writeByte(CREATE_SWAPCHAIN);
+			writeUUID(out, cmd.getId());
+			PresentationMode mode = cmd.getPresentatioMode();
+			out.writeByte(mode == null ? -1 : mode.ordinal());
+			out.writeInt(cmd.getImages().size());
+			for (ImageData data : cmd.getImages()) {
+				if (!(data instanceof MainMemoryImageData)) {
+					throw new IllegalArgumentException("Only MainMemory images can be transported, not " + data.type);
+				}
+				out.writeInt(data.number);
+				out.writeInt(data.size.x);
+				out.writeInt(data.size.y);
+				out.writeInt(((MainMemoryImageData) data).memSize);
+				out.writeByte(((MainMemoryImageData) data).format.ordinal());
+			}
+			out.writeByte(cmd.getTransferFormats().size());
+			for (TransferFormat format : cmd.getTransferFormats()) {
+				out.writeByte(format.ordinal());
+			}
+			register(cmd.getId(), cmd.getImages());
+		}
+		else if (command instanceof SwapchainCreatedCommand) {
+			SwapchainCreatedCommand cmd = (SwapchainCreatedCommand) command;
+			out.writeByte(SWAPCHAIN_CREATED);
+			writeUUID(out, cmd.getId());
+			out.writeByte(cmd.getTransferFormat() == null ? -1 : cmd.getTransferFormat().ordinal());
+		}
+		else if (command instanceof DisposeSwapchainCommand) {
+			out.writeByte(DISPOSE_SWAPCHAIN);
+			writeUUID(out, ((DisposeSwapchainCommand) command).getId());
+		}
+		else if (command instanceof SwapchainDisposedCommand) {
+			UUID id = ((SwapchainDisposedCommand) command).getId();
+			out.writeByte(SWAPCHAIN_DISPOSED);
+			writeUUID(out, id);
+			images.remove(id);
+			listener.disposed(id);
+		}
+		else if (command instanceof SurfaceChangedCommand) {
+			SurfaceChangedCommand cmd = (SurfaceChangedCommand) command;
+			out.writeByte(SURFACE_CHANGED);
+			out.writeDouble(cmd.getWidth());
+			out.writeDouble(cmd.getHeight());
+			out.writeDouble(cmd.getScreenScale());
+			out.writeDouble(cmd.getUserScale());
+		}
+		else if (command instanceof DisplaySizeCommand) {
+			DisplaySizeCommand cmd = (DisplaySizeCommand) command;
+			out.writeByte(DISPLAY_SIZE);
+			writeUUID(out, cmd.getSwapChainId());
+			out.writeInt(cmd.getSize().x);
+			out.writeInt(cmd.getSize().y);
+		}
+		else {
+			throw new IllegalArgumentException("Unsupported command " + command);
+		}
+	}
+	
+	public Command read(DataInput in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+		case PRESENT: {
+			UUID id = readUUID(in);
+			ImageData data = resolve(id, in.readInt());
+			data.frame = in.readLong();
+			data.previousFrame = in.readLong();
+			data.damage = readRects(in);
+			int contentWidth = in.readInt();
+			int contentHeight = in.readInt();
+			data.contentSize = contentWidth < 0 ? null : new Vec2i(contentWidth, contentHeight);
+			Arrays.fill(data.stamps, 0);
+			data.stamps[Stage.ACQUIRE.ordinal()] = in.readLong();
+			data.stamps[Stage.PRESENT.ordinal()] = in.readLong();
+			data.stamps[Stage.READBACK.ordinal()] = in.readLong();
+			return new PresentCommand(id, data);
+		}
+		case RELEASE: {
+			UUID id = readUUID(in);
+			return new ReleaseCommand(id, resolve(id, in.readInt()));
+		}
+		case PRESENT_UNCHANGED:
+			return new PresentUnchangedCommand(readUUID(in));
+		case CREATE_SWAPCHAIN: {
+			UUID id = readUUID(in);
+			byte mode = in.readByte();
+			int count = in.readInt();
+			List<ImageData> created = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				int number = in.readInt();
+				Vec2i size = new Vec2i(in.readInt(), in.readInt());
+				int memSize = in.readInt();
+				created.add(new MainMemoryImageData(number, size, 0, memSize, ImageFormat.values()[in.readByte()]));
+			}
+			int formatCount = in.readByte();
+			List<TransferFormat> formats = new ArrayList<>(formatCount);
+			for (int i = 0; i < formatCount; i++) {
+				formats.add(TransferFormat.values()[in.readByte()]);
+			}
+			register(id, created);
+			listener.created(id, created);
+			return new CreateSwapchainCommand(id, created, mode == -1 ? null : PresentationMode.values()[mode], formats);
+		}
+		case SWAPCHAIN_CREATED: {
+			UUID id = readUUID(in);
+			byte format = in.readByte();
+			return new SwapchainCreatedCommand(id, format == -1 ? null : TransferFormat.values()[format]);
+		}
+		case DISPOSE_SWAPCHAIN:
+			return new DisposeSwapchainCommand(readUUID(in));
+		case SWAPCHAIN_DISPOSED: {
+			UUID id = readUUID(in);
+			images.remove(id);
+			listener.disposed(id);
+			return new SwapchainDisposedCommand(id);
+		}
+		case SURFACE_CHANGED:
+			return new SurfaceChangedCommand(in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble());
+		case DISPLAY_SIZE:
+			return new DisplaySizeCommand(readUUID(in), new Vec2i(in.readInt(), in.readInt()));
+		default:
+			throw new IOException("Unknown command type " + type);
+		}
+	}
+	
+	private void register(UUID id, List<ImageData> list) {
+		ImageData[] byNumber = new ImageData[list.size()];
+		for (ImageData data : list) {
+			byNumber[data.number] = data;
+		}
+		images.put(id, byNumber);
+	}
+	
+	private ImageData resolve(UUID id, int number) throws IOException {
+		ImageData[] byNumber = images.get(id);
+		if (byNumber == null || number < 0 || number >= byNumber.length) {
+			throw new IOException("Unknown image " + id + "/" + number);
+		}
+		return byNumber[number];
+	}
+	
+	private static void writeUUID(DataOutput out, UUID id) throws IOException {
+		out.writeLong(id.getMostSignificantBits());
+		out.writeLong(id.getLeastSignificantBits());
+	}
+	
+	private static UUID readUUID(DataInput in) throws IOException {
+		return new UUID(in.readLong(), in.readLong());
+	}
+	
+	private static void writeRects(DataOutput out, Rect2i[] rects) throws IOException {
+		if (rects == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(rects.length);
+		for (Rect2i r : rects) {
+			out.writeInt(r.x);
+			out.writeInt(r.y);
+			out.writeInt(r.width);
+			out.writeInt(r.height);
+		}
+	}
+	
+	private static Rect2i[] readRects(DataInput in) throws IOException {
+		int count = in.readInt();
+		if (count < 0) {
+			return null;
+		}
+		Rect2i[] rects = new Rect2i[count];
+		for (int i = 0; i < count; i++) {
+			rects[i] = new Rect2i(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+		}
+		return rects;
+	}
+}
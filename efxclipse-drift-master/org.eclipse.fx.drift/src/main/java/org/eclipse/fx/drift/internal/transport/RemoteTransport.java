@@ -0,0 +1,38 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.transport;
+
+import java.util.UUID;
+
+import org.eclipse.fx.drift.internal.backend.ImageMemory;
+
+/**
+ * Transport between a frontend and a backend in different processes.
+ */
+public interface RemoteTransport extends Transport {
+	
+	public enum Role {
+		FRONTEND, BACKEND
+	}
+	
+	void send(Command command);
+	
+	/**
+	 * frontend: the pixel order of the JavaFX pipeline, must be set before {@link #start()}
+	 */
+	void setBGRA(boolean bgra);
+	
+	/**
+	 * backend: the memory of the MainMemory images of a swapchain
+	 */
+	ImageMemory createImageMemory(UUID swapChainId);
+}
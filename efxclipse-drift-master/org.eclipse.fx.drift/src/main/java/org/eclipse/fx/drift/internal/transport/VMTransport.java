@@ -14,7 +14,7 @@ package org.eclipse.fx.drift.internal.transport;
 import org.eclipse.fx.drift.internal.backend.Backend;
 import org.eclipse.fx.drift.internal.frontend.Frontend;
 
-public class VMTransport {
+public class VMTransport implements Transport {
 
 	private Frontend frontend;
 	private Backend backend;
@@ -24,13 +24,22 @@ public class VMTransport {
 		this.backend = backend;
 	}
 	
+	@Override
 	public void start() {
 //		frontend.setOnRelease(backend::release);
 //		backend.setOnPresent(frontend::present);
 //		backend.setOnCreateSwapchain(frontend::createSwapchain);
 		
 		
-		frontend.setCommandChannel(backend::receiveCommand);
-		backend.setCommandChannel(frontend::receiveCommand);
+		// each side receives its commands on the bus threads, never on the sender's thread
+		CommandBus toBackend = new CommandBus(backend::receiveCommand);
+		CommandBus toFrontend = new CommandBus(frontend::receiveCommand);
+		frontend.setCommandChannel(toBackend::send);
+		backend.setCommandChannel(toFrontend::send);
+	}
+	
+	@Override
+	public void stop() {
+		// nothing to release, the buses run on shared threads
 	}
 }
@@ -11,29 +11,42 @@
  * ******************************************************************************/
 package org.eclipse.fx.drift.internal.transport.command;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 import org.eclipse.fx.drift.PresentationMode;
 import org.eclipse.fx.drift.internal.common.ImageData;
-import org.eclipse.fx.drift.internal.transport.Command;
+import org.eclipse.fx.drift.internal.common.TransferFormat;
+import org.eclipse.fx.drift.internal.transport.SwapchainCommand;
 
-public class CreateSwapchainCommand implements Command {
+public class CreateSwapchainCommand implements SwapchainCommand {
 	public final static String NAME = "CreateSwapchain";
 	private UUID id;
 	private List<ImageData> images;
 	private PresentationMode presentationMode;
+	private List<TransferFormat> transferFormats;
 	
 	public CreateSwapchainCommand(UUID id, List<ImageData> images, PresentationMode presentationMode) {
+		this(id, images, presentationMode, Collections.emptyList());
+	}
+	
+	public CreateSwapchainCommand(UUID id, List<ImageData> images, PresentationMode presentationMode, List<TransferFormat> transferFormats) {
 		this.id = id;
 		this.images = images;
 		this.presentationMode = presentationMode;
+		this.transferFormats = transferFormats;
 	}
 	
 	public UUID getId() {
 		return id;
 	}
 	
+	@Override
+	public UUID getSwapChainId() {
+		return id;
+	}
+	
 	public List<ImageData> getImages() {
 		return images;
 	}
@@ -42,6 +55,13 @@ public class CreateSwapchainCommand implements Command {
 		return presentationMode;
 	}
 	
+	/**
+	 * @return the formats the backend can read back, the fastest first. Empty if the images have a fixed format
+	 */
+	public List<TransferFormat> getTransferFormats() {
+		return transferFormats;
+	}
+	
 	@Override
 	public String getName() {
 		return NAME;
@@ -49,6 +69,6 @@ public class CreateSwapchainCommand implements Command {
 	
 	@Override
 	public String toString() {
-		return NAME + " " + id + " " + images + ", " + presentationMode;
+		return NAME + " " + id + " " + images + ", " + presentationMode + ", " + transferFormats;
 	}
 }
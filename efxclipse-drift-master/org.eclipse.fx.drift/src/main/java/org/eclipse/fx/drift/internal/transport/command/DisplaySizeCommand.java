@@ -0,0 +1,51 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.transport.command;
+
+import java.util.UUID;
+
+import org.eclipse.fx.drift.Vec2i;
+import org.eclipse.fx.drift.internal.transport.SwapchainCommand;
+
+/**
+ * Tells the backend how many physical pixels the frames of a swapchain currently cover on screen.
+ */
+public class DisplaySizeCommand implements SwapchainCommand {
+	public static final String NAME = "DisplaySize";
+	
+	private UUID swapChain;
+	private Vec2i size;
+	
+	public DisplaySizeCommand(UUID swapChain, Vec2i size) {
+		this.swapChain = swapChain;
+		this.size = size;
+	}
+	
+	@Override
+	public UUID getSwapChainId() {
+		return swapChain;
+	}
+	
+	public Vec2i getSize() {
+		return size;
+	}
+	
+	@Override
+	public String getName() {
+		return NAME;
+	}
+	
+	@Override
+	public String toString() {
+		return NAME + " " + swapChain + " " + size;
+	}
+}
@@ -0,0 +1,41 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.transport.command;
+
+import java.util.UUID;
+
+import org.eclipse.fx.drift.internal.transport.FrameCommand;
+
+public class PresentUnchangedCommand implements FrameCommand {
+	public static final String NAME = "PresentUnchanged";
+	
+	private UUID swapChain;
+	
+	public PresentUnchangedCommand(UUID swapChain) {
+		this.swapChain = swapChain;
+	}
+	
+	@Override
+	public UUID getSwapChainId() {
+		return swapChain;
+	}
+	
+	@Override
+	public String getName() {
+		return NAME;
+	}
+	
+	@Override
+	public String toString() {
+		return NAME + " " + swapChain;
+	}
+}
@@ -14,9 +14,9 @@ package org.eclipse.fx.drift.internal.transport.command;
 import java.util.UUID;
 
 import org.eclipse.fx.drift.internal.common.ImageData;
-import org.eclipse.fx.drift.internal.transport.Command;
+import org.eclipse.fx.drift.internal.transport.FrameCommand;
 
-public class ReleaseCommand implements Command {
+public class ReleaseCommand implements FrameCommand {
 	public static final String NAME = "Release";
 	
 	private UUID swapChain;
@@ -27,6 +27,7 @@ public class ReleaseCommand implements Command {
 		this.imageData = imageData;
 	}
 	
+	@Override
 	public UUID getSwapChainId() {
 		return swapChain;
 	}
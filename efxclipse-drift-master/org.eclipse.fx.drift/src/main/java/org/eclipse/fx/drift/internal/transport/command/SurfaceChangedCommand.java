@@ -0,0 +1,59 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.transport.command;
+
+import org.eclipse.fx.drift.internal.transport.Command;
+
+/**
+ * Tells a renderer in another process the geometry of its surface.
+ */
+public class SurfaceChangedCommand implements Command {
+	public static final String NAME = "SurfaceChanged";
+	
+	private double width;
+	private double height;
+	private double screenScale;
+	private double userScale;
+	
+	public SurfaceChangedCommand(double width, double height, double screenScale, double userScale) {
+		this.width = width;
+		this.height = height;
+		this.screenScale = screenScale;
+		this.userScale = userScale;
+	}
+	
+	public double getWidth() {
+		return width;
+	}
+	
+	public double getHeight() {
+		return height;
+	}
+	
+	public double getScreenScale() {
+		return screenScale;
+	}
+	
+	public double getUserScale() {
+		return userScale;
+	}
+	
+	@Override
+	public String getName() {
+		return NAME;
+	}
+	
+	@Override
+	public String toString() {
+		return NAME + " " + width + "x" + height + ", screenScale " + screenScale + ", userScale " + userScale;
+	}
+}
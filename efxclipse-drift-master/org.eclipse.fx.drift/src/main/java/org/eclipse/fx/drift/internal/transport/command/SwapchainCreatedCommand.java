@@ -13,20 +13,39 @@ package org.eclipse.fx.drift.internal.transport.command;
 
 import java.util.UUID;
 
-import org.eclipse.fx.drift.internal.transport.Command;
+import org.eclipse.fx.drift.internal.common.TransferFormat;
+import org.eclipse.fx.drift.internal.transport.SwapchainCommand;
 
-public class SwapchainCreatedCommand implements Command {
+public class SwapchainCreatedCommand implements SwapchainCommand {
 	public final static String NAME = "SwapchainCreated";
 	private UUID id;
+	private TransferFormat transferFormat;
 	
 	public SwapchainCreatedCommand(UUID id) {
+		this(id, null);
+	}
+	
+	public SwapchainCreatedCommand(UUID id, TransferFormat transferFormat) {
 		this.id = id;
+		this.transferFormat = transferFormat;
 	}
 	
 	public UUID getId() {
 		return id;
 	}
 	
+	/**
+	 * @return the format chosen by the frontend, <code>null</code> if nothing was offered
+	 */
+	public TransferFormat getTransferFormat() {
+		return transferFormat;
+	}
+	
+	@Override
+	public UUID getSwapChainId() {
+		return id;
+	}
+	
 	@Override
 	public String getName() {
 		return NAME;
@@ -34,6 +53,6 @@ public class SwapchainCreatedCommand implements Command {
 	
 	@Override
 	public String toString() {
-		return NAME + " " + id;
+		return NAME + " " + id + " " + transferFormat;
 	}
 }
@@ -13,9 +13,9 @@ package org.eclipse.fx.drift.internal.transport.command;
 
 import java.util.UUID;
 
-import org.eclipse.fx.drift.internal.transport.Command;
+import org.eclipse.fx.drift.internal.transport.SwapchainCommand;
 
-public class SwapchainDisposedCommand implements Command {
+public class SwapchainDisposedCommand implements SwapchainCommand {
 	public final static String NAME = "SwapchainDisposed";
 	private UUID id;
 	
@@ -27,6 +27,11 @@ public class SwapchainDisposedCommand implements Command {
 		return id;
 	}
 	
+	@Override
+	public UUID getSwapChainId() {
+		return id;
+	}
+	
 	@Override
 	public String getName() {
 		return NAME;
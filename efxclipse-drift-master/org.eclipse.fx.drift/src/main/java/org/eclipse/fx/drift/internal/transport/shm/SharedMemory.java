@@ -0,0 +1,64 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.transport.shm;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.eclipse.fx.drift.internal.SYS;
+
+/**
+ * Memory mapped files shared between processes.
+ */
+public final class SharedMemory {
+	
+	private SharedMemory() {}
+	
+	/**
+	 * @return the directory of the shared files, <code>/dev/shm</code> if available so the pages are never written to disk
+	 */
+	public static File getDirectory() {
+		File shm = new File("/dev/shm");
+		if (shm.isDirectory() && shm.canWrite()) {
+			return shm;
+		}
+		return new File(System.getProperty("java.io.tmpdir"));
+	}
+	
+	public static File getFile(String name) {
+		return new File(getDirectory(), name);
+	}
+	
+	/**
+	 * maps the file, it is created or grown to the size if necessary. The mapping must be released with
+	 * {@link #unmap(long, int)}.
+	 * 
+	 * @return the address of the mapping
+	 */
+	public static long map(File file, int size) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			if (raf.length() < size) {
+				raf.setLength(size);
+			}
+		}
+		long pointer = SYS.mmap(file.getAbsolutePath(), size);
+		if (pointer == 0) {
+			throw new IOException("Failed to map " + file);
+		}
+		return pointer;
+	}
+	
+	public static void unmap(long pointer, int size) {
+		SYS.munmap(pointer, size);
+	}
+}
@@ -0,0 +1,132 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.transport.shm;
+
+import static org.eclipse.fx.drift.internal.SYS.getLongAcquire;
+import static org.eclipse.fx.drift.internal.SYS.putLongRelease;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.eclipse.fx.drift.internal.SYS;
+
+/**
+ * Single producer / single consumer ring of messages in shared memory.
+ * <p>
+ * The producer and the consumer are in different processes, within a process writes must be serialized by the caller.
+ * Layout: consumer position, producer position (each on its own cache line), then the data. A message is its length
+ * (int) followed by the payload, padded to 8 bytes. A length of -1 tells the consumer to continue at the start.
+ * </p>
+ */
+public class SharedMemoryRing {
+	
+	public static final int HEADER_SIZE = 128;
+	private static final int HEAD = 0;
+	private static final int TAIL = 64;
+	private static final int WRAP = -1;
+	
+	// keeps the mapping alive
+	private final ByteBuffer buffer;
+	private final long base;
+	// the producer and the consumer side each have their own position
+	private final ByteBuffer producerData;
+	private final ByteBuffer consumerData;
+	private final int capacity;
+	private final int mask;
+	
+	/**
+	 * @param buffer the mapping
+	 * @param offset where the ring starts, aligned to 64
+	 * @param capacity the data size, a power of 2
+	 */
+	public SharedMemoryRing(ByteBuffer buffer, int offset, int capacity) {
+		if (Integer.bitCount(capacity) != 1 || capacity < 64) {
+			throw new IllegalArgumentException("capacity must be a power of 2");
+		}
+		if (offset + HEADER_SIZE + capacity > buffer.capacity()) {
+			throw new IllegalArgumentException("buffer too small");
+		}
+		this.buffer = buffer;
+		this.base = SYS.address(buffer) + offset;
+		ByteBuffer data = buffer.duplicate();
+		data.limit(offset + HEADER_SIZE + capacity).position(offset + HEADER_SIZE);
+		this.producerData = data.slice().order(ByteOrder.nativeOrder());
+		this.consumerData = data.slice().order(ByteOrder.nativeOrder());
+		this.capacity = capacity;
+		this.mask = capacity - 1;
+	}
+	
+	public static int size(int capacity) {
+		return HEADER_SIZE + capacity;
+	}
+	
+	private static int recordSize(int length) {
+		return (4 + length + 7) & ~7;
+	}
+	
+	/**
+	 * @return <code>false</code> if there is not enough space
+	 */
+	public boolean offer(byte[] message, int offset, int length) {
+		int record = recordSize(length);
+		if (record > capacity / 2) {
+			throw new IllegalArgumentException("message too large: " + length);
+		}
+		long tail = getLongAcquire(base + TAIL);
+		long head = getLongAcquire(base + HEAD);
+		int index = (int) tail & mask;
+		int toEnd = capacity - index;
+		int needed = record > toEnd ? toEnd + record : record;
+		if (tail + needed - head > capacity) {
+			return false;
+		}
+		if (record > toEnd) {
+			producerData.putInt(index, WRAP);
+			tail += toEnd;
+			index = 0;
+		}
+		producerData.putInt(index, length);
+		producerData.position(index + 4);
+		producerData.put(message, offset, length);
+		// publishes the message
+		putLongRelease(base + TAIL, tail + record);
+		return true;
+	}
+	
+	/**
+	 * @return the next message or <code>null</code>
+	 */
+	public byte[] poll() {
+		long head = getLongAcquire(base + HEAD);
+		long tail = getLongAcquire(base + TAIL);
+		if (head == tail) {
+			return null;
+		}
+		int index = (int) head & mask;
+		int length = consumerData.getInt(index);
+		if (length == WRAP) {
+			head += capacity - index;
+			index = 0;
+			length = consumerData.getInt(0);
+		}
+		byte[] message = new byte[length];
+		consumerData.position(index + 4);
+		consumerData.get(message);
+		// frees the space
+		putLongRelease(base + HEAD, head + recordSize(length));
+		return message;
+	}
+	
+	public boolean isEmpty() {
+		return getLongAcquire(base + HEAD) == getLongAcquire(base + TAIL);
+	}
+}
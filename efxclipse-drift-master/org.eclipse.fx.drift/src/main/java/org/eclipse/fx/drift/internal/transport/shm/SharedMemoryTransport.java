@@ -0,0 +1,306 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.transport.shm;
+
+import static org.eclipse.fx.drift.internal.SYS.getIntAcquire;
+import static org.eclipse.fx.drift.internal.SYS.putIntRelease;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import org.eclipse.fx.drift.internal.DriftFX;
+import org.eclipse.fx.drift.internal.DriftLogger;
+import org.eclipse.fx.drift.internal.SYS;
+import org.eclipse.fx.drift.internal.backend.ImageMemory;
+import org.eclipse.fx.drift.internal.common.ImageData;
+import org.eclipse.fx.drift.internal.common.MainMemoryImageData;
+import org.eclipse.fx.drift.internal.transport.Command;
+import org.eclipse.fx.drift.internal.transport.CommandBus;
+import org.eclipse.fx.drift.internal.transport.CommandCodec;
+import org.eclipse.fx.drift.internal.transport.RemoteTransport;
+
+/**
+ * Transport between a frontend and a backend in different processes on the same machine.
+ * <p>
+ * The commands travel through two {@link SharedMemoryRing}s in the file <code>driftfx-&lt;channel&gt;</code>, the
+ * frontend creates it and the backend connects to it. The pixels of every MainMemory image live in a file of their own
+ * which the backend creates and the frontend maps, so frames cross the process boundary without being copied.
+ * </p>
+ */
+public class SharedMemoryTransport implements RemoteTransport {
+	private static final DriftLogger LOGGER = DriftFX.createLogger(SharedMemoryTransport.class);
+	
+	private static final int MAGIC = 0x44524654;
+	// header: magic, flags
+	private static final int FLAGS = 4;
+	private static final int FLAG_BGRA = 1;
+	private static final int HEADER_SIZE = 128;
+	private static final int RING_CAPACITY = 1 << 16;
+	private static final long CONNECT_TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+	private static final long WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+	private static final long IDLE_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+	
+	private final String channel;
+	private final Role role;
+	private final CommandCodec codec;
+	private final CommandBus bus;
+	
+	private final Map<String, Mapping> imageMappings = new ConcurrentHashMap<>();
+	
+	private Mapping control;
+	private SharedMemoryRing incoming;
+	private SharedMemoryRing outgoing;
+	private Thread reader;
+	private volatile boolean running;
+	private boolean bgra;
+	
+	private static class Mapping {
+		final long pointer;
+		final int size;
+		
+		Mapping(long pointer, int size) {
+			this.pointer = pointer;
+			this.size = size;
+		}
+		
+		void unmap() {
+			SharedMemory.unmap(pointer, size);
+		}
+	}
+	
+	public SharedMemoryTransport(String channel, Role role, Consumer<Command> receiver) {
+		this.channel = channel;
+		this.role = role;
+		this.codec = new CommandCodec(new CommandCodec.ImageListener() {
+			@Override
+			public void created(UUID swapChainId, List<ImageData> images) {
+				mapImages(swapChainId, images);
+			}
+			
+			@Override
+			public void disposed(UUID swapChainId) {
+				unmapImages(swapChainId);
+			}
+		});
+		this.bus = new CommandBus(receiver);
+	}
+	
+	@Override
+	public void setBGRA(boolean bgra) {
+		this.bgra = bgra;
+	}
+	
+	private File getControlFile() {
+		return SharedMemory.getFile("driftfx-" + channel);
+	}
+	
+	private String getImageName(UUID swapChainId, int number) {
+		return "driftfx-" + channel + "-" + swapChainId + "-" + number;
+	}
+	
+	@Override
+	public void start() {
+		int ringSize = SharedMemoryRing.size(RING_CAPACITY);
+		int size = HEADER_SIZE + 2 * ringSize;
+		File file = getControlFile();
+		try {
+			if (role == Role.FRONTEND) {
+				// a leftover of a previous run has stale positions
+				file.delete();
+				control = new Mapping(SharedMemory.map(file, size), size);
+			}
+			else {
+				control = connect(file, size);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to map " + file, e);
+		}
+		ByteBuffer buffer = SYS.wrap(control.pointer, size).order(ByteOrder.nativeOrder());
+		SharedMemoryRing toFrontend = new SharedMemoryRing(buffer, HEADER_SIZE, RING_CAPACITY);
+		SharedMemoryRing toBackend = new SharedMemoryRing(buffer, HEADER_SIZE + ringSize, RING_CAPACITY);
+		incoming = role == Role.FRONTEND ? toFrontend : toBackend;
+		outgoing = role == Role.FRONTEND ? toBackend : toFrontend;
+		if (role == Role.FRONTEND) {
+			buffer.putInt(FLAGS, bgra ? FLAG_BGRA : 0);
+			putIntRelease(control.pointer, MAGIC);
+		}
+		else {
+			bgra = (buffer.getInt(FLAGS) & FLAG_BGRA) != 0;
+		}
+		
+		running = true;
+		reader = new Thread(this::read, "DriftFX SHM Reader " + channel);
+		reader.setDaemon(true);
+		reader.start();
+		LOGGER.debug(() -> "Shared memory transport " + channel + " started as " + role);
+	}
+	
+	private static Mapping connect(File file, int size) throws IOException {
+		long deadline = System.nanoTime() + CONNECT_TIMEOUT;
+		while (System.nanoTime() < deadline) {
+			if (file.length() >= size) {
+				long pointer = SharedMemory.map(file, size);
+				if (getIntAcquire(pointer) == MAGIC) {
+					return new Mapping(pointer, size);
+				}
+				SharedMemory.unmap(pointer, size);
+			}
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+		}
+		throw new IOException("No frontend is serving " + file);
+	}
+	
+	@Override
+	public void stop() {
+		running = false;
+		if (reader != null) {
+			reader.interrupt();
+			try {
+				reader.join(1000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (control != null && (reader == null || !reader.isAlive())) {
+			// a send blocked on a full ring sees the stopped transport before the pages go away
+			synchronized (outgoing) {
+				control.unmap();
+				control = null;
+			}
+		}
+		if (role == Role.FRONTEND) {
+			imageMappings.values().forEach(Mapping::unmap);
+			imageMappings.clear();
+			getControlFile().delete();
+			// the files of a crashed backend
+			File[] leftovers = SharedMemory.getDirectory().listFiles((dir, name) -> name.startsWith("driftfx-" + channel + "-"));
+			if (leftovers != null) {
+				for (File leftover : leftovers) {
+					leftover.delete();
+				}
+			}
+		}
+	}
+	
+	@Override
+	public void send(Command command) {
+		byte[] message = codec.encode(command);
+		synchronized (outgoing) {
+			while (!running || !outgoing.offer(message, 0, message.length)) {
+				if (!running) {
+					LOGGER.warn(() -> "Transport stopped, dropping " + command);
+					return;
+				}
+				// the other process is behind
+				LockSupport.parkNanos(this, WAIT_NANOS);
+			}
+		}
+	}
+	
+	private void read() {
+		int idle = 0;
+		while (running) {
+			byte[] message = incoming.poll();
+			if (message == null) {
+				idle++;
+				if (idle < 100) {
+					continue;
+				}
+				if (idle < 200) {
+					Thread.yield();
+				}
+				else {
+					LockSupport.parkNanos(this, IDLE_NANOS);
+				}
+				continue;
+			}
+			idle = 0;
+			try {
+				bus.send(codec.decode(message, 0, message.length));
+			} catch (RuntimeException e) {
+				LOGGER.error(() -> "Failed to decode command", e);
+			}
+		}
+	}
+	
+	@Override
+	public ImageMemory createImageMemory(UUID swapChainId) {
+		return new ImageMemory() {
+			@Override
+			public long allocate(int number, int size) {
+				String name = getImageName(swapChainId, number);
+				try {
+					long pointer = SharedMemory.map(SharedMemory.getFile(name), size);
+					imageMappings.put(name, new Mapping(pointer, size));
+					return pointer;
+				} catch (IOException e) {
+					throw new UncheckedIOException("Failed to create " + name, e);
+				}
+			}
+			
+			@Override
+			public void free(int number, long pointer) {
+				String name = getImageName(swapChainId, number);
+				Mapping mapping = imageMappings.remove(name);
+				if (mapping != null) {
+					mapping.unmap();
+				}
+				SharedMemory.getFile(name).delete();
+			}
+			
+			@Override
+			public boolean isBGRA() {
+				return bgra;
+			}
+		};
+	}
+	
+	// frontend: maps the images created by the backend
+	private void mapImages(UUID swapChainId, List<ImageData> images) {
+		for (ImageData image : images) {
+			MainMemoryImageData data = (MainMemoryImageData) image;
+			String name = getImageName(swapChainId, data.number);
+			try {
+				long pointer = SharedMemory.map(SharedMemory.getFile(name), data.memSize);
+				imageMappings.put(name, new Mapping(pointer, data.memSize));
+				data.memPointer = pointer;
+			} catch (IOException e) {
+				LOGGER.error(() -> "Failed to map " + name, e);
+			}
+		}
+	}
+	
+	// frontend: the backend deletes the files once it released the images
+	private void unmapImages(UUID swapChainId) {
+		if (role != Role.FRONTEND) {
+			return;
+		}
+		String prefix = "driftfx-" + channel + "-" + swapChainId + "-";
+		imageMappings.entrySet().removeIf(entry -> {
+			if (entry.getKey().startsWith(prefix)) {
+				entry.getValue().unmap();
+				return true;
+			}
+			return false;
+		});
+	}
+}
@@ -0,0 +1,281 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.transport.socket;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Fast LZ77 style compression of frame deltas.
+ * <p>
+ * The stream is a sequence of <code>literal length, literals, match length, match offset</code> with all numbers as
+ * unsigned varints, a match length of 0 ends it. Long runs (an unchanged area XOR'ed with its previous frame is a run
+ * of zeros) become a single match. The buffers are accessed by absolute index, their position and limit are ignored.
+ * The decompressor XORs its output into the destination, matches are resolved against a window of the recent output.
+ * An instance keeps its hash table and window between calls and must not be shared between threads.
+ * </p>
+ */
+public final class LZCodec {
+	
+	private static final int MIN_MATCH = 8;
+	private static final int MAX_OFFSET = (1 << 16) - 1;
+	private static final int HASH_BITS = 14;
+	// misses in a row before the search starts skipping bytes
+	private static final int SKIP_TRIGGER = 6;
+	// the output is staged here before it is applied, slides back once full
+	private static final int WINDOW_SIZE = 4 * (MAX_OFFSET + 1);
+	
+	private final int[] table = new int[1 << HASH_BITS];
+	private int cursor;
+	
+	private ByteBuffer window;
+	private int filled;
+	// the output position within the spans
+	private int span;
+	private int spanOffset;
+	
+	/**
+	 * @return the size of the buffer {@link #compress(ByteBuffer, int, ByteBuffer)} needs for the given input length
+	 */
+	public static int maxCompressedLength(int length) {
+		return length + (length >>> 6) + 16;
+	}
+	
+	/**
+	 * @param src the input
+	 * @param length the number of input bytes
+	 * @param dst the output, at least {@link #maxCompressedLength(int)} bytes
+	 * @return the number of bytes written to dst
+	 */
+	public int compress(ByteBuffer src, int length, ByteBuffer dst) {
+		src = src.duplicate().order(ByteOrder.nativeOrder());
+		dst = dst.duplicate().order(ByteOrder.nativeOrder());
+		Arrays.fill(table, 0);
+		cursor = 0;
+		int anchor = 0;
+		int pos = 0;
+		int misses = 0;
+		// reading a long at a candidate needs 8 bytes
+		int limit = length - MIN_MATCH;
+		while (pos < limit) {
+			int h = hash(src.getInt(pos));
+			int candidate = table[h];
+			table[h] = pos;
+			if (candidate < pos && pos - candidate <= MAX_OFFSET && src.getLong(candidate) == src.getLong(pos)) {
+				int end = pos + MIN_MATCH;
+				int distance = pos - candidate;
+				while (end + 8 <= length && src.getLong(end) == src.getLong(end - distance)) {
+					end += 8;
+				}
+				while (end < length && src.get(end) == src.get(end - distance)) {
+					end++;
+				}
+				writeLiterals(src, anchor, pos - anchor, dst);
+				writeVarint(dst, end - pos - MIN_MATCH + 1);
+				writeVarint(dst, distance);
+				pos = end;
+				anchor = end;
+				misses = 0;
+			}
+			else {
+				pos += 1 + (misses++ >>> SKIP_TRIGGER);
+			}
+		}
+		writeLiterals(src, anchor, length - anchor, dst);
+		writeVarint(dst, 0);
+		return cursor;
+	}
+	
+	/**
+	 * XORs the decompressed bytes into <code>dst</code>, into zeroed memory this is a plain decompression.
+	 * 
+	 * @param src the compressed input
+	 * @param srcLength the number of compressed bytes
+	 * @param dst the output
+	 * @param dstLength the expected number of output bytes
+	 * @throws IllegalArgumentException if the input is corrupt
+	 */
+	public void decompress(ByteBuffer src, int srcLength, ByteBuffer dst, int dstLength) {
+		decompress(src, srcLength, dst, new int[] { 0, dstLength });
+	}
+	
+	/**
+	 * XORs the decompressed bytes into the spans of <code>dst</code>, the output fills one span after the other.
+	 * 
+	 * @param src the compressed input
+	 * @param srcLength the number of compressed bytes
+	 * @param dst the output
+	 * @param spans offset / length pairs within dst, their lengths add up to the expected number of output bytes
+	 * @throws IllegalArgumentException if the input is corrupt
+	 */
+	public void decompress(ByteBuffer src, int srcLength, ByteBuffer dst, int[] spans) {
+		src = src.duplicate().order(ByteOrder.nativeOrder());
+		dst = dst.duplicate().order(ByteOrder.nativeOrder());
+		if (window == null) {
+			window = ByteBuffer.allocateDirect(WINDOW_SIZE).order(ByteOrder.nativeOrder());
+		}
+		int dstLength = 0;
+		for (int i = 1; i < spans.length; i += 2) {
+			dstLength += spans[i];
+		}
+		cursor = 0;
+		filled = 0;
+		span = 0;
+		spanOffset = 0;
+		int out = 0;
+		while (true) {
+			int literals = readVarint(src, srcLength);
+			if (literals > dstLength - out || literals > srcLength - cursor) {
+				throw new IllegalArgumentException("Corrupt input, literals exceed the buffer");
+			}
+			out += literals;
+			while (literals > 0) {
+				int count = Math.min(literals, reserve());
+				copy(src, cursor, window, filled, count);
+				cursor += count;
+				literals -= count;
+				apply(dst, spans, count);
+			}
+			int code = readVarint(src, srcLength);
+			if (code == 0) {
+				break;
+			}
+			int length = code - 1 + MIN_MATCH;
+			int distance = readVarint(src, srcLength);
+			if (distance <= 0 || distance > out || length > dstLength - out) {
+				throw new IllegalArgumentException("Corrupt input, invalid match at " + out);
+			}
+			out += length;
+			while (length > 0) {
+				int count = Math.min(length, reserve());
+				copyMatch(window, filled, distance, count);
+				length -= count;
+				apply(dst, spans, count);
+			}
+		}
+		if (out != dstLength) {
+			throw new IllegalArgumentException("Corrupt input, decoded " + out + " instead of " + dstLength + " bytes");
+		}
+	}
+	
+	/**
+	 * @return the free space of the window, slides the last {@link #MAX_OFFSET} bytes to the start if it is full
+	 */
+	private int reserve() {
+		if (filled == WINDOW_SIZE) {
+			copy(window, WINDOW_SIZE - MAX_OFFSET, window, 0, MAX_OFFSET);
+			filled = MAX_OFFSET;
+		}
+		return WINDOW_SIZE - filled;
+	}
+	
+	// XORs the newly staged bytes into the destination
+	private void apply(ByteBuffer dst, int[] spans, int count) {
+		int from = filled;
+		filled += count;
+		while (count > 0) {
+			int n = Math.min(count, spans[span + 1] - spanOffset);
+			xor(window, from, dst, spans[span] + spanOffset, n);
+			from += n;
+			count -= n;
+			spanOffset += n;
+			if (spanOffset == spans[span + 1]) {
+				span += 2;
+				spanOffset = 0;
+			}
+		}
+	}
+	
+	private static int hash(int value) {
+		return (value * -1640531535) >>> (32 - HASH_BITS);
+	}
+	
+	private void writeLiterals(ByteBuffer src, int from, int count, ByteBuffer dst) {
+		writeVarint(dst, count);
+		copy(src, from, dst, cursor, count);
+		cursor += count;
+	}
+	
+	private void writeVarint(ByteBuffer dst, int value) {
+		while ((value & ~0x7F) != 0) {
+			dst.put(cursor++, (byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		dst.put(cursor++, (byte) value);
+	}
+	
+	private int readVarint(ByteBuffer src, int srcLength) {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			if (cursor >= srcLength) {
+				throw new IllegalArgumentException("Corrupt input, unexpected end");
+			}
+			byte b = src.get(cursor++);
+			value |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Corrupt input, varint too long");
+	}
+	
+	private static void copy(ByteBuffer src, int from, ByteBuffer dst, int to, int count) {
+		int i = 0;
+		for (; i + 8 <= count; i += 8) {
+			dst.putLong(to + i, src.getLong(from + i));
+		}
+		for (; i < count; i++) {
+			dst.put(to + i, src.get(from + i));
+		}
+	}
+	
+	private static void xor(ByteBuffer src, int from, ByteBuffer dst, int to, int count) {
+		int i = 0;
+		for (; i + 8 <= count; i += 8) {
+			long value = src.getLong(from + i);
+			// unchanged bytes leave the destination untouched
+			if (value != 0) {
+				dst.putLong(to + i, dst.getLong(to + i) ^ value);
+			}
+		}
+		for (; i < count; i++) {
+			byte value = src.get(from + i);
+			if (value != 0) {
+				dst.put(to + i, (byte) (dst.get(to + i) ^ value));
+			}
+		}
+	}
+	
+	private static void copyMatch(ByteBuffer dst, int out, int distance, int length) {
+		int from = out - distance;
+		if (distance >= 8) {
+			// every long is read from bytes that are already written
+			copy(dst, from, dst, out, length);
+		}
+		else if (distance == 1) {
+			long pattern = (dst.get(from) & 0xFFL) * 0x0101010101010101L;
+			int i = 0;
+			for (; i + 8 <= length; i += 8) {
+				dst.putLong(out + i, pattern);
+			}
+			for (; i < length; i++) {
+				dst.put(out + i, (byte) pattern);
+			}
+		}
+		else {
+			for (int i = 0; i < length; i++) {
+				dst.put(out + i, dst.get(from + i));
+			}
+		}
+	}
+}
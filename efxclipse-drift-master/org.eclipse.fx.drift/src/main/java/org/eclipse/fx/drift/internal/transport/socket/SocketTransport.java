@@ -0,0 +1,489 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.transport.socket;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import org.eclipse.fx.drift.Rect2i;
+import org.eclipse.fx.drift.internal.DriftFX;
+import org.eclipse.fx.drift.internal.DriftLogger;
+import org.eclipse.fx.drift.internal.SYS;
+import org.eclipse.fx.drift.internal.backend.ImageMemory;
+import org.eclipse.fx.drift.internal.common.ImageData;
+import org.eclipse.fx.drift.internal.common.MainMemoryImageData;
+import org.eclipse.fx.drift.internal.transport.Command;
+import org.eclipse.fx.drift.internal.transport.CommandBus;
+import org.eclipse.fx.drift.internal.transport.CommandCodec;
+import org.eclipse.fx.drift.internal.transport.RemoteTransport;
+import org.eclipse.fx.drift.internal.transport.command.PresentCommand;
+
+/**
+ * Transport between a frontend and a backend over a TCP connection, for renderers in another container or wherever
+ * no memory can be shared.
+ * <p>
+ * Every message is <code>command length, payload length, command, payload</code>. The payload of a present is the
+ * damaged part of the image XOR'ed with the content the receiving image had before, compressed with {@link LZCodec}.
+ * Both sides start with zeroed images and the backend keeps a shadow copy of what every frontend image contains, so
+ * unchanged areas cost next to nothing. The frontend decompresses the delta directly into the memory JavaFX uploads
+ * from.
+ * </p>
+ */
+public class SocketTransport implements RemoteTransport {
+	private static final DriftLogger LOGGER = DriftFX.createLogger(SocketTransport.class);
+	
+	private static final int MAGIC = 0x44524654;
+	private static final int FLAG_BGRA = 1;
+	private static final long CONNECT_TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+	
+	private final InetSocketAddress address;
+	private final Role role;
+	private final CommandCodec codec;
+	private final CommandBus bus;
+	
+	// frontend: the images JavaFX uploads from, backend: the images the renderer reads back into
+	private final Map<String, ByteBuffer> images = new ConcurrentHashMap<>();
+	// backend: the content of the frontend images
+	private final Map<String, ByteBuffer> shadows = new ConcurrentHashMap<>();
+	
+	private final Object sendLock = new Object();
+	// guarded by sendLock
+	private final List<byte[]> pending = new ArrayList<>();
+	private final ByteBuffer sendHeader = allocate(8);
+	
+	// backend: taken before sendLock, so other commands don't wait for a frame being compressed
+	private final Object encodeLock = new Object();
+	// guarded by encodeLock
+	private final LZCodec encoder = new LZCodec();
+	private ByteBuffer delta;
+	private ByteBuffer compressed;
+	
+	// reader thread
+	private final LZCodec decoder = new LZCodec();
+	private ByteBuffer payload;
+	
+	private final AtomicLong pixelBytes = new AtomicLong();
+	private final AtomicLong payloadBytes = new AtomicLong();
+	
+	private ServerSocketChannel server;
+	private volatile SocketChannel socket;
+	private Thread reader;
+	private volatile boolean running;
+	private volatile boolean bgra;
+	
+	public SocketTransport(InetSocketAddress address, Role role, Consumer<Command> receiver) {
+		this.address = address;
+		this.role = role;
+		this.codec = new CommandCodec(new CommandCodec.ImageListener() {
+			@Override
+			public void created(UUID swapChainId, List<ImageData> created) {
+				allocateImages(swapChainId, created);
+			}
+			
+			@Override
+			public void disposed(UUID swapChainId) {
+				freeImages(swapChainId);
+			}
+		});
+		this.bus = new CommandBus(receiver);
+	}
+	
+	@Override
+	public void setBGRA(boolean bgra) {
+		this.bgra = bgra;
+	}
+	
+	/**
+	 * @return the address the frontend listens on, resolves an ephemeral port once started
+	 */
+	public InetSocketAddress getAddress() {
+		if (server != null) {
+			try {
+				return (InetSocketAddress) server.getLocalAddress();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return address;
+	}
+	
+	/**
+	 * @return the size of all frames sent so far
+	 */
+	public long getPixelBytes() {
+		return pixelBytes.get();
+	}
+	
+	/**
+	 * @return the bytes the frames took on the wire
+	 */
+	public long getPayloadBytes() {
+		return payloadBytes.get();
+	}
+	
+	private static String getImageName(UUID swapChainId, int number) {
+		return swapChainId + "-" + number;
+	}
+	
+	ByteBuffer getImage(UUID swapChainId, int number) {
+		return images.get(getImageName(swapChainId, number));
+	}
+	
+	private static ByteBuffer allocate(int size) {
+		return ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+	}
+	
+	private static ByteBuffer ensure(ByteBuffer buffer, int size) {
+		if (buffer == null || buffer.capacity() < size) {
+			return allocate(size);
+		}
+		return buffer;
+	}
+	
+	@Override
+	public void start() {
+		running = true;
+		try {
+			if (role == Role.FRONTEND) {
+				server = ServerSocketChannel.open();
+				server.bind(address);
+			}
+			else {
+				socket = connect(address);
+				ByteBuffer handshake = allocate(8);
+				readFully(socket, handshake);
+				if (handshake.getInt(0) != MAGIC) {
+					throw new IOException("Not a DriftFX frontend at " + address);
+				}
+				bgra = (handshake.getInt(4) & FLAG_BGRA) != 0;
+			}
+		} catch (IOException e) {
+			running = false;
+			throw new UncheckedIOException("Failed to connect " + address, e);
+		}
+		reader = new Thread(this::read, "DriftFX Socket Reader " + address);
+		reader.setDaemon(true);
+		reader.start();
+		LOGGER.debug(() -> "Socket transport " + address + " started as " + role);
+	}
+	
+	private static SocketChannel connect(InetSocketAddress address) throws IOException {
+		long deadline = System.nanoTime() + CONNECT_TIMEOUT;
+		while (true) {
+			try {
+				SocketChannel channel = SocketChannel.open(address);
+				channel.setOption(StandardSocketOptions.TCP_NODELAY, Boolean.TRUE);
+				return channel;
+			} catch (ConnectException e) {
+				if (System.nanoTime() > deadline) {
+					throw e;
+				}
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+			}
+		}
+	}
+	
+	// frontend: waits for the backend on the reader thread, commands sent until then are queued
+	private void accept() throws IOException {
+		SocketChannel channel = server.accept();
+		channel.setOption(StandardSocketOptions.TCP_NODELAY, Boolean.TRUE);
+		ByteBuffer handshake = allocate(8);
+		handshake.putInt(0, MAGIC);
+		handshake.putInt(4, bgra ? FLAG_BGRA : 0);
+		synchronized (sendLock) {
+			writeFully(channel, handshake);
+			for (byte[] message : pending) {
+				write(channel, message, null, 0);
+			}
+			pending.clear();
+			socket = channel;
+		}
+		LOGGER.debug(() -> "Backend connected to " + address);
+	}
+	
+	@Override
+	public void stop() {
+		running = false;
+		close(socket);
+		close(server);
+		if (reader != null) {
+			reader.interrupt();
+			try {
+				reader.join(1000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		images.clear();
+		shadows.clear();
+	}
+	
+	private static void close(AutoCloseable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			} catch (Exception e) {
+				LOGGER.debug(() -> "Failed to close " + closeable + ": " + e);
+			}
+		}
+	}
+	
+	@Override
+	public void send(Command command) {
+		byte[] message = codec.encode(command);
+		if (command instanceof PresentCommand && socket != null) {
+			synchronized (encodeLock) {
+				int payloadLength = encodeFrame((PresentCommand) command);
+				send(command, message, compressed, payloadLength);
+			}
+		}
+		else {
+			send(command, message, null, 0);
+		}
+	}
+	
+	private void send(Command command, byte[] message, ByteBuffer frame, int payloadLength) {
+		synchronized (sendLock) {
+			SocketChannel channel = socket;
+			if (channel == null) {
+				if (running && role == Role.FRONTEND) {
+					pending.add(message);
+				}
+				else {
+					LOGGER.warn(() -> "Transport not connected, dropping " + command);
+				}
+				return;
+			}
+			try {
+				write(channel, message, frame, payloadLength);
+			} catch (IOException e) {
+				if (running) {
+					LOGGER.error(() -> "Failed to send " + command, e);
+				}
+			}
+		}
+	}
+	
+	// guarded by sendLock
+	private void write(SocketChannel channel, byte[] message, ByteBuffer frame, int payloadLength) throws IOException {
+		sendHeader.clear();
+		sendHeader.putInt(message.length);
+		sendHeader.putInt(payloadLength);
+		sendHeader.flip();
+		if (payloadLength > 0) {
+			frame.clear();
+			frame.limit(payloadLength);
+		}
+		ByteBuffer[] buffers = { sendHeader, ByteBuffer.wrap(message), payloadLength > 0 ? frame : ByteBuffer.allocate(0) };
+		while (buffers[2].hasRemaining() || buffers[1].hasRemaining() || buffers[0].hasRemaining()) {
+			channel.write(buffers);
+		}
+	}
+	
+	private static void writeFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+	
+	private static void readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				throw new EOFException();
+			}
+		}
+	}
+	
+	/**
+	 * @return offset / length pairs of the bytes covered by the damage, the whole image if there is no damage
+	 */
+	static int[] getSpans(MainMemoryImageData data) {
+		Rect2i[] damage = data.damage;
+		if (damage == null) {
+			return new int[] { 0, data.memSize };
+		}
+		int bpp = data.format.getBytesPerPixel();
+		int stride = data.size.x * bpp;
+		int[] spans = new int[16];
+		int count = 0;
+		for (Rect2i r : damage) {
+			int x0 = Math.max(r.x, 0);
+			int x1 = Math.min(r.x + r.width, data.size.x);
+			int y0 = Math.max(r.y, 0);
+			int y1 = Math.min(r.y + r.height, data.size.y);
+			if (x0 >= x1) {
+				continue;
+			}
+			for (int y = y0; y < y1; y++) {
+				int offset = y * stride + x0 * bpp;
+				int length = (x1 - x0) * bpp;
+				if (count > 0 && spans[count - 2] + spans[count - 1] == offset) {
+					// full width rects are a single span
+					spans[count - 1] += length;
+					continue;
+				}
+				if (count == spans.length) {
+					spans = Arrays.copyOf(spans, 2 * count);
+				}
+				spans[count++] = offset;
+				spans[count++] = length;
+			}
+		}
+		return Arrays.copyOf(spans, count);
+	}
+	
+	// backend, guarded by encodeLock: delta of the damaged spans against the shadow, which becomes the new frame
+	private int encodeFrame(PresentCommand command) {
+		MainMemoryImageData data = (MainMemoryImageData) command.getImageData();
+		String name = getImageName(command.getSwapChainId(), data.number);
+		ByteBuffer image = images.get(name);
+		ByteBuffer shadow = shadows.get(name);
+		if (image == null || shadow == null) {
+			throw new IllegalStateException("Image " + name + " was not allocated by this transport");
+		}
+		int[] spans = getSpans(data);
+		int size = 0;
+		for (int s = 1; s < spans.length; s += 2) {
+			size += spans[s];
+		}
+		delta = ensure(delta, size);
+		int out = 0;
+		for (int s = 0; s < spans.length; s += 2) {
+			int i = spans[s];
+			int end = i + spans[s + 1];
+			for (; i + 8 <= end; i += 8, out += 8) {
+				long value = image.getLong(i);
+				delta.putLong(out, value ^ shadow.getLong(i));
+				shadow.putLong(i, value);
+			}
+			for (; i < end; i++, out++) {
+				byte value = image.get(i);
+				delta.put(out, (byte) (value ^ shadow.get(i)));
+				shadow.put(i, value);
+			}
+		}
+		compressed = ensure(compressed, LZCodec.maxCompressedLength(size));
+		int length = encoder.compress(delta, size, compressed);
+		pixelBytes.addAndGet(data.memSize);
+		payloadBytes.addAndGet(length);
+		return length;
+	}
+	
+	// frontend, reader thread: applies the delta to the damaged spans of the image
+	private void decodeFrame(PresentCommand command, int payloadLength) {
+		MainMemoryImageData data = (MainMemoryImageData) command.getImageData();
+		ByteBuffer image = images.get(getImageName(command.getSwapChainId(), data.number));
+		decoder.decompress(payload, payloadLength, image, getSpans(data));
+		pixelBytes.addAndGet(data.memSize);
+		payloadBytes.addAndGet(payloadLength);
+	}
+	
+	private void read() {
+		ByteBuffer header = allocate(8);
+		try {
+			if (role == Role.FRONTEND) {
+				accept();
+			}
+			SocketChannel channel = socket;
+			while (running) {
+				header.clear();
+				readFully(channel, header);
+				int commandLength = header.getInt(0);
+				int payloadLength = header.getInt(4);
+				byte[] message = new byte[commandLength];
+				readFully(channel, ByteBuffer.wrap(message));
+				if (payloadLength > 0) {
+					payload = ensure(payload, payloadLength);
+					payload.clear();
+					payload.limit(payloadLength);
+					readFully(channel, payload);
+				}
+				try {
+					Command command = codec.decode(message, 0, commandLength);
+					if (payloadLength > 0) {
+						decodeFrame((PresentCommand) command, payloadLength);
+					}
+					bus.send(command);
+				} catch (RuntimeException e) {
+					LOGGER.error(() -> "Failed to decode command", e);
+				}
+			}
+		} catch (IOException e) {
+			if (running) {
+				LOGGER.error(() -> "Connection " + address + " lost", e);
+			}
+		}
+	}
+	
+	@Override
+	public ImageMemory createImageMemory(UUID swapChainId) {
+		return new ImageMemory() {
+			@Override
+			public long allocate(int number, int size) {
+				String name = getImageName(swapChainId, number);
+				ByteBuffer image = SocketTransport.allocate(size);
+				shadows.put(name, SocketTransport.allocate(size));
+				images.put(name, image);
+				return SYS.address(image);
+			}
+			
+			@Override
+			public void free(int number, long pointer) {
+				String name = getImageName(swapChainId, number);
+				images.remove(name);
+				shadows.remove(name);
+			}
+			
+			@Override
+			public boolean isBGRA() {
+				return bgra;
+			}
+		};
+	}
+	
+	// frontend: the images start zeroed like the shadows of the backend
+	private void allocateImages(UUID swapChainId, List<ImageData> created) {
+		for (ImageData image : created) {
+			MainMemoryImageData data = (MainMemoryImageData) image;
+			ByteBuffer buffer = allocate(data.memSize);
+			images.put(getImageName(swapChainId, data.number), buffer);
+			data.memPointer = SYS.address(buffer);
+		}
+	}
+	
+	// frontend: the images are released once the swapchain is disposed, the backend frees its own
+	private void freeImages(UUID swapChainId) {
+		if (role != Role.FRONTEND) {
+			return;
+		}
+		String prefix = swapChainId + "-";
+		images.keySet().removeIf(name -> name.startsWith(prefix));
+	}
+}
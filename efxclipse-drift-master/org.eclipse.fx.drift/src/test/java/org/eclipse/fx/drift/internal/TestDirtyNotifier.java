@@ -0,0 +1,42 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestDirtyNotifier {
+
+	@Test
+	public void coalesces() {
+		List<Runnable> tasks = new ArrayList<>();
+		List<Integer> delivered = new ArrayList<>();
+		DirtyNotifier notifier = new DirtyNotifier(tasks::add, delivered::add);
+		
+		notifier.markDirty(1);
+		notifier.markDirty(1);
+		notifier.markDirty(4);
+		Assert.assertEquals(1, tasks.size());
+		
+		tasks.remove(0).run();
+		Assert.assertEquals(1, delivered.size());
+		Assert.assertEquals(5, delivered.get(0).intValue());
+		
+		notifier.markDirty(2);
+		Assert.assertEquals(1, tasks.size());
+		tasks.remove(0).run();
+		Assert.assertEquals(2, delivered.get(1).intValue());
+	}
+}
@@ -0,0 +1,89 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestFrameStats {
+	
+	private static final long FRAME = TimeUnit.MICROSECONDS.toNanos(16_667);
+	
+	@Test
+	public void steadyFrames() {
+		FrameStats stats = new FrameStats(32);
+		long now = 1;
+		for (int i = 0; i <= 100; i++) {
+			stats.frame(now);
+			now += FRAME;
+		}
+		Assert.assertEquals(100, stats.getFrameCount());
+		Assert.assertEquals(60, stats.getFps(), 0.01);
+		Assert.assertEquals(FRAME, stats.getFrameTime(0));
+		Assert.assertEquals(0, stats.getJitter());
+		Assert.assertEquals(0, stats.getDroppedFrames());
+		// 16.667ms falls into the bucket [16.384ms, 17.408ms)
+		Assert.assertEquals(FRAME, stats.getPercentile(50), FRAME * 0.04);
+	}
+	
+	@Test
+	public void countsDroppedFrames() {
+		FrameStats stats = new FrameStats(32);
+		long now = 1;
+		for (int i = 0; i <= 50; i++) {
+			stats.frame(now);
+			now += FRAME;
+		}
+		// two frames missing, then an idle gap
+		now += 2 * FRAME;
+		stats.frame(now);
+		now += FrameStats.IDLE_NANOS * 2;
+		stats.frame(now);
+		Assert.assertEquals(2, stats.getDroppedFrames());
+		Assert.assertEquals(51, stats.getFrameCount());
+		Assert.assertEquals(3 * FRAME, stats.getFrameTime(0));
+		Assert.assertEquals(3 * FRAME, stats.getPercentile(100), 3 * FRAME * 0.04);
+		Assert.assertTrue(stats.getJitter() > 0);
+	}
+	
+	@Test
+	public void followsFrameRate() {
+		FrameStats stats = new FrameStats(128);
+		long now = 1;
+		for (int i = 0; i <= 200; i++) {
+			stats.frame(now);
+			now += FRAME;
+		}
+		// the renderer settles at 30fps, that stops counting as dropped once the reference caught up
+		for (int i = 0; i < 100; i++) {
+			stats.frame(now);
+			now += 2 * FRAME;
+		}
+		long dropped = stats.getDroppedFrames();
+		Assert.assertTrue("dropped " + dropped, dropped > 0 && dropped <= 64);
+		for (int i = 0; i < 100; i++) {
+			stats.frame(now);
+			now += 2 * FRAME;
+		}
+		Assert.assertEquals(dropped, stats.getDroppedFrames());
+	}
+	
+	@Test
+	public void buckets() {
+		for (long nanos = 1 << 14; nanos < (1L << 36); nanos += nanos / 7) {
+			long value = FrameStats.bucketValue(FrameStats.bucket(nanos));
+			Assert.assertEquals(nanos, value, nanos / 16.0);
+		}
+	}
+}
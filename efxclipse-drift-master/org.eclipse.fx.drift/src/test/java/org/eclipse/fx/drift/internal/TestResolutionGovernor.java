@@ -0,0 +1,90 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestResolutionGovernor {
+	
+	private static final long BUDGET = TimeUnit.MILLISECONDS.toNanos(16);
+	
+	private static double window(ResolutionGovernor governor, long interval) {
+		double scale = 0;
+		for (int i = 0; i < ResolutionGovernor.WINDOW; i++) {
+			scale = governor.frame(interval);
+		}
+		return scale;
+	}
+	
+	@Test
+	public void keepsScaleWithinBudget() {
+		ResolutionGovernor governor = new ResolutionGovernor(BUDGET, 0.5, 1.0);
+		Assert.assertEquals(1.0, window(governor, BUDGET), 0);
+		Assert.assertEquals(1.0, window(governor, BUDGET * 9 / 10), 0);
+	}
+	
+	@Test
+	public void lowersScaleWithPixelCost() {
+		ResolutionGovernor governor = new ResolutionGovernor(BUDGET, 0.25, 1.0);
+		// twice the budget needs half the pixels
+		double scale = window(governor, 2 * BUDGET);
+		Assert.assertTrue(scale <= Math.sqrt(0.5));
+		Assert.assertEquals(0, scale % ResolutionGovernor.STEP, 0);
+		// the window after a change is skipped
+		Assert.assertEquals(scale, window(governor, 2 * BUDGET), 0);
+		Assert.assertTrue(window(governor, 2 * BUDGET) < scale);
+	}
+	
+	@Test
+	public void staysWithinBounds() {
+		ResolutionGovernor governor = new ResolutionGovernor(BUDGET, 0.5, 1.0);
+		for (int i = 0; i < 10; i++) {
+			window(governor, 10 * BUDGET);
+		}
+		Assert.assertEquals(0.5, governor.getScale(), 0);
+		for (int i = 0; i < 20; i++) {
+			window(governor, BUDGET / 2);
+		}
+		Assert.assertEquals(1.0, governor.getScale(), 0);
+	}
+	
+	@Test
+	public void frontendOnlyHoldsTheScale() {
+		ResolutionGovernor governor = new ResolutionGovernor(BUDGET, 0.5, 1.0);
+		window(governor, 2 * BUDGET);
+		double scale = governor.getScale();
+		// settling
+		window(governor, BUDGET / 2);
+		for (int i = 0; i < 4; i++) {
+			// JavaFX is slow, the renderer has headroom
+			for (int f = 0; f < ResolutionGovernor.WINDOW; f++) {
+				governor.frontendFrame(2 * BUDGET);
+				governor.frame(BUDGET / 2);
+			}
+		}
+		Assert.assertEquals(scale, governor.getScale(), 0);
+		window(governor, BUDGET / 2);
+		Assert.assertTrue(governor.getScale() > scale);
+	}
+	
+	@Test
+	public void restoresWhenIdle() {
+		ResolutionGovernor governor = new ResolutionGovernor(BUDGET, 0.5, 1.0);
+		window(governor, 3 * BUDGET);
+		Assert.assertTrue(governor.getScale() < 1.0);
+		Assert.assertEquals(1.0, governor.idle(), 0);
+		Assert.assertEquals(1.0, governor.getScale(), 0);
+	}
+}
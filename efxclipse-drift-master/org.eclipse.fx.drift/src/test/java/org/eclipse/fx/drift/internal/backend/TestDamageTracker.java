@@ -0,0 +1,71 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.backend;
+
+import org.eclipse.fx.drift.Rect2i;
+import org.eclipse.fx.drift.Vec2i;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestDamageTracker {
+
+	@Test
+	public void firstPresentIsFull() {
+		DamageTracker tracker = new DamageTracker(2, new Vec2i(100, 100));
+		Assert.assertNull(tracker.present(0, new Rect2i[] { new Rect2i(0, 0, 10, 10) }));
+		Assert.assertNull(tracker.present(1, new Rect2i[0]));
+	}
+
+	@Test
+	public void accumulatesOtherPresents() {
+		DamageTracker tracker = new DamageTracker(2, new Vec2i(100, 100));
+		tracker.present(0, null);
+		tracker.present(1, new Rect2i[] { new Rect2i(10, 10, 5, 5) });
+		Rect2i[] region = tracker.present(0, new Rect2i[0]);
+		Assert.assertEquals(1, region.length);
+		Assert.assertEquals(10, region[0].x);
+		Assert.assertEquals(5, region[0].width);
+		
+		region = tracker.present(1, new Rect2i[0]);
+		Assert.assertEquals(0, region.length);
+	}
+
+	@Test
+	public void clipsToImage() {
+		DamageTracker tracker = new DamageTracker(1, new Vec2i(100, 100));
+		tracker.present(0, null);
+		Rect2i[] region = tracker.present(0, new Rect2i[] { new Rect2i(90, -10, 20, 20), new Rect2i(200, 0, 5, 5) });
+		Assert.assertEquals(1, region.length);
+		Assert.assertEquals(90, region[0].x);
+		Assert.assertEquals(0, region[0].y);
+		Assert.assertEquals(10, region[0].width);
+		Assert.assertEquals(10, region[0].height);
+		
+		Assert.assertNull(tracker.present(0, new Rect2i[] { new Rect2i(-1, -1, 200, 200) }));
+	}
+
+	@Test
+	public void collapsesToBounds() {
+		DamageTracker tracker = new DamageTracker(1, new Vec2i(100, 100));
+		tracker.present(0, null);
+		Rect2i[] damage = new Rect2i[DamageTracker.MAX_RECTS + 1];
+		for (int i = 0; i < damage.length; i++) {
+			damage[i] = new Rect2i(i * 2, i * 3, 1, 1);
+		}
+		Rect2i[] region = tracker.present(0, damage);
+		Assert.assertEquals(1, region.length);
+		Assert.assertEquals(0, region[0].x);
+		Assert.assertEquals(0, region[0].y);
+		Assert.assertEquals(DamageTracker.MAX_RECTS * 2 + 1, region[0].width);
+		Assert.assertEquals(DamageTracker.MAX_RECTS * 3 + 1, region[0].height);
+	}
+}
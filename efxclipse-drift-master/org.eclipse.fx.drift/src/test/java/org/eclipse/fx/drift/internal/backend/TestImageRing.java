@@ -0,0 +1,127 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.backend;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestImageRing {
+
+	@Test
+	public void offerPoll() {
+		ImageRing ring = new ImageRing(3);
+		Assert.assertTrue(ring.isEmpty());
+		Assert.assertEquals(ImageRing.EMPTY, ring.poll());
+		for (int i = 0; i < 3; i++) {
+			Assert.assertTrue(ring.offer(i));
+		}
+		Assert.assertEquals(3, ring.size());
+		for (int i = 0; i < 3; i++) {
+			Assert.assertEquals(i, ring.poll());
+		}
+		Assert.assertTrue(ring.isEmpty());
+	}
+
+	@Test
+	public void full() {
+		ImageRing ring = new ImageRing(2);
+		Assert.assertTrue(ring.offer(0));
+		Assert.assertTrue(ring.offer(1));
+		Assert.assertFalse(ring.offer(2));
+	}
+
+	@Test(timeout = 5000)
+	public void takeWaitsForOffer() throws Exception {
+		ImageRing ring = new ImageRing(1);
+		CountDownLatch started = new CountDownLatch(1);
+		AtomicInteger taken = new AtomicInteger(ImageRing.EMPTY);
+		Thread consumer = new Thread(() -> {
+			started.countDown();
+			try {
+				taken.set(ring.take());
+			} catch (InterruptedException e) {
+				// ignore
+			}
+		});
+		consumer.start();
+		started.await();
+		Thread.sleep(50);
+		ring.offer(0);
+		consumer.join(TimeUnit.SECONDS.toMillis(2));
+		Assert.assertEquals(0, taken.get());
+	}
+
+	@Test(timeout = 5000)
+	public void takeIsInterruptible() throws Exception {
+		ImageRing ring = new ImageRing(1);
+		AtomicInteger result = new AtomicInteger();
+		Thread consumer = new Thread(() -> {
+			try {
+				ring.take();
+			} catch (InterruptedException e) {
+				result.set(1);
+			}
+		});
+		consumer.start();
+		Thread.sleep(50);
+		consumer.interrupt();
+		consumer.join();
+		Assert.assertEquals(1, result.get());
+	}
+
+	@Test(timeout = 20000)
+	public void cycleImages() throws Exception {
+		int images = 3;
+		int rounds = 100000;
+		ImageRing free = new ImageRing(images);
+		ImageRing presented = new ImageRing(images);
+		for (int i = 0; i < images; i++) {
+			free.offer(i);
+		}
+		int[] owner = new int[images];
+		Thread renderer = new Thread(() -> {
+			try {
+				for (int i = 0; i < rounds; i++) {
+					int number = free.take();
+					owner[number]++;
+					presented.offer(number);
+				}
+			} catch (InterruptedException e) {
+				// ignore
+			}
+		});
+		Thread frontend = new Thread(() -> {
+			try {
+				for (int i = 0; i < rounds; i++) {
+					free.offer(presented.take());
+				}
+			} catch (InterruptedException e) {
+				// ignore
+			}
+		});
+		renderer.start();
+		frontend.start();
+		renderer.join();
+		frontend.join();
+
+		Assert.assertEquals(images, free.size());
+		int total = 0;
+		for (int count : owner) {
+			total += count;
+		}
+		Assert.assertEquals(rounds, total);
+	}
+}
@@ -0,0 +1,61 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.backend;
+
+import org.eclipse.fx.drift.Rect2i;
+import org.eclipse.fx.drift.Vec2i;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestMainMemoryImage {
+
+	@Test
+	public void contentSizeFollowsSmallDisplays() {
+		Vec2i size = new Vec2i(1000, 500);
+		Vec2i content = MainMemoryImage.getContentSize(size, new Vec2i(400, 200));
+		Assert.assertEquals(400, content.x);
+		Assert.assertEquals(200, content.y);
+		// clamped to the image
+		content = MainMemoryImage.getContentSize(size, new Vec2i(2000, 100));
+		Assert.assertEquals(1000, content.x);
+		Assert.assertEquals(100, content.y);
+	}
+
+	@Test
+	public void fullSizeForLargeDisplays() {
+		Vec2i size = new Vec2i(1000, 500);
+		Assert.assertNull(MainMemoryImage.getContentSize(size, null));
+		Assert.assertNull(MainMemoryImage.getContentSize(size, new Vec2i(0, 0)));
+		Assert.assertNull(MainMemoryImage.getContentSize(size, new Vec2i(1000, 500)));
+		Assert.assertNull(MainMemoryImage.getContentSize(size, new Vec2i(2000, 1000)));
+		// less than a quarter saved
+		Assert.assertNull(MainMemoryImage.getContentSize(size, new Vec2i(900, 450)));
+		Assert.assertNotNull(MainMemoryImage.getContentSize(size, new Vec2i(860, 430)));
+	}
+
+	@Test
+	public void damageIsScaledToTheContent() {
+		Vec2i size = new Vec2i(1000, 500);
+		Vec2i content = new Vec2i(400, 200);
+		Rect2i[] damage = MainMemoryImage.scaleDamage(new Rect2i[] { new Rect2i(100, 50, 250, 100), new Rect2i(0, 0, 1000, 500) }, size, content);
+		// grown by a pixel for the filter
+		Assert.assertEquals(39, damage[0].x);
+		Assert.assertEquals(19, damage[0].y);
+		Assert.assertEquals(102, damage[0].width);
+		Assert.assertEquals(42, damage[0].height);
+		// clamped to the content
+		Assert.assertEquals(0, damage[1].x);
+		Assert.assertEquals(0, damage[1].y);
+		Assert.assertEquals(400, damage[1].width);
+		Assert.assertEquals(200, damage[1].height);
+	}
+}
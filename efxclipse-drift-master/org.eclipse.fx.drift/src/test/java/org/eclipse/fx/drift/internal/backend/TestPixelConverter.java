@@ -0,0 +1,89 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.backend;
+
+import java.nio.IntBuffer;
+
+import org.eclipse.fx.drift.Rect2i;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestPixelConverter {
+
+	@Test
+	public void premultiplyMatchesRoundedDivision() {
+		for (int a = 0; a < 256; a++) {
+			for (int c = 0; c < 256; c++) {
+				int pixel = a << 24 | c << 16 | (255 - c) << 8 | c;
+				int expected = Math.round(c * a / 255f);
+				int expectedG = Math.round((255 - c) * a / 255f);
+				int result = PixelConverter.premultiply(pixel);
+				Assert.assertEquals(a, result >>> 24);
+				Assert.assertEquals(expected, (result >>> 16) & 0xFF);
+				Assert.assertEquals(expectedG, (result >>> 8) & 0xFF);
+				Assert.assertEquals(expected, result & 0xFF);
+			}
+		}
+	}
+
+	@Test
+	public void swizzleSwapsRedAndBlue() {
+		PixelConverter converter = new PixelConverter(PixelConverter.SWIZZLE);
+		Assert.assertEquals(0x80332211, converter.convert(0x80112233));
+	}
+
+	@Test
+	public void srgbEncode() {
+		PixelConverter converter = new PixelConverter(PixelConverter.SRGB_ENCODE);
+		Assert.assertEquals(0x7F00FFFF, converter.convert(0x7F00FFFF));
+		// linear 0.5 is 188 in sRGB
+		Assert.assertEquals(0xFFBCBCBC, converter.convert(0xFF808080));
+	}
+
+	@Test
+	public void convertsOnlyTheRegion() {
+		int width = 8;
+		int height = 4;
+		IntBuffer pixels = IntBuffer.allocate(width * height);
+		for (int i = 0; i < width * height; i++) {
+			pixels.put(i, 0x80FF00FF);
+		}
+		PixelConverter converter = new PixelConverter(PixelConverter.PREMULTIPLY);
+		converter.convert(pixels, width, new Rect2i[] { new Rect2i(2, 1, 3, 2) });
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				boolean inside = x >= 2 && x < 5 && y >= 1 && y < 3;
+				Assert.assertEquals(inside ? 0x80800080 : 0x80FF00FF, pixels.get(y * width + x));
+			}
+		}
+		converter.convert(pixels, width, height);
+		Assert.assertEquals(0x80800080, pixels.get(0));
+	}
+
+	@Test
+	public void convertsOverlappingRegionsOnce() {
+		int width = 8;
+		int height = 8;
+		IntBuffer pixels = IntBuffer.allocate(width * height);
+		for (int i = 0; i < width * height; i++) {
+			pixels.put(i, 0x800000FF);
+		}
+		PixelConverter converter = new PixelConverter(PixelConverter.SWIZZLE | PixelConverter.PREMULTIPLY);
+		converter.convert(pixels, width, new Rect2i[] { new Rect2i(2, 2, 4, 4), new Rect2i(0, 0, 4, 4), new Rect2i(4, 2, 1, 1) });
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				boolean inside = x < 4 && y < 4 || x >= 2 && x < 6 && y >= 2 && y < 6;
+				Assert.assertEquals(inside ? 0x80800000 : 0x800000FF, pixels.get(y * width + x));
+			}
+		}
+	}
+}
@@ -0,0 +1,159 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.backend;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.eclipse.fx.drift.PresentationMode;
+import org.eclipse.fx.drift.RenderTarget;
+import org.eclipse.fx.drift.SwapchainConfig;
+import org.eclipse.fx.drift.TransferType;
+import org.eclipse.fx.drift.Vec2i;
+import org.eclipse.fx.drift.internal.common.ImageData;
+import org.eclipse.fx.drift.internal.transport.Command;
+import org.eclipse.fx.drift.internal.transport.SwapchainCommand;
+import org.eclipse.fx.drift.internal.transport.command.PresentCommand;
+import org.eclipse.fx.drift.internal.transport.command.PresentUnchangedCommand;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSimpleSwapchain {
+	
+	private static final TransferType TYPE = new TransferType("Pending", () -> true);
+	
+	static {
+		ImageFactory.register(TYPE, PendingImage::new);
+	}
+	
+	/** image whose readback only finishes when waited for or marked ready */
+	static class PendingImage implements Image {
+		private final ImageData data;
+		boolean ready;
+		
+		PendingImage(int number, Vec2i size) {
+			this.data = new ImageData(number, TYPE, size);
+		}
+		
+		@Override
+		public ImageData getData() {
+			return data;
+		}
+		
+		@Override
+		public void allocate() {
+		}
+		
+		@Override
+		public void release() {
+		}
+		
+		@Override
+		public void onAcquire() {
+			ready = false;
+		}
+		
+		@Override
+		public void onPresent() {
+		}
+		
+		@Override
+		public boolean completePresent(boolean wait) {
+			return wait || ready;
+		}
+		
+		@Override
+		public int getGLTexture() {
+			return 0;
+		}
+	}
+	
+	static class RecordingBackend implements Backend {
+		final List<Command> sent = new ArrayList<>();
+		
+		@Override
+		public BackendSwapchain createSwapchain(SwapchainConfig config) {
+			throw new UnsupportedOperationException();
+		}
+		
+		@Override
+		public void setCommandChannel(Consumer<Command> commandChannel) {
+		}
+		
+		@Override
+		public void receiveCommand(Command command) {
+		}
+		
+		@Override
+		public void sendCommand(Command command) {
+			sent.add(command);
+		}
+		
+		@Override
+		public <C extends Command> CompletableFuture<C> waitForCommand(Class<C> type, Predicate<C> filter) {
+			return new CompletableFuture<>();
+		}
+		
+		@Override
+		public <C extends SwapchainCommand> CompletableFuture<C> waitForCommand(Class<C> type, UUID swapChainId) {
+			return new CompletableFuture<>();
+		}
+	}
+	
+	private RecordingBackend backend;
+	private SimpleSwapchain swapchain;
+	
+	@Before
+	public void setup() {
+		backend = new RecordingBackend();
+		swapchain = new SimpleSwapchain(backend, UUID.randomUUID(), new SwapchainConfig(new Vec2i(4, 4), 3, PresentationMode.MAILBOX, TYPE));
+		swapchain.allocate();
+	}
+	
+	@Test
+	public void presentDoesNotWait() throws InterruptedException {
+		swapchain.present(swapchain.acquire());
+		Assert.assertTrue(backend.sent.isEmpty());
+	}
+	
+	@Test
+	public void acquireDeliversFinishedFrames() throws InterruptedException {
+		RenderTarget first = swapchain.acquire();
+		swapchain.present(first);
+		((PendingImage) first).ready = true;
+		swapchain.acquire();
+		Assert.assertEquals(1, backend.sent.size());
+		Assert.assertTrue(backend.sent.get(0) instanceof PresentCommand);
+	}
+	
+	@Test
+	public void flushDeliversTheLastFrame() throws InterruptedException {
+		swapchain.present(swapchain.acquire());
+		swapchain.present(swapchain.acquire());
+		swapchain.flush();
+		Assert.assertEquals(2, backend.sent.size());
+	}
+	
+	@Test
+	public void presentUnchangedDeliversTheLastFrame() throws InterruptedException {
+		swapchain.present(swapchain.acquire());
+		swapchain.presentUnchanged();
+		Assert.assertEquals(2, backend.sent.size());
+		Assert.assertTrue(backend.sent.get(0) instanceof PresentCommand);
+		Assert.assertTrue(backend.sent.get(1) instanceof PresentUnchangedCommand);
+	}
+}
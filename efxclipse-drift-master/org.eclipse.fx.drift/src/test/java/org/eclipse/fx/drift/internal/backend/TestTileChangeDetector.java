@@ -0,0 +1,64 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.backend;
+
+import org.eclipse.fx.drift.Rect2i;
+import org.eclipse.fx.drift.Vec2i;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestTileChangeDetector {
+
+	@Test
+	public void firstUpdateIsFull() {
+		TileChangeDetector detector = new TileChangeDetector(new Vec2i(100, 100), 10);
+		Assert.assertNull(detector.update());
+		Assert.assertEquals(0, detector.update().length);
+		detector.invalidate();
+		Assert.assertNull(detector.update());
+	}
+
+	@Test
+	public void mergesRowRuns() {
+		TileChangeDetector detector = new TileChangeDetector(new Vec2i(95, 95), 10);
+		detector.update();
+		// tiles are 10 x 10, so 10 per row
+		long[] hashes = detector.getHashes();
+		hashes[12] = 1;
+		hashes[13] = 1;
+		hashes[19] = 1;
+		hashes[99] = 1;
+		Rect2i[] changed = detector.update();
+		Assert.assertEquals(3, changed.length);
+		assertRect(20, 10, 20, 10, changed[0]);
+		assertRect(90, 10, 5, 10, changed[1]);
+		assertRect(90, 90, 5, 5, changed[2]);
+	}
+
+	@Test
+	public void comparesWithPreviousContent() {
+		TileChangeDetector detector = new TileChangeDetector(new Vec2i(20, 20), 10);
+		detector.getHashes()[0] = 7;
+		detector.update();
+		detector.getHashes()[0] = 7;
+		Assert.assertEquals(0, detector.update().length);
+		detector.getHashes()[0] = 8;
+		Assert.assertEquals(1, detector.update().length);
+	}
+
+	private static void assertRect(int x, int y, int width, int height, Rect2i r) {
+		Assert.assertEquals(x, r.x);
+		Assert.assertEquals(y, r.y);
+		Assert.assertEquals(width, r.width);
+		Assert.assertEquals(height, r.height);
+	}
+}
@@ -0,0 +1,36 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.backend;
+
+import java.util.Arrays;
+
+import org.eclipse.fx.drift.internal.common.TransferFormat;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestTransferFormatProbe {
+
+	@Test
+	public void ranksByTimeWithoutFailures() {
+		TransferFormat[] formats = TransferFormat.values();
+		long[] nanos = { 300, Long.MAX_VALUE, 100, 300 };
+		Assert.assertEquals(Arrays.asList(TransferFormat.RGBA_8_8_8_8_REV, TransferFormat.BGRA_8_8_8_8_REV, TransferFormat.RGBA_UNSIGNED_BYTE),
+				TransferFormatProbe.rank(formats, nanos));
+	}
+
+	@Test
+	public void defaultRankingStartsWithDefault() {
+		Assert.assertEquals(TransferFormat.RGBA_8_8_8_8_REV, TransferFormat.getDefaultRanking(false).get(0));
+		Assert.assertEquals(TransferFormat.values().length, TransferFormat.getDefaultRanking(false).size());
+		Assert.assertEquals(TransferFormat.BGRA_8_8_8_8_REV, TransferFormat.getDefaultRanking(true).get(0));
+	}
+}
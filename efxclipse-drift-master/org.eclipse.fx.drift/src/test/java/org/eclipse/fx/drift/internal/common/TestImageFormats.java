@@ -0,0 +1,72 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.common;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.eclipse.fx.drift.ImageFormat;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestImageFormats {
+
+	@Test
+	public void halfFloat() {
+		Assert.assertEquals(0f, ImageFormats.halfToFloat((short) 0x0000), 0);
+		Assert.assertEquals(1f, ImageFormats.halfToFloat((short) 0x3C00), 0);
+		Assert.assertEquals(0.5f, ImageFormats.halfToFloat((short) 0x3800), 0);
+		Assert.assertEquals(-2f, ImageFormats.halfToFloat((short) 0xC000), 0);
+		Assert.assertEquals(65504f, ImageFormats.halfToFloat((short) 0x7BFF), 0);
+		Assert.assertEquals(0x1p-24f, ImageFormats.halfToFloat((short) 0x0001), 0);
+	}
+
+	@Test
+	public void expandsToARGB() {
+		ByteBuffer p = ByteBuffer.allocate(8).order(ByteOrder.nativeOrder());
+		// BGR byte order
+		p.put(0, (byte) 0x33);
+		p.put(1, (byte) 0x22);
+		p.put(2, (byte) 0x11);
+		Assert.assertEquals(0xFF112233, ImageFormats.toARGB(ImageFormat.RGB8, p, 0));
+		
+		p.putShort(0, (short) 0xF800);
+		Assert.assertEquals(0xFFFF0000, ImageFormats.toARGB(ImageFormat.RGB565, p, 0));
+		p.putShort(0, (short) 0x07FF);
+		Assert.assertEquals(0xFF00FFFF, ImageFormats.toARGB(ImageFormat.RGB565, p, 0));
+		
+		// BGRA half floats: 1, 0.5, >1 (clamped), 0.5
+		p.putShort(0, (short) 0x3C00);
+		p.putShort(2, (short) 0x3800);
+		p.putShort(4, (short) 0x4000);
+		p.putShort(6, (short) 0x3800);
+		Assert.assertEquals(0x80FF80FF, ImageFormats.toARGB(ImageFormat.RGBA16F, p, 0));
+	}
+
+	@Test
+	public void expandsRegionIntoArray() {
+		int width = 4;
+		ByteBuffer p = ByteBuffer.allocate(width * 3 * 2).order(ByteOrder.nativeOrder());
+		for (int i = 0; i < width * 3; i++) {
+			p.putShort(i * 2, (short) 0xFFFF);
+		}
+		int stride = 6;
+		int[] dst = new int[stride * 3 + 1];
+		ImageFormats.expand(ImageFormat.RGB565, p, width, 1, 1, 2, 2, dst, 1, stride);
+		for (int i = 0; i < dst.length; i++) {
+			int x = (i - 1) % stride;
+			int y = (i - 1) / stride;
+			boolean inside = i > 0 && x >= 1 && x < 3 && y >= 1 && y < 3;
+			Assert.assertEquals(inside ? 0xFFFFFFFF : 0, dst[i]);
+		}
+	}
+}
@@ -0,0 +1,66 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.frontend;
+
+import org.eclipse.fx.drift.FrameLatency;
+import org.eclipse.fx.drift.FrameLatency.Stage;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestFrameLatencyRecorder {
+	
+	// every stage takes frame * stage.ordinal() nanos
+	private static long[] stamps(int frame) {
+		long[] stamps = new long[Stage.values().length];
+		long time = 1000 * frame;
+		for (int stage = 0; stage < stamps.length; stage++) {
+			time += frame * stage;
+			stamps[stage] = time;
+		}
+		return stamps;
+	}
+	
+	@Test
+	public void keepsLastFrames() {
+		FrameLatencyRecorder recorder = new FrameLatencyRecorder(4);
+		for (int frame = 1; frame <= 6; frame++) {
+			recorder.record(stamps(frame));
+		}
+		FrameLatency latency = recorder.snapshot();
+		Assert.assertEquals(4, latency.getFrameCount());
+		Assert.assertEquals(3000, latency.getStamp(0, Stage.ACQUIRE));
+		Assert.assertEquals(6 * Stage.UPLOAD.ordinal(), latency.getDuration(3, Stage.UPLOAD));
+		Assert.assertEquals(0, latency.getDuration(3, Stage.ACQUIRE));
+	}
+	
+	@Test
+	public void percentiles() {
+		FrameLatencyRecorder recorder = new FrameLatencyRecorder(100);
+		for (int frame = 100; frame >= 1; frame--) {
+			recorder.record(stamps(frame));
+		}
+		FrameLatency latency = recorder.snapshot();
+		Assert.assertEquals(50 * Stage.RENDER.ordinal(), latency.getPercentile(Stage.RENDER, 50));
+		Assert.assertEquals(99 * Stage.RENDER.ordinal(), latency.getPercentile(Stage.RENDER, 99));
+		// 1 + 2 + 3 + 4 + 5 stage durations per frame step
+		Assert.assertEquals(99 * 15, latency.getLatencyPercentile(99));
+	}
+	
+	@Test
+	public void ignoresIncompleteFrames() {
+		FrameLatencyRecorder recorder = new FrameLatencyRecorder(4);
+		long[] stamps = stamps(1);
+		stamps[Stage.DELIVERY.ordinal()] = 0;
+		recorder.record(stamps);
+		Assert.assertEquals(0, recorder.snapshot().getFrameCount());
+	}
+}
@@ -0,0 +1,121 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.transport;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.fx.drift.internal.transport.command.DisposeSwapchainCommand;
+import org.eclipse.fx.drift.internal.transport.command.ReleaseCommand;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestCommandBus {
+	
+	private ExecutorService executor = Executors.newCachedThreadPool();
+	
+	@After
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void controlWaitsForFrames() throws InterruptedException {
+		UUID id = UUID.randomUUID();
+		List<Command> received = new CopyOnWriteArrayList<>();
+		CountDownLatch done = new CountDownLatch(1);
+		CommandBus bus = new CommandBus(command -> {
+			if (command instanceof ReleaseCommand && received.isEmpty()) {
+				sleep(50);
+			}
+			received.add(command);
+			if (command instanceof DisposeSwapchainCommand) {
+				done.countDown();
+			}
+		}, executor);
+		
+		for (int i = 0; i < 10; i++) {
+			bus.send(new ReleaseCommand(id, null));
+		}
+		bus.send(new DisposeSwapchainCommand(id));
+		
+		Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+		Assert.assertEquals(11, received.size());
+		Assert.assertTrue(received.get(10) instanceof DisposeSwapchainCommand);
+	}
+	
+	@Test
+	public void framesDoNotWaitForControl() throws InterruptedException {
+		UUID id = UUID.randomUUID();
+		CountDownLatch blocked = new CountDownLatch(1);
+		CountDownLatch frame = new CountDownLatch(1);
+		CommandBus bus = new CommandBus(command -> {
+			if (command instanceof DisposeSwapchainCommand) {
+				await(blocked);
+			}
+			else {
+				frame.countDown();
+			}
+		}, executor);
+		
+		bus.send(new DisposeSwapchainCommand(id));
+		bus.send(new ReleaseCommand(id, null));
+		
+		Assert.assertTrue(frame.await(5, TimeUnit.SECONDS));
+		blocked.countDown();
+	}
+	
+	@Test
+	public void keepsOrderPerLane() throws InterruptedException {
+		UUID id = UUID.randomUUID();
+		int count = 1000;
+		List<Command> received = new CopyOnWriteArrayList<>();
+		CountDownLatch done = new CountDownLatch(count);
+		CommandBus bus = new CommandBus(command -> {
+			received.add(command);
+			done.countDown();
+		}, executor);
+		
+		ReleaseCommand[] sent = new ReleaseCommand[count];
+		for (int i = 0; i < count; i++) {
+			sent[i] = new ReleaseCommand(id, null);
+			bus.send(sent[i]);
+		}
+		
+		Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+		for (int i = 0; i < count; i++) {
+			Assert.assertSame(sent[i], received.get(i));
+		}
+	}
+	
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
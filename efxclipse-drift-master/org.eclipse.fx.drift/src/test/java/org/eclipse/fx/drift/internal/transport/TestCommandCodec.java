@@ -0,0 +1,100 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.transport;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.eclipse.fx.drift.ImageFormat;
+import org.eclipse.fx.drift.PresentationMode;
+import org.eclipse.fx.drift.Rect2i;
+import org.eclipse.fx.drift.Vec2i;
+import org.eclipse.fx.drift.internal.common.ImageData;
+import org.eclipse.fx.drift.internal.common.MainMemoryImageData;
+import org.eclipse.fx.drift.internal.common.TransferFormat;
+import org.eclipse.fx.drift.internal.transport.command.CreateSwapchainCommand;
+import org.eclipse.fx.drift.internal.transport.command.DisplaySizeCommand;
+import org.eclipse.fx.drift.internal.transport.command.PresentCommand;
+import org.eclipse.fx.drift.internal.transport.command.ReleaseCommand;
+import org.eclipse.fx.drift.internal.transport.command.SwapchainCreatedCommand;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestCommandCodec {
+	
+	private static final CommandCodec.ImageListener NO_LISTENER = new CommandCodec.ImageListener() {
+		@Override
+		public void created(UUID swapChainId, List<ImageData> images) {
+		}
+		
+		@Override
+		public void disposed(UUID swapChainId) {
+		}
+	};
+
+	@Test
+	public void roundTrip() {
+		CommandCodec backend = new CommandCodec(NO_LISTENER);
+		CommandCodec frontend = new CommandCodec(NO_LISTENER);
+		UUID id = UUID.randomUUID();
+		Vec2i size = new Vec2i(16, 8);
+		List<ImageData> images = Arrays.asList(new MainMemoryImageData(0, size, 0, 384, ImageFormat.RGB8), new MainMemoryImageData(1, size, 0, 384, ImageFormat.RGB8));
+		
+		List<TransferFormat> offered = Arrays.asList(TransferFormat.BGRA_UNSIGNED_BYTE, TransferFormat.RGBA_8_8_8_8_REV);
+		CreateSwapchainCommand create = (CreateSwapchainCommand) transfer(backend, frontend, new CreateSwapchainCommand(id, images, PresentationMode.MAILBOX, offered));
+		Assert.assertEquals(id, create.getId());
+		Assert.assertEquals(PresentationMode.MAILBOX, create.getPresentatioMode());
+		Assert.assertEquals(offered, create.getTransferFormats());
+		
+		SwapchainCreatedCommand created = (SwapchainCreatedCommand) transfer(frontend, backend, new SwapchainCreatedCommand(id, TransferFormat.RGBA_8_8_8_8_REV));
+		Assert.assertEquals(TransferFormat.RGBA_8_8_8_8_REV, created.getTransferFormat());
+		Assert.assertNull(((SwapchainCreatedCommand) transfer(frontend, backend, new SwapchainCreatedCommand(id))).getTransferFormat());
+		Assert.assertEquals(2, create.getImages().size());
+		MainMemoryImageData received = (MainMemoryImageData) create.getImages().get(1);
+		Assert.assertEquals(1, received.number);
+		Assert.assertEquals(16, received.size.x);
+		Assert.assertEquals(384, received.memSize);
+		Assert.assertEquals(ImageFormat.RGB8, received.format);
+		
+		ImageData presented = images.get(1);
+		presented.frame = 7;
+		presented.previousFrame = 5;
+		presented.damage = new Rect2i[] { new Rect2i(1, 2, 3, 4) };
+		presented.contentSize = new Vec2i(8, 4);
+		PresentCommand present = (PresentCommand) transfer(backend, frontend, new PresentCommand(id, presented));
+		Assert.assertSame(received, present.getImageData());
+		Assert.assertEquals(7, received.frame);
+		Assert.assertEquals(5, received.previousFrame);
+		Assert.assertEquals(4, received.damage[0].height);
+		Assert.assertEquals(8, received.contentSize.x);
+		Assert.assertEquals(4, received.contentSize.y);
+		
+		presented.contentSize = null;
+		transfer(backend, frontend, new PresentCommand(id, presented));
+		Assert.assertNull(received.contentSize);
+		
+		DisplaySizeCommand displaySize = (DisplaySizeCommand) transfer(frontend, backend, new DisplaySizeCommand(id, new Vec2i(12, 6)));
+		Assert.assertEquals(id, displaySize.getSwapChainId());
+		Assert.assertEquals(12, displaySize.getSize().x);
+		Assert.assertEquals(6, displaySize.getSize().y);
+		
+		// releases resolve to the sender's images
+		ReleaseCommand release = (ReleaseCommand) transfer(frontend, backend, new ReleaseCommand(id, received));
+		Assert.assertSame(presented, release.getImageData());
+	}
+	
+	private static Command transfer(CommandCodec from, CommandCodec to, Command command) {
+		byte[] data = from.encode(command);
+		return to.decode(data, 0, data.length);
+	}
+}
@@ -0,0 +1,54 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.transport.shm;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestSharedMemoryRing {
+
+	@Test
+	public void wrapsAround() {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(SharedMemoryRing.size(256));
+		SharedMemoryRing producer = new SharedMemoryRing(buffer, 0, 256);
+		SharedMemoryRing consumer = new SharedMemoryRing(buffer, 0, 256);
+		Assert.assertNull(consumer.poll());
+		
+		for (int i = 0; i < 100; i++) {
+			byte[] message = new byte[i % 37 + 2];
+			message[0] = (byte) i;
+			message[message.length - 1] = (byte) -i;
+			Assert.assertTrue(producer.offer(message, 0, message.length));
+			byte[] received = consumer.poll();
+			Assert.assertEquals(message.length, received.length);
+			Assert.assertEquals((byte) i, received[0]);
+			Assert.assertEquals((byte) -i, received[received.length - 1]);
+		}
+		Assert.assertTrue(consumer.isEmpty());
+	}
+
+	@Test
+	public void full() {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(SharedMemoryRing.size(64));
+		SharedMemoryRing ring = new SharedMemoryRing(buffer, 0, 64);
+		byte[] message = new byte[12];
+		// 16 bytes per record
+		for (int i = 0; i < 4; i++) {
+			Assert.assertTrue(ring.offer(message, 0, message.length));
+		}
+		Assert.assertFalse(ring.offer(message, 0, message.length));
+		Assert.assertNotNull(ring.poll());
+		Assert.assertTrue(ring.offer(message, 0, message.length));
+	}
+}
@@ -0,0 +1,71 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.transport.shm;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.fx.drift.PresentationMode;
+import org.eclipse.fx.drift.Vec2i;
+import org.eclipse.fx.drift.internal.SYS;
+import org.eclipse.fx.drift.internal.backend.ImageMemory;
+import org.eclipse.fx.drift.internal.common.MainMemoryImageData;
+import org.eclipse.fx.drift.internal.transport.Command;
+import org.eclipse.fx.drift.internal.transport.command.CreateSwapchainCommand;
+import org.eclipse.fx.drift.internal.transport.command.ReleaseCommand;
+import org.eclipse.fx.drift.internal.transport.command.SurfaceChangedCommand;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestSharedMemoryTransport {
+
+	@Test
+	public void sharesImages() throws InterruptedException {
+		String channel = "test-" + UUID.randomUUID();
+		BlockingQueue<Command> toFrontend = new LinkedBlockingQueue<>();
+		BlockingQueue<Command> toBackend = new LinkedBlockingQueue<>();
+		SharedMemoryTransport frontend = new SharedMemoryTransport(channel, SharedMemoryTransport.Role.FRONTEND, toFrontend::add);
+		SharedMemoryTransport backend = new SharedMemoryTransport(channel, SharedMemoryTransport.Role.BACKEND, toBackend::add);
+		frontend.setBGRA(true);
+		frontend.start();
+		backend.start();
+		try {
+			frontend.send(new SurfaceChangedCommand(100, 50, 2, 1));
+			SurfaceChangedCommand surface = (SurfaceChangedCommand) toBackend.poll(5, TimeUnit.SECONDS);
+			Assert.assertEquals(50, surface.getHeight(), 0);
+			
+			UUID id = UUID.randomUUID();
+			ImageMemory memory = backend.createImageMemory(id);
+			Assert.assertTrue(memory.isBGRA());
+			long pointer = memory.allocate(0, 64);
+			SYS.wrap(pointer, 64).putLong(0, 0x1234567890L);
+			MainMemoryImageData image = new MainMemoryImageData(0, new Vec2i(4, 4), pointer, 64);
+			backend.send(new CreateSwapchainCommand(id, Collections.singletonList(image), PresentationMode.MAILBOX));
+			
+			CreateSwapchainCommand create = (CreateSwapchainCommand) toFrontend.poll(5, TimeUnit.SECONDS);
+			MainMemoryImageData received = (MainMemoryImageData) create.getImages().get(0);
+			Assert.assertNotEquals(0, received.memPointer);
+			Assert.assertEquals(0x1234567890L, SYS.wrap(received.memPointer, 64).getLong(0));
+			
+			frontend.send(new ReleaseCommand(id, received));
+			ReleaseCommand release = (ReleaseCommand) toBackend.poll(5, TimeUnit.SECONDS);
+			Assert.assertSame(image, release.getImageData());
+			memory.free(0, pointer);
+		} finally {
+			backend.stop();
+			frontend.stop();
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.transport.socket;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestLZCodec {
+	
+	private static byte[] roundTrip(byte[] input, int maxCompressed) {
+		LZCodec codec = new LZCodec();
+		ByteBuffer src = ByteBuffer.allocateDirect(input.length);
+		src.put(input);
+		ByteBuffer compressed = ByteBuffer.allocateDirect(LZCodec.maxCompressedLength(input.length));
+		int length = codec.compress(src, input.length, compressed);
+		Assert.assertTrue("compressed to " + length, length <= maxCompressed);
+		
+		ByteBuffer decoded = ByteBuffer.allocateDirect(input.length);
+		new LZCodec().decompress(compressed, length, decoded, input.length);
+		byte[] output = new byte[input.length];
+		decoded.get(output);
+		return output;
+	}
+	
+	@Test
+	public void zeros() {
+		byte[] input = new byte[1920 * 1080 * 4];
+		Assert.assertArrayEquals(input, roundTrip(input, 32));
+	}
+	
+	@Test
+	public void random() {
+		byte[] input = new byte[100_003];
+		new Random(42).nextBytes(input);
+		Assert.assertArrayEquals(input, roundTrip(input, LZCodec.maxCompressedLength(input.length)));
+	}
+	
+	@Test
+	public void sparseChanges() {
+		// a mostly static frame delta: a few changed pixels and repeating patterns
+		byte[] input = new byte[256 * 256 * 4];
+		Random random = new Random(7);
+		for (int i = 0; i < 200; i++) {
+			int pixel = random.nextInt(input.length / 4) * 4;
+			input[pixel] = (byte) random.nextInt();
+			input[pixel + 2] = (byte) random.nextInt();
+		}
+		for (int i = 1000; i < 3000; i++) {
+			input[i] = (byte) (i % 3);
+		}
+		Assert.assertArrayEquals(input, roundTrip(input, input.length / 10));
+	}
+	
+	@Test
+	public void tiny() {
+		for (int length = 0; length < 20; length++) {
+			byte[] input = new byte[length];
+			for (int i = 0; i < length; i++) {
+				input[i] = (byte) (i / 4);
+			}
+			Assert.assertArrayEquals(input, roundTrip(input, LZCodec.maxCompressedLength(length)));
+		}
+	}
+	
+	@Test
+	public void farMatches() {
+		// repeats further apart than the decoder window holds before it slides
+		byte[] block = new byte[40_000];
+		new Random(3).nextBytes(block);
+		byte[] input = new byte[600_000];
+		for (int i = 0; i < input.length; i += block.length) {
+			System.arraycopy(block, 0, input, i, Math.min(block.length, input.length - i));
+		}
+		Assert.assertArrayEquals(input, roundTrip(input, input.length / 10));
+	}
+	
+	@Test
+	public void xorsIntoSpans() {
+		byte[] delta = new byte[300];
+		new Random(5).nextBytes(delta);
+		for (int i = 100; i < 200; i++) {
+			delta[i] = 0;
+		}
+		ByteBuffer src = ByteBuffer.allocateDirect(delta.length);
+		src.put(delta);
+		ByteBuffer compressed = ByteBuffer.allocateDirect(LZCodec.maxCompressedLength(delta.length));
+		int length = new LZCodec().compress(src, delta.length, compressed);
+		
+		byte[] before = new byte[1000];
+		new Random(6).nextBytes(before);
+		ByteBuffer dst = ByteBuffer.allocateDirect(before.length);
+		dst.put(before);
+		int[] spans = { 10, 50, 400, 200, 900, 50 };
+		new LZCodec().decompress(compressed, length, dst, spans);
+		
+		byte[] expected = before.clone();
+		int d = 0;
+		for (int s = 0; s < spans.length; s += 2) {
+			for (int i = spans[s]; i < spans[s] + spans[s + 1]; i++) {
+				expected[i] ^= delta[d++];
+			}
+		}
+		byte[] output = new byte[before.length];
+		dst.clear();
+		dst.get(output);
+		Assert.assertArrayEquals(expected, output);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void corrupt() {
+		ByteBuffer compressed = ByteBuffer.allocateDirect(16);
+		// one literal, then a match reaching before the start
+		compressed.put(0, (byte) 1).put(1, (byte) 7).put(2, (byte) 1).put(3, (byte) 5);
+		new LZCodec().decompress(compressed, 4, ByteBuffer.allocateDirect(64), 64);
+	}
+}
@@ -0,0 +1,118 @@
+/* ******************************************************************************
+ * Copyright (c) 2019, 2020 BestSolution.at and others.
+ * All rights reserved. This program and the accompanying materials 
+ * are made available under the terms of the Eclipse Public License 2.0 
+ * which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     Christoph Caks <ccaks@bestsolution.at> - initial API and implementation
+ * ******************************************************************************/
+package org.eclipse.fx.drift.internal.transport.socket;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.fx.drift.PresentationMode;
+import org.eclipse.fx.drift.Rect2i;
+import org.eclipse.fx.drift.Vec2i;
+import org.eclipse.fx.drift.internal.SYS;
+import org.eclipse.fx.drift.internal.backend.ImageMemory;
+import org.eclipse.fx.drift.internal.common.MainMemoryImageData;
+import org.eclipse.fx.drift.internal.transport.Command;
+import org.eclipse.fx.drift.internal.transport.RemoteTransport.Role;
+import org.eclipse.fx.drift.internal.transport.command.CreateSwapchainCommand;
+import org.eclipse.fx.drift.internal.transport.command.PresentCommand;
+import org.eclipse.fx.drift.internal.transport.command.SurfaceChangedCommand;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestSocketTransport {
+	
+	private static final int SIZE = 4 * 64 * 64;
+	
+	private static void fill(ByteBuffer image, int seed) {
+		for (int i = 0; i < SIZE; i += 4) {
+			image.putInt(i, i < SIZE / 2 ? 0xFF336699 : i * seed);
+		}
+	}
+	
+	private static void assertContent(ByteBuffer expected, ByteBuffer actual) {
+		for (int i = 0; i < SIZE; i += 4) {
+			Assert.assertEquals("at " + i, expected.getInt(i), actual.getInt(i));
+		}
+	}
+	
+	@Test
+	public void sendsFrameDeltas() throws InterruptedException {
+		BlockingQueue<Command> toFrontend = new LinkedBlockingQueue<>();
+		BlockingQueue<Command> toBackend = new LinkedBlockingQueue<>();
+		SocketTransport frontend = new SocketTransport(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), Role.FRONTEND, toFrontend::add);
+		frontend.setBGRA(true);
+		frontend.start();
+		// sent before the backend connected
+		frontend.send(new SurfaceChangedCommand(100, 50, 2, 1));
+		SocketTransport backend = new SocketTransport(frontend.getAddress(), Role.BACKEND, toBackend::add);
+		backend.start();
+		try {
+			SurfaceChangedCommand surface = (SurfaceChangedCommand) toBackend.poll(5, TimeUnit.SECONDS);
+			Assert.assertEquals(50, surface.getHeight(), 0);
+			
+			UUID id = UUID.randomUUID();
+			ImageMemory memory = backend.createImageMemory(id);
+			Assert.assertTrue(memory.isBGRA());
+			long pointer = memory.allocate(0, SIZE);
+			MainMemoryImageData image = new MainMemoryImageData(0, new Vec2i(64, 64), pointer, SIZE);
+			backend.send(new CreateSwapchainCommand(id, Collections.singletonList(image), PresentationMode.MAILBOX));
+			CreateSwapchainCommand create = (CreateSwapchainCommand) toFrontend.poll(5, TimeUnit.SECONDS);
+			MainMemoryImageData received = (MainMemoryImageData) create.getImages().get(0);
+			
+			ByteBuffer expected = ByteBuffer.allocate(SIZE);
+			ByteBuffer source = backend.getImage(id, 0);
+			ByteBuffer target = frontend.getImage(id, 0);
+			Assert.assertEquals(received.memPointer, SYS.address(target));
+			for (int frame = 1; frame <= 3; frame++) {
+				fill(source, frame);
+				fill(expected, frame);
+				image.frame = frame;
+				backend.send(new PresentCommand(id, image));
+				PresentCommand present = (PresentCommand) toFrontend.poll(5, TimeUnit.SECONDS);
+				Assert.assertSame(received, present.getImageData());
+				Assert.assertEquals(frame, received.frame);
+				assertContent(expected, target);
+			}
+			// the static half of the frame costs next to nothing
+			Assert.assertTrue(backend.getPayloadBytes() < backend.getPixelBytes() * 2 / 3);
+			
+			// only the damaged rows are sent
+			long payloadBytes = backend.getPayloadBytes();
+			for (int i = 0; i < SIZE; i += 4) {
+				source.putInt(i, i * 13);
+			}
+			Rect2i damage = new Rect2i(8, 40, 16, 4);
+			for (int y = damage.y; y < damage.y + damage.height; y++) {
+				for (int x = damage.x; x < damage.x + damage.width; x++) {
+					int i = (y * 64 + x) * 4;
+					expected.putInt(i, i * 13);
+				}
+			}
+			image.damage = new Rect2i[] { damage };
+			backend.send(new PresentCommand(id, image));
+			toFrontend.poll(5, TimeUnit.SECONDS);
+			Assert.assertEquals(1, received.damage.length);
+			assertContent(expected, target);
+			Assert.assertTrue(backend.getPayloadBytes() - payloadBytes <= LZCodec.maxCompressedLength(damage.width * damage.height * 4));
+			memory.free(0, pointer);
+		} finally {
+			backend.stop();
+			frontend.stop();
+		}
+	}
+}